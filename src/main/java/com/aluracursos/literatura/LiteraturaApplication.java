@@ -3,15 +3,34 @@ package com.aluracursos.literatura;
 import com.aluracursos.literatura.menu.MenuPrincipal;
 import com.aluracursos.literatura.repository.AutorRepository;
 import com.aluracursos.literatura.repository.LibroRepository;
+import com.aluracursos.literatura.service.BusquedaLibrosApi;
 import com.aluracursos.literatura.service.ConsumoApi;
-import com.aluracursos.literatura.service.ConvierteDatos;
+import com.aluracursos.literatura.service.CrawlerCatalogo;
+import com.aluracursos.literatura.service.EstadisticasService;
+import com.aluracursos.literatura.service.ImportadorTitulos;
+import com.aluracursos.literatura.service.IndiceBusqueda;
+import com.aluracursos.literatura.service.InstantaneaService;
+import com.aluracursos.literatura.service.MedidorOperaciones;
+import com.aluracursos.literatura.service.RankingDescargas;
+import com.aluracursos.literatura.service.RegistroLibroService;
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ExitCodeGenerator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @SpringBootApplication
-public class LiteraturaApplication implements CommandLineRunner {
+public class LiteraturaApplication implements CommandLineRunner, ExitCodeGenerator {
 
 	// Inyección de dependencias
 	@Autowired
@@ -24,16 +43,98 @@ public class LiteraturaApplication implements CommandLineRunner {
 	private ConsumoApi consumoApi;
 
 	@Autowired
-	private ConvierteDatos conversor;
+	private BusquedaLibrosApi busquedaLibrosApi;
+
+	@Autowired
+	private RegistroLibroService registroLibroService;
+
+	@Autowired
+	private CrawlerCatalogo crawlerCatalogo;
+
+	@Autowired
+	private EstadisticasService estadisticasService;
+
+	@Autowired
+	private IndiceBusqueda indiceBusqueda;
+
+	@Autowired
+	private RankingDescargas rankingDescargas;
+
+	@Autowired
+	private MedidorOperaciones medidorOperaciones;
+
+	@Autowired
+	private ImportadorTitulos importadorTitulos;
+
+	@Autowired
+	private InstantaneaService instantaneaService;
+
+	// Permite arrancar el contexto sin el menú interactivo (pruebas, mediciones)
+	@Value("${literatura.menu.habilitado:true}")
+	private boolean menuHabilitado;
+
+	// Modo por lotes: archivo con los títulos a importar ("-" para la entrada estándar); vacío para usar el menú
+	@Value("${literatura.lote.archivo:}")
+	private String archivoLote;
+
+	// Archivo en el que se escribe el informe de la importación por lotes (opcional)
+	@Value("${literatura.lote.informe:}")
+	private String archivoInforme;
+
+	// Exporta el catálogo a una instantánea binaria en este archivo y termina
+	@Value("${literatura.instantanea.exportar:}")
+	private String exportarInstantanea;
+
+	// Registra en la base los libros de esta instantánea (semilla de un entorno nuevo) y termina
+	@Value("${literatura.instantanea.importar:}")
+	private String importarInstantanea;
+
+	private final LoggerBase logger = new LoggerBaseImpl(LiteraturaApplication.class.getName());
+
+	// Código de salida del proceso: distinto de 0 si algún título del lote falló
+	private int codigoSalida;
 
 	public static void main(String[] args) {
-		SpringApplication.run(LiteraturaApplication.class, args);
+		ConfigurableApplicationContext contexto = SpringApplication.run(LiteraturaApplication.class, args);
+		if (!(contexto instanceof WebServerApplicationContext)) { // Con el perfil 'servidor' el proceso sigue atendiendo la API
+			System.exit(SpringApplication.exit(contexto));
+		}
 	}
 
 	@Override
 	public void run(String... args) throws Exception {
-		MenuPrincipal menu = new MenuPrincipal(libroRepository, autorRepository, consumoApi, conversor);
+		if (!archivoLote.isBlank()) {
+			importarLote();
+			return;
+		}
+		if (!exportarInstantanea.isBlank()) {
+			instantaneaService.exportar(Path.of(exportarInstantanea));
+			return;
+		}
+		if (!importarInstantanea.isBlank()) {
+			instantaneaService.importar(Path.of(importarInstantanea));
+			return;
+		}
+		if (!menuHabilitado) {
+			return;
+		}
+		MenuPrincipal menu = new MenuPrincipal(libroRepository, autorRepository, consumoApi, busquedaLibrosApi,
+				registroLibroService, crawlerCatalogo, estadisticasService, indiceBusqueda, rankingDescargas, medidorOperaciones);
 		menu.muestraElMenu();
 	}
-}
 
+	@Override
+	public int getExitCode() {
+		return codigoSalida;
+	}
+
+	// Importa todos los títulos del archivo sin interacción y deja el informe en el log y, si se pidió, en un archivo
+	private void importarLote() throws IOException {
+		ImportadorTitulos.ResumenImportacion resumen = importadorTitulos.importar(archivoLote);
+		logger.logInfo(resumen::informe);
+		if (!archivoInforme.isBlank()) {
+			Files.writeString(Path.of(archivoInforme), resumen.informe(), StandardCharsets.UTF_8);
+		}
+		codigoSalida = resumen.cantidad(ImportadorTitulos.Estado.FALLIDO) > 0 ? 1 : 0;
+	}
+}
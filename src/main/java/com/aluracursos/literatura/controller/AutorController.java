@@ -0,0 +1,90 @@
+package com.aluracursos.literatura.controller;
+
+import com.aluracursos.literatura.model.AutorRespuesta;
+import com.aluracursos.literatura.model.AutorResumen;
+import com.aluracursos.literatura.model.PaginaRespuesta;
+import com.aluracursos.literatura.repository.AutorRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Autores del catálogo: las mismas consultas que las opciones 3, 4, 8, 9 y 12 del menú.
+// Todos los listados van en orden alfabético y se paginan con el cursor (nombre, id) devuelto en 'siguiente'.
+@RestController
+@RequestMapping("/api/autores")
+public class AutorController {
+
+    // Consulta de una página de autores posteriores a (nombre, id)
+    @FunctionalInterface
+    private interface ConsultaAutores {
+        List<AutorResumen> buscar(String nombre, long id, Pageable pageable);
+    }
+
+    private final AutorRepository autorRepository;
+    private final PoliticaRespuestas politica;
+
+    public AutorController(AutorRepository autorRepository, PoliticaRespuestas politica) {
+        this.autorRepository = autorRepository;
+        this.politica = politica;
+    }
+
+    @GetMapping
+    public ResponseEntity<PaginaRespuesta<AutorRespuesta>> listar(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limite) {
+        return paginar(autorRepository::findAllAutores, cursor, limite);
+    }
+
+    // Autores vivos en ?anio=, o en algún momento entre ?desde= y ?hasta= (inclusive)
+    @GetMapping("/vivos")
+    public ResponseEntity<PaginaRespuesta<AutorRespuesta>> vivos(@RequestParam(required = false) Integer anio,
+                                                                 @RequestParam(required = false) Integer desde,
+                                                                 @RequestParam(required = false) Integer hasta,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer limite) {
+        if (anio != null) {
+            return paginar((nombre, id, pagina) -> autorRepository.findAutoresVivosEnAnio(anio, nombre, id, pagina), cursor, limite);
+        }
+        if (desde == null || hasta == null || desde > hasta) {
+            throw new SolicitudInvalidaException("Indica ?anio= o un período válido con ?desde= y ?hasta=");
+        }
+        return paginar((nombre, id, pagina) -> autorRepository.findAutoresVivosEntre(desde, hasta, nombre, id, pagina), cursor, limite);
+    }
+
+    @GetMapping("/fallecidos")
+    public ResponseEntity<PaginaRespuesta<AutorRespuesta>> fallecidos(@RequestParam int anio,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) Integer limite) {
+        return paginar((nombre, id, pagina) -> autorRepository.findAutoresPorAnioFallecimiento(anio, nombre, id, pagina), cursor, limite);
+    }
+
+    // Autores cuyo nombre contiene el texto, sin distinguir mayúsculas (usa el índice de trigramas)
+    @GetMapping("/busqueda")
+    public ResponseEntity<List<AutorRespuesta>> buscar(@RequestParam String nombre) {
+        if (nombre.isBlank()) {
+            throw new SolicitudInvalidaException("Falta el nombre");
+        }
+        return politica.cacheable(autorRepository.findByNombreParcial(AutorRepository.patronContiene(nombre.strip())).stream()
+                .map(AutorRespuesta::desde)
+                .toList());
+    }
+
+    private ResponseEntity<PaginaRespuesta<AutorRespuesta>> paginar(ConsultaAutores consulta, String cursor, Integer limite) {
+        int tamanio = politica.limite(limite);
+        String nombre = "";
+        long id = 0L;
+        if (cursor != null) {
+            String[] partes = Cursores.decodificar(cursor, 2);
+            nombre = partes[0];
+            id = Cursores.decodificarLong(partes[1], cursor);
+        }
+        List<AutorResumen> filas = consulta.buscar(nombre, id, PageRequest.of(0, tamanio + 1)); // Una fila extra indica si hay página siguiente
+        return politica.cacheable(Cursores.pagina(filas, tamanio,
+                AutorRespuesta::desde, autor -> Cursores.codificar(autor.getNombre(), autor.getId())));
+    }
+}
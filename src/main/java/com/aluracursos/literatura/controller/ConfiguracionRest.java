@@ -0,0 +1,19 @@
+package com.aluracursos.literatura.controller;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class ConfiguracionRest {
+
+    // ETag calculado sobre el cuerpo de cada respuesta GET de la API: si coincide con If-None-Match
+    // se responde 304 sin cuerpo, así el cliente no vuelve a descargar lo que ya tiene
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> filtroEtag() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registro = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
@@ -0,0 +1,68 @@
+package com.aluracursos.literatura.controller;
+
+import com.aluracursos.literatura.model.PaginaRespuesta;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+// Cursores opacos de la paginación por clave (keyset): la clave de la última fila de una página
+// (por ejemplo, nombre e id) codificada en Base64 URL, para pasarla tal cual en ?cursor=...
+final class Cursores {
+
+    private static final String SEPARADOR = "\u001F"; // Separador de unidades: no aparece en títulos ni nombres
+    private static final Pattern DIVISOR = Pattern.compile(SEPARADOR, Pattern.LITERAL);
+
+    private Cursores() {
+    }
+
+    static String codificar(Object... partes) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < partes.length; i++) {
+            if (i > 0) {
+                texto.append(SEPARADOR);
+            }
+            texto.append(partes[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Devuelve las partes del cursor; lanza SolicitudInvalidaException (respuesta 400) si no es un cursor válido
+    static String[] decodificar(String cursor, int partes) {
+        try {
+            String[] valores = DIVISOR.split(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), -1);
+            if (valores.length == partes) {
+                return valores;
+            }
+        } catch (IllegalArgumentException e) {
+            // Se informa como cursor inválido
+        }
+        throw new SolicitudInvalidaException("Cursor inválido: " + cursor);
+    }
+
+    static long decodificarLong(String valor, String cursor) {
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            throw new SolicitudInvalidaException("Cursor inválido: " + cursor);
+        }
+    }
+
+    static int decodificarInt(String valor, String cursor) {
+        try {
+            return Integer.parseInt(valor); // Fuera de rango también es NumberFormatException
+        } catch (NumberFormatException e) {
+            throw new SolicitudInvalidaException("Cursor inválido: " + cursor);
+        }
+    }
+
+    // Arma la página a partir de las filas consultadas con límite + 1: la fila extra indica que hay página siguiente
+    static <T, R> PaginaRespuesta<R> pagina(List<T> filas, int limite, Function<T, R> convertir, Function<T, String> cursorDe) {
+        boolean haySiguiente = filas.size() > limite;
+        List<T> pagina = haySiguiente ? filas.subList(0, limite) : filas;
+        return new PaginaRespuesta<>(pagina.stream().map(convertir).toList(),
+                haySiguiente ? cursorDe.apply(pagina.get(pagina.size() - 1)) : null);
+    }
+}
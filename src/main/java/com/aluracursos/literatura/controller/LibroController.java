@@ -0,0 +1,124 @@
+package com.aluracursos.literatura.controller;
+
+import com.aluracursos.literatura.model.EstadisticasLibros;
+import com.aluracursos.literatura.model.Languages;
+import com.aluracursos.literatura.model.LibroResumen;
+import com.aluracursos.literatura.model.LibroRespuesta;
+import com.aluracursos.literatura.model.PaginaRespuesta;
+import com.aluracursos.literatura.model.SolicitudRegistro;
+import com.aluracursos.literatura.repository.LibroRepository;
+import com.aluracursos.literatura.service.EstadisticasService;
+import com.aluracursos.literatura.service.ImportadorTitulos;
+import com.aluracursos.literatura.service.IndiceBusqueda;
+import com.aluracursos.literatura.service.RankingDescargas;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+
+// Libros del catálogo: las mismas consultas que las opciones 1, 2, 5, 6 y 7 del menú
+@RestController
+@RequestMapping("/api/libros")
+public class LibroController {
+
+    private final LibroRepository libroRepository;
+    private final IndiceBusqueda indiceBusqueda;
+    private final RankingDescargas rankingDescargas;
+    private final EstadisticasService estadisticasService;
+    private final ImportadorTitulos importadorTitulos;
+    private final PoliticaRespuestas politica;
+
+    public LibroController(LibroRepository libroRepository, IndiceBusqueda indiceBusqueda, RankingDescargas rankingDescargas,
+                           EstadisticasService estadisticasService, ImportadorTitulos importadorTitulos,
+                           PoliticaRespuestas politica) {
+        this.libroRepository = libroRepository;
+        this.indiceBusqueda = indiceBusqueda;
+        this.rankingDescargas = rankingDescargas;
+        this.estadisticasService = estadisticasService;
+        this.importadorTitulos = importadorTitulos;
+        this.politica = politica;
+    }
+
+    // Libros registrados en orden de registro o, con ?idioma=es,en, los que tienen todos esos idiomas
+    // ordenados por descargas. Se pagina con el cursor devuelto en 'siguiente'.
+    @GetMapping
+    public ResponseEntity<PaginaRespuesta<LibroRespuesta>> listar(@RequestParam(required = false) List<String> idioma,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limite) {
+        int tamanio = politica.limite(limite);
+        PageRequest consulta = PageRequest.of(0, tamanio + 1); // Una fila extra indica si hay página siguiente
+        if (idioma == null || idioma.isEmpty()) {
+            long id = cursor == null ? 0L : Cursores.decodificarLong(Cursores.decodificar(cursor, 1)[0], cursor);
+            return politica.cacheable(Cursores.pagina(libroRepository.findLibrosResumen(id, consulta), tamanio,
+                    LibroRespuesta::desde, libro -> Cursores.codificar(libro.getId())));
+        }
+
+        int mascara = Languages.mascara(idioma.stream().map(LibroController::idioma).toList());
+        int descargas = Integer.MAX_VALUE;
+        long id = Long.MAX_VALUE;
+        if (cursor != null) {
+            String[] partes = Cursores.decodificar(cursor, 2);
+            descargas = Cursores.decodificarInt(partes[0], cursor);
+            id = Cursores.decodificarLong(partes[1], cursor);
+        }
+        List<LibroResumen> filas = libroRepository.findLibrosPorIdioma(Languages.mascarasQueIncluyen(mascara), descargas, id, consulta);
+        return politica.cacheable(Cursores.pagina(filas, tamanio,
+                LibroRespuesta::desde, libro -> Cursores.codificar(libro.getNumeroDescargas(), libro.getId())));
+    }
+
+    // Libros registrados cuyo título o autores contienen todos los términos, desde el índice en memoria
+    @GetMapping("/busqueda")
+    public ResponseEntity<List<LibroRespuesta>> buscar(@RequestParam String titulo,
+                                                       @RequestParam(required = false) Integer limite) {
+        return politica.cacheable(indiceBusqueda.buscar(titulo, politica.limite(limite)).stream()
+                .map(LibroRespuesta::desde)
+                .toList());
+    }
+
+    // Los libros más descargados, en total o de un idioma
+    @GetMapping("/top")
+    public ResponseEntity<List<LibroRespuesta>> top(@RequestParam(required = false) String idioma) {
+        return politica.cacheable(rankingDescargas.top(Optional.ofNullable(idioma).map(LibroController::idioma)).stream()
+                .map(LibroRespuesta::desde)
+                .toList());
+    }
+
+    @GetMapping("/estadisticas")
+    public ResponseEntity<EstadisticasLibros> estadisticas() {
+        return politica.cacheable(estadisticasService.obtener());
+    }
+
+    // Busca el título en Gutendex y registra el primer resultado: 201 si se registró, 200 si ya estaba registrado,
+    // 404 si Gutendex no lo encontró y 502 si la consulta a Gutendex falló
+    @PostMapping
+    public ResponseEntity<ImportadorTitulos.ResultadoTitulo> registrar(@RequestBody SolicitudRegistro solicitud) {
+        if (solicitud.titulo() == null || solicitud.titulo().isBlank()) {
+            throw new SolicitudInvalidaException("Falta el título");
+        }
+        ImportadorTitulos.ResultadoTitulo resultado = importadorTitulos.procesar(solicitud.titulo());
+        HttpStatus estado = switch (resultado.estado()) {
+            case REGISTRADO -> HttpStatus.CREATED;
+            case YA_REGISTRADO -> HttpStatus.OK;
+            case NO_ENCONTRADO -> HttpStatus.NOT_FOUND;
+            case FALLIDO -> HttpStatus.BAD_GATEWAY;
+        };
+        return ResponseEntity.status(estado).body(resultado);
+    }
+
+    // Idioma de un parámetro ?idioma=; un código que no se reconoce es un error de la solicitud
+    private static Languages idioma(String codigo) {
+        try {
+            return Languages.fromInput(codigo);
+        } catch (IllegalArgumentException e) {
+            throw new SolicitudInvalidaException(e.getMessage());
+        }
+    }
+}
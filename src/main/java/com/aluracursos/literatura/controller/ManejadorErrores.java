@@ -0,0 +1,20 @@
+package com.aluracursos.literatura.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class ManejadorErrores {
+
+    // Parámetros inválidos: idioma no reconocido, cursor o límite fuera de rango
+    // (las demás excepciones, incluidas las IllegalArgumentException de los servicios, siguen siendo errores 500)
+    @ExceptionHandler(SolicitudInvalidaException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> parametroInvalido(SolicitudInvalidaException e) {
+        return Map.of("error", e.getMessage());
+    }
+}
@@ -0,0 +1,41 @@
+package com.aluracursos.literatura.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Límites de página y cabeceras de caché comunes a todos los endpoints de lectura
+@Component
+class PoliticaRespuestas {
+
+    private final CacheControl cacheControl;
+    private final int limitePorDefecto;
+    private final int limiteMaximo;
+
+    PoliticaRespuestas(@Value("${literatura.rest.cache-max-age:60s}") Duration maxAge,
+                       @Value("${literatura.rest.limite-por-defecto:20}") int limitePorDefecto,
+                       @Value("${literatura.rest.limite-maximo:200}") int limiteMaximo) {
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+        this.limitePorDefecto = limitePorDefecto;
+        this.limiteMaximo = limiteMaximo;
+    }
+
+    int limite(Integer pedido) {
+        if (pedido == null) {
+            return limitePorDefecto;
+        }
+        if (pedido < 1 || pedido > limiteMaximo) {
+            throw new SolicitudInvalidaException("El límite debe estar entre 1 y " + limiteMaximo);
+        }
+        return pedido;
+    }
+
+    // Respuesta 200 que clientes y proxies pueden reutilizar durante max-age; pasado ese tiempo la revalidan
+    // con If-None-Match contra el ETag que agrega ShallowEtagHeaderFilter
+    <T> ResponseEntity<T> cacheable(T cuerpo) {
+        return ResponseEntity.ok().cacheControl(cacheControl).body(cuerpo);
+    }
+}
@@ -0,0 +1,10 @@
+package com.aluracursos.literatura.controller;
+
+// Parámetro de una solicitud a la API que no se puede atender (idioma no reconocido, cursor o límite fuera de rango).
+// Es la única excepción que ManejadorErrores convierte en una respuesta 400 con su mensaje.
+class SolicitudInvalidaException extends RuntimeException {
+
+    SolicitudInvalidaException(String mensaje) {
+        super(mensaje);
+    }
+}
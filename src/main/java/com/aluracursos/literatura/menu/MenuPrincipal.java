@@ -1,50 +1,89 @@
 package com.aluracursos.literatura.menu;
 
-import com.aluracursos.literatura.model.Autor;
+import com.aluracursos.literatura.model.AutorResumen;
 import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.literatura.model.EstadisticasLibros;
 import com.aluracursos.literatura.model.Languages;
 import com.aluracursos.literatura.model.Libro;
+import com.aluracursos.literatura.model.LibroIndexado;
+import com.aluracursos.literatura.model.LibroResumen;
 import com.aluracursos.literatura.repository.AutorRepository;
 import com.aluracursos.literatura.repository.LibroRepository;
+import com.aluracursos.literatura.service.BusquedaLibrosApi;
+import com.aluracursos.literatura.service.CacheRespuestasApi;
 import com.aluracursos.literatura.service.ConsumoApi;
-import com.aluracursos.literatura.service.ConvierteDatos;
+import com.aluracursos.literatura.service.CrawlerCatalogo;
+import com.aluracursos.literatura.service.EstadisticasService;
+import com.aluracursos.literatura.service.IndiceBusqueda;
+import com.aluracursos.literatura.service.MedidorOperaciones;
+import com.aluracursos.literatura.service.RankingDescargas;
+import com.aluracursos.literatura.service.RegistroLibroService;
 import com.aluracursos.logger.loggerbase.LoggerBase;
 import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
-import com.fasterxml.jackson.databind.JsonNode;
-import jakarta.transaction.Transactional;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 // Clase principal que gestiona el menú de la aplicación
 public class MenuPrincipal {
 
-    // URL base para la búsqueda de libros en la API
-    private static final String URL_BASE_1 = "https://gutendex.com/books?search=";
     // Tamaño de la página para la paginación
     private static final int PAGE_SIZE = 5;
+    // Cantidad máxima de coincidencias locales que se muestran al buscar un libro
+    private static final int MAX_COINCIDENCIAS_LOCALES = 5;
+    // Nombre de cada opción en las métricas, indexado por número de opción
+    private static final String[] OPERACIONES = {"salir", "buscarLibro", "listarLibrosRegistrados", "listarAutoresRegistrados",
+            "listarAutoresVivosAnio", "listarLibrosPorIdioma", "mostrarEstadisticas", "buscarTopLibros", "buscarAutor",
+            "listarAutoresMuertosAnio", "importarCatalogo", "mostrarEstadisticasCache", "listarAutoresVivosPeriodo"};
 
     // Scanner para la entrada del usuario
     private final Scanner scanner = new Scanner(System.in);
     // Servicio de consumo de API
     private final ConsumoApi consumoApi;
-    // Servicio de conversión de datos
-    private final ConvierteDatos conversor;
+    // Búsqueda de libros por título en la API
+    private final BusquedaLibrosApi busquedaLibrosApi;
     // Repositorio de libros
     private final LibroRepository libroRepository;
     // Repositorio de autores
     private final AutorRepository autorRepository;
+    // Servicio de registro de libros
+    private final RegistroLibroService registroLibroService;
+    // Crawler del catálogo completo de Gutendex
+    private final CrawlerCatalogo crawlerCatalogo;
+    // Servicio de estadísticas del catálogo
+    private final EstadisticasService estadisticasService;
+    // Índice en memoria de títulos y autores registrados
+    private final IndiceBusqueda indiceBusqueda;
+    // Ranking en memoria de los libros más descargados
+    private final RankingDescargas rankingDescargas;
+    // Métricas y eventos JFR de cada opción ejecutada
+    private final MedidorOperaciones medidorOperaciones;
     // Logger para el registro de información
     private final LoggerBase logger;
+    // Navegación por páginas de los listados
+    private final NavegadorPaginas navegador;
+    // Medición de la opción en curso, que se pausa mientras se espera una respuesta de la persona
+    private MedidorOperaciones.Medicion opcionEnCurso;
 
     // Constructor que inicializa las dependencias
-    public MenuPrincipal(LibroRepository libroRepository, AutorRepository autorRepository, ConsumoApi consumoApi, ConvierteDatos conversor) {
+    public MenuPrincipal(LibroRepository libroRepository, AutorRepository autorRepository, ConsumoApi consumoApi, BusquedaLibrosApi busquedaLibrosApi,
+                         RegistroLibroService registroLibroService, CrawlerCatalogo crawlerCatalogo,
+                         EstadisticasService estadisticasService, IndiceBusqueda indiceBusqueda,
+                         RankingDescargas rankingDescargas, MedidorOperaciones medidorOperaciones) {
         this.libroRepository = libroRepository; // Inicializa el repositorio de libros
         this.autorRepository = autorRepository; // Inicializa el repositorio de autores
         this.consumoApi = consumoApi; // Inicializa el servicio de consumo de API
-        this.conversor = conversor; // Inicializa el servicio de conversión de datos
+        this.busquedaLibrosApi = busquedaLibrosApi; // Inicializa la búsqueda de libros en la API
+        this.registroLibroService = registroLibroService; // Inicializa el servicio de registro de libros
+        this.crawlerCatalogo = crawlerCatalogo; // Inicializa el crawler del catálogo
+        this.estadisticasService = estadisticasService; // Inicializa el servicio de estadísticas
+        this.indiceBusqueda = indiceBusqueda; // Inicializa el índice de búsqueda local
+        this.rankingDescargas = rankingDescargas; // Inicializa el ranking de descargas
+        this.medidorOperaciones = medidorOperaciones; // Inicializa el medidor de operaciones
         this.logger = new LoggerBaseImpl(MenuPrincipal.class.getName()); // Inicializa el logger
+        this.navegador = new NavegadorPaginas(this::leerLinea, logger, PAGE_SIZE); // Inicializa la navegación por páginas
     }
 
     // Método que muestra el menú y maneja la interacción del usuario
@@ -54,13 +93,40 @@ public class MenuPrincipal {
             mostrarOpciones(); // Mostrar las opciones del menú
             try {
                 opcion = Integer.parseInt(scanner.nextLine().trim()); // Leer y convertir la entrada del usuario a un número entero
-                procesarOpcion(opcion); // Procesar la opción ingresada
+                medirOpcion(opcion); // Procesar la opción ingresada midiendo su duración (sin el tiempo de respuesta del usuario)
             } catch (NumberFormatException e) { // Capturar excepción si el usuario ingresa algo que no es un número
                 logger.logInfo("Opción inválida. Por favor, ingresa un número válido."); // Mostrar mensaje de error
             }
         } while (opcion != 0); // Repetir hasta que el usuario decida salir (opción 0)
     }
 
+    // Procesa la opción con su medición abierta; las lecturas de la entrada la pausan (leerLinea)
+    private void medirOpcion(int opcion) {
+        opcionEnCurso = medidorOperaciones.iniciar(MedidorOperaciones.TIPO_MENU, nombreOperacion(opcion));
+        try {
+            procesarOpcion(opcion);
+            opcionEnCurso.terminar(MedidorOperaciones.RESULTADO_OK);
+        } catch (RuntimeException | Error e) {
+            opcionEnCurso.terminar(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            opcionEnCurso = null;
+        }
+    }
+
+    // Lee una línea de la entrada sin contar la espera en la duración de la opción en curso
+    private String leerLinea() {
+        if (opcionEnCurso == null) {
+            return scanner.nextLine();
+        }
+        opcionEnCurso.pausar();
+        try {
+            return scanner.nextLine();
+        } finally {
+            opcionEnCurso.reanudar();
+        }
+    }
+
     // Método que muestra las opciones del menú
     private void mostrarOpciones() {
         logger.logInfo(String.format("""
@@ -71,13 +137,21 @@ public class MenuPrincipal {
                 4 - Listar Autores Vivos en un Determinado Año
                 5 - Listar Libros Por Idioma
                 6 - Imprimir Estadísticas de los Libros
-                7 - Buscar Top 10 de los Libros más Descargados
+                7 - Buscar Top de los Libros más Descargados
                 8 - Buscar Autor en la Base de Datos
                 9 - Listar Autores Muertos de un Año Específico
+                10 - Importar el Catálogo Completo de Gutendex
+                11 - Ver Estadísticas de la Caché de la API
+                12 - Listar Autores Vivos Durante un Período
                 0 - Salir
             """)); // Mostrar las opciones disponibles al usuario
     }
 
+    // Nombre de la opción para las métricas; las opciones inválidas comparten un mismo nombre
+    private static String nombreOperacion(int opcion) {
+        return opcion >= 0 && opcion < OPERACIONES.length ? OPERACIONES[opcion] : "opcionInvalida";
+    }
+
     // Método que procesa la opción seleccionada por el usuario
     private void procesarOpcion(int opcion) {
         switch (opcion) { // Evaluar la opción ingresada
@@ -87,9 +161,12 @@ public class MenuPrincipal {
             case 4 -> listarAutoresVivosAnio(); // Opción 4: Listar autores vivos en un año específico
             case 5 -> listarLibrosPorIdioma(); // Opción 5: Listar libros por idioma
             case 6 -> mostrarEstadisticas(); // Opción 6: Mostrar estadísticas de libros
-            case 7 -> buscarTop10Libros(); // Opción 7: Buscar los 10 libros más descargados
+            case 7 -> buscarTopLibros(); // Opción 7: Buscar los libros más descargados
             case 8 -> buscarAutor(); // Opción 8: Buscar autor en la base de datos
             case 9 -> listarAutoresMuertosAnio(); // Opción 9: Listar autores fallecidos en un año específico
+            case 10 -> importarCatalogo(); // Opción 10: Importar el catálogo completo de Gutendex
+            case 11 -> mostrarEstadisticasCache(); // Opción 11: Ver estadísticas de la caché de la API
+            case 12 -> listarAutoresVivosPeriodo(); // Opción 12: Listar autores vivos durante un período
             case 0 -> logger.logInfo("Cerrando la aplicación..."); // Opción 0: Salir
             default -> logger.logInfo("Opción inválida. Por favor, ingresa un número válido."); // Cualquier otra opción es inválida
         }
@@ -97,43 +174,45 @@ public class MenuPrincipal {
 
     // Método para obtener los datos de un libro a partir del título ingresado
     private DatosLibro getDatosLibro(final String tituloLibro) {
-        final String nombreLibro = tituloLibro.replace(" ", "+"); // Reemplazar espacios con '+' para formar la URL
-        final String url = URL_BASE_1 + nombreLibro; // Construir la URL completa para la búsqueda
-
-        final String json = consumoApi.obtenerDatos(url); // Consumir la API para obtener los datos en formato JSON
-        if (json == null || json.isEmpty()) { // Verificar si la respuesta es nula o vacía
-            logger.logInfo("No se recibió respuesta desde la API."); // Registrar que no se recibió respuesta
-            return null; // Retornar null si no hay datos
-        }
-
-        try {
-            final JsonNode rootNode = conversor.getObjectMapper().readTree(json); // Parsear el JSON a un nodo de árbol
-            final JsonNode resultsArray = rootNode.path("results"); // Obtener el nodo 'results'
-
-            if (resultsArray.isArray() && resultsArray.size() > 0) { // Verificar si el nodo 'results' es un array y tiene elementos
-                return conversor.getObjectMapper().treeToValue(resultsArray.get(0), DatosLibro.class); // Convertir el primer elemento a un objeto DatosLibro
-            }
-        } catch (Exception e) { // Capturar cualquier excepción durante el proceso
-            logger.logInfo("Error al procesar los datos de la API: " + e.getMessage()); // Registrar el error
-        }
-        return null; // Retornar null si no se pudo procesar la información
+        return busquedaLibrosApi.buscarPrimero(tituloLibro); // Consultar la API y quedarse con el primer resultado
     }
 
     // Método para buscar un libro e intentar registrarlo si no está presente
-    @Transactional
     private void buscarLibro() {
         logger.logInfo("Por favor escribe el nombre del libro que deseas buscar:"); // Solicitar al usuario el nombre del libro
-        final String tituloLibro = scanner.nextLine().trim(); // Leer y limpiar la entrada del usuario
+        final String tituloLibro = leerLinea().trim(); // Leer y limpiar la entrada del usuario
 
         if (tituloLibro.isEmpty()) { // Verificar si no se ingresó un título
             logger.logInfo("No ingresaste ningún título. Por favor intenta de nuevo."); // Mostrar mensaje de error
             return; // Terminar la ejecución del método
         }
 
-        libroRepository.findByTituloLibro(tituloLibro).ifPresentOrElse( // Buscar si el libro ya está registrado
-                libro -> logger.logInfo("El libro ya está registrado: " + libro.toCustomString()), // Si el libro existe, mostrar un mensaje
-                () -> registrarNuevoLibro(tituloLibro) // Si el libro no existe, registrar uno nuevo
-        );
+        Optional<Libro> registrado = libroRepository.findByTituloLibro(tituloLibro); // Buscar si el libro ya está registrado
+        if (registrado.isPresent()) { // Si el libro existe, mostrar un mensaje
+            logger.logInfo(() -> "El libro ya está registrado: " + registrado.get().toCustomString());
+            return; // Terminar la ejecución del método
+        }
+
+        List<LibroIndexado> coincidencias = indiceBusqueda.buscar(tituloLibro, MAX_COINCIDENCIAS_LOCALES); // Buscar por términos en el índice local antes de consultar la API
+        if (!coincidencias.isEmpty()) { // Si hay libros parecidos ya registrados, mostrarlos
+            logger.logInfo("Libros registrados que coinciden con la búsqueda:"); // Mostrar encabezado
+            coincidencias.forEach(this::imprimirCoincidencia); // Imprimir cada coincidencia
+            logger.logInfo("Escribe 's' para buscar igualmente en Gutendex o presiona Enter para volver al menú:"); // Preguntar si se consulta la API
+            if (!leerLinea().trim().equalsIgnoreCase("s")) { // Si el usuario no lo pide, no se consulta la API
+                return; // Terminar la ejecución del método
+            }
+        }
+
+        registrarNuevoLibro(tituloLibro); // Si el libro no existe, registrar uno nuevo
+    }
+
+    // Método para imprimir una coincidencia del índice local
+    private void imprimirCoincidencia(LibroIndexado libro) {
+        logger.logInfo(() -> "- %s | %s | Descargas: %d".formatted( // El texto se arma solo si el nivel INFO está habilitado
+                libro.titulo(), // Título del libro
+                libro.autores().isEmpty() ? "Sin autores registrados" : libro.autores(), // Nombres de los autores
+                libro.numeroDescargas() // Número de descargas del libro
+        ));
     }
 
     // Método para registrar un nuevo libro en el repositorio
@@ -150,64 +229,50 @@ public class MenuPrincipal {
             return; // Terminar la ejecución del método
         }
 
-        Libro libro = new Libro(datosLibro); // Crear un nuevo objeto Libro con los datos obtenidos
-        asignarIdiomas(datosLibro, libro); // Asignar los idiomas al libro
-        procesarAutores(datosLibro, libro); // Procesar y asignar los autores al libro
-        libroRepository.save(libro); // Guardar el libro en el repositorio
-        logger.logInfo("Libro guardado con éxito: " + libro.toCustomString()); // Mostrar mensaje de éxito
-    }
-
-    // Método para asignar los idiomas a un libro
-    private void asignarIdiomas(DatosLibro datosLibro, Libro libro) {
-        datosLibro.idiomas().stream() // Obtener la lista de idiomas y crear un stream
-                .map(idioma -> { // Mapear cada idioma a un objeto del enum Languages
-                    try {
-                        return Languages.fromInput(idioma); // Intentar convertir el idioma a un enum Languages
-                    } catch (IllegalArgumentException e) { // Capturar excepción si el idioma no es válido
-                        logger.logInfo("Idioma no reconocido: " + idioma); // Registrar el idioma no reconocido
-                        return null; // Retornar null si no se reconoce el idioma
-                    }
-                })
-                .filter(Objects::nonNull) // Filtrar los valores nulos
-                .forEach(libro.getIdiomas()::add); // Añadir los idiomas válidos a la lista de idiomas del libro
-    }
+        Optional<Libro> registrado = libroRepository.findByGutenbergId(datosLibro.gutenbergId()); // El resultado de la API puede tener otro título
+        if (registrado.isPresent()) { // Si el libro ya existe, mostrar un mensaje
+            logger.logInfo(() -> "El libro ya está registrado: " + registrado.get().toCustomString());
+            return; // Terminar la ejecución del método
+        }
 
-    // Método para procesar y asignar los autores a un libro
-    private void procesarAutores(DatosLibro datosLibro, Libro libro) {
-        datosLibro.autoresList().forEach(datosAutor -> { // Iterar sobre la lista de autores
-            Autor autor = autorRepository.findByNombre(datosAutor.nombre()) // Buscar si el autor ya existe en el repositorio
-                    .orElseGet(() -> autorRepository.saveAndFlush(new Autor(datosAutor))); // Si no existe, crear y guardar un nuevo autor
-            libro.addAutor(autor); // Añadir el autor al libro
-        });
+        Libro libro = registroLibroService.registrar(datosLibro); // Crear y guardar el libro con sus idiomas y autores
+        logger.logInfo(() -> "Libro guardado con éxito: " + libro.toCustomString()); // Mostrar mensaje de éxito
     }
 
     // Método para listar los libros registrados
     private void listarLibrosRegistrados() {
-        logger.logInfo("Listando los primeros 5 libros registrados:"); // Mostrar mensaje de inicio
-        Pageable pageable = PageRequest.of(0, PAGE_SIZE); // Configurar la paginación para obtener los primeros 5 libros
-        List<Libro> libros = libroRepository.findAllLibrosConAutores(pageable); // Obtener la lista de libros con sus autores
+        logger.logInfo("Listando los libros registrados:"); // Mostrar mensaje de inicio
+        boolean hayLibros = navegador.navegar( // Recorrer los libros por páginas, continuando desde el último id mostrado
+                (ultimo, limite) -> libroRepository.findLibrosResumen(ultimo == null ? 0L : ultimo.getId(), primeros(limite)),
+                this::imprimirLibro); // Imprimir la información de cada libro
 
-        if (libros.isEmpty()) { // Verificar si no hay libros registrados
+        if (!hayLibros) { // Verificar si no hay libros registrados
             logger.logInfo("No hay libros registrados."); // Mostrar mensaje de error
-            return; // Terminar la ejecución del método
         }
-
-        libros.forEach(this::imprimirLibro); // Imprimir la información de cada libro
     }
 
     // Método para imprimir los detalles de un libro
-    private void imprimirLibro(Libro libro) {
-        String autoresNombres = libro.getAutores().stream() // Crear un stream de autores
-                .map(Autor::getNombre) // Obtener el nombre de cada autor
-                .reduce((autor1, autor2) -> autor1 + ", " + autor2) // Concatenar los nombres de los autores con comas
-                .orElse("Sin autores registrados"); // Si no hay autores, mostrar un mensaje por defecto
+    private void imprimirLibro(LibroResumen libro) {
+        imprimirDetallesLibro(libro.getTitulo(), libro.getAutores(), libro.getMascaraIdiomas(), libro.getNumeroDescargas());
+    }
 
-        String idiomasFormateados = libro.getIdiomas().stream() // Crear un stream de idiomas
-                .map(Languages::name) // Obtener el nombre de cada idioma
-                .reduce((idioma1, idioma2) -> idioma1 + ", " + idioma2) // Concatenar los nombres de los idiomas con comas
-                .orElse("Sin idiomas registrados"); // Si no hay idiomas, mostrar un mensaje por defecto
+    // Método para imprimir los detalles de un libro del ranking en memoria
+    private void imprimirLibroRanking(LibroIndexado libro) {
+        imprimirDetallesLibro(libro.titulo(), libro.autores().isEmpty() ? null : libro.autores(), libro.mascaraIdiomas(), libro.numeroDescargas());
+    }
 
-        logger.logInfo("""
+    private void imprimirDetallesLibro(String titulo, String autores, int mascaraIdiomas, int numeroDescargas) {
+        logger.logInfo(() -> formatearLibro(titulo, autores, mascaraIdiomas, numeroDescargas)); // Se arma solo si el nivel INFO está habilitado
+    }
+
+    // Texto de la ficha de un libro (separado de la impresión para poder medirlo)
+    static String formatearLibro(String titulo, String autores, int mascaraIdiomas, int numeroDescargas) {
+        String autoresNombres = Objects.requireNonNullElse(autores, "Sin autores registrados"); // Nombres de los autores ya concatenados
+        List<Languages> idiomas = Languages.desdeMascara(mascaraIdiomas); // Idiomas a partir de la máscara de bits
+        String idiomasFormateados = idiomas.isEmpty() ? "Sin idiomas registrados"
+                : idiomas.stream().map(Languages::name).collect(Collectors.joining(", ")); // Códigos de los idiomas separados por comas
+
+        return """
             ------Libro------
             Título: %s
             Autores: %s
@@ -215,58 +280,91 @@ public class MenuPrincipal {
             Descargas: %d
             -----------------
             """.formatted(
-                libro.getTitulo(), // Título del libro
+                titulo, // Título del libro
                 autoresNombres, // Nombres de los autores
                 idiomasFormateados, // Idiomas del libro
-                libro.getNumeroDescargas() // Número de descargas del libro
-        ));
+                numeroDescargas // Número de descargas del libro
+        );
     }
 
     // Método para listar los autores registrados
     private void listarAutoresRegistrados() {
         logger.logInfo("Listando todos los autores registrados:"); // Mostrar mensaje de inicio
-        Pageable pageable = PageRequest.of(0, PAGE_SIZE); // Configurar la paginación para obtener los primeros 5 autores
-        List<Autor> autores = autorRepository.findAllAutores(pageable); // Obtener la lista de autores
+        boolean hayAutores = navegador.navegar( // Recorrer los autores por páginas en orden alfabético
+                (ultimo, limite) -> ultimo == null
+                        ? autorRepository.findAllAutores("", 0L, primeros(limite))
+                        : autorRepository.findAllAutores(ultimo.getNombre(), ultimo.getId(), primeros(limite)),
+                this::imprimirAutor); // Imprimir la información de cada autor
 
-        if (autores.isEmpty()) { // Verificar si no hay autores registrados
+        if (!hayAutores) { // Verificar si no hay autores registrados
             logger.logInfo("No hay autores registrados."); // Mostrar mensaje de error
-            return; // Terminar la ejecución del método
         }
-
-        autores.forEach(this::imprimirAutor); // Imprimir la información de cada autor
     }
 
     // Método para imprimir los detalles de un autor
-    private void imprimirAutor(Autor autor) {
-        logger.logInfo("""
+    private void imprimirAutor(AutorResumen autor) {
+        logger.logInfo(() -> formatearAutor(autor)); // Se arma solo si el nivel INFO está habilitado
+    }
+
+    // Texto de la ficha de un autor (separado de la impresión para poder medirlo)
+    static String formatearAutor(AutorResumen autor) {
+        return """
             ------Autor------
             Nombre: %s
-            Año de Nacimiento: %d
+            Año de Nacimiento: %s
             Año de Fallecimiento: %s
             -----------------
             """.formatted(
                 autor.getNombre(), // Nombre del autor
-                autor.getAnioNacimiento(), // Año de nacimiento del autor
-                autor.getAnioFallecimiento() > 0 ? autor.getAnioFallecimiento() : "Vivo" // Año de fallecimiento o estado de "Vivo"
-        ));
+                autor.getAnioNacimiento() != null ? autor.getAnioNacimiento() : "Desconocido", // Año de nacimiento del autor
+                autor.getAnioFallecimiento() != null ? autor.getAnioFallecimiento() : "Vivo" // Año de fallecimiento o estado de "Vivo"
+        );
     }
 
     // Método para listar los autores vivos en un año específico
     private void listarAutoresVivosAnio() {
         logger.logInfo("Por favor, ingresa el año para listar autores vivos:"); // Solicitar al usuario el año
         try {
-            final int anio = Integer.parseInt(scanner.nextLine().trim()); // Leer y convertir la entrada del usuario a un número entero
-            logger.logInfo("Buscando autores vivos en el año " + anio + "..."); // Mostrar mensaje de búsqueda
+            final int anio = Integer.parseInt(leerLinea().trim()); // Leer y convertir la entrada del usuario a un número entero
+            logger.logInfo("Buscando autores vivos en el año {}...", anio); // Mostrar mensaje de búsqueda
+
+            boolean hayAutores = navegador.navegar( // Recorrer los autores vivos en el año indicado por páginas
+                    (ultimo, limite) -> ultimo == null
+                            ? autorRepository.findAutoresVivosEnAnio(anio, "", 0L, primeros(limite))
+                            : autorRepository.findAutoresVivosEnAnio(anio, ultimo.getNombre(), ultimo.getId(), primeros(limite)),
+                    this::imprimirAutor); // Imprimir la información de cada autor vivo
+
+            if (!hayAutores) { // Verificar si no hay autores vivos en el año
+                logger.logInfo("No se encontraron autores vivos en el año {}.", anio); // Mostrar mensaje de error
+            }
+        } catch (NumberFormatException e) { // Capturar excepción si el usuario ingresa un valor no numérico
+            logger.logInfo("Entrada inválida. Por favor ingresa un año válido."); // Mostrar mensaje de error
+        }
+    }
 
-            Pageable limit = PageRequest.of(0, PAGE_SIZE); // Configurar la paginación
-            List<Autor> autoresVivos = autorRepository.findAutoresVivosEnAnio(anio, limit); // Obtener la lista de autores vivos en el año indicado
+    // Método para listar los autores que vivieron en algún momento de un período
+    private void listarAutoresVivosPeriodo() {
+        try {
+            logger.logInfo("Por favor, ingresa el año inicial del período:"); // Solicitar al usuario el año inicial
+            final int desde = Integer.parseInt(leerLinea().trim()); // Leer y convertir la entrada del usuario a un número entero
+            logger.logInfo("Por favor, ingresa el año final del período:"); // Solicitar al usuario el año final
+            final int hasta = Integer.parseInt(leerLinea().trim()); // Leer y convertir la entrada del usuario a un número entero
 
-            if (autoresVivos.isEmpty()) { // Verificar si no hay autores vivos en el año
-                logger.logInfo("No se encontraron autores vivos en el año " + anio + "."); // Mostrar mensaje de error
+            if (hasta < desde) { // Verificar que el período sea válido
+                logger.logInfo("El año final no puede ser anterior al año inicial."); // Mostrar mensaje de error
                 return; // Terminar la ejecución del método
             }
+            logger.logInfo("Buscando autores vivos entre {} y {}...", desde, hasta); // Mostrar mensaje de búsqueda
+
+            boolean hayAutores = navegador.navegar( // Recorrer los autores vivos durante el período por páginas
+                    (ultimo, limite) -> ultimo == null
+                            ? autorRepository.findAutoresVivosEntre(desde, hasta, "", 0L, primeros(limite))
+                            : autorRepository.findAutoresVivosEntre(desde, hasta, ultimo.getNombre(), ultimo.getId(), primeros(limite)),
+                    this::imprimirAutor); // Imprimir la información de cada autor
 
-            autoresVivos.forEach(this::imprimirAutor); // Imprimir la información de cada autor vivo
+            if (!hayAutores) { // Verificar si no hay autores vivos en el período
+                logger.logInfo("No se encontraron autores vivos entre {} y {}.", desde, hasta); // Mostrar mensaje de error
+            }
         } catch (NumberFormatException e) { // Capturar excepción si el usuario ingresa un valor no numérico
             logger.logInfo("Entrada inválida. Por favor ingresa un año válido."); // Mostrar mensaje de error
         }
@@ -274,29 +372,32 @@ public class MenuPrincipal {
 
     // Método para listar libros según el idioma
     private void listarLibrosPorIdioma() {
-        logger.logInfo("Por favor, ingresa el idioma para filtrar los libros (código ISO o nombre en inglés/español):"); // Solicitar al usuario el idioma
-        String inputIdioma = scanner.nextLine().trim(); // Leer y limpiar la entrada del usuario
+        logger.logInfo("Por favor, ingresa el idioma para filtrar los libros (código ISO o nombre en inglés/español; varios separados por comas):"); // Solicitar al usuario el idioma
+        String inputIdioma = leerLinea().trim(); // Leer y limpiar la entrada del usuario
 
         if (inputIdioma.isEmpty()) { // Verificar si no se ingresó un idioma
             logger.logInfo("No ingresaste ningún idioma. Por favor intenta de nuevo."); // Mostrar mensaje de error
             return; // Terminar la ejecución del método
         }
 
-        String idiomaFormat = inputIdioma.substring(0, 1).toUpperCase() + inputIdioma.substring(1).toLowerCase(); // Formatear el idioma ingresado
-
         try {
-            final Languages idioma = Languages.fromInput(idiomaFormat); // Intentar convertir el idioma ingresado al enum Languages
-            logger.logInfo("Buscando libros en el idioma: " + idioma.name()); // Mostrar mensaje de búsqueda
-
-            Pageable limit = PageRequest.of(0, PAGE_SIZE); // Configurar la paginación
-            List<Libro> librosPorIdioma = libroRepository.findLibrosPorIdioma(idioma, limit); // Obtener la lista de libros en el idioma indicado
-
-            if (librosPorIdioma.isEmpty()) { // Verificar si no hay libros en el idioma
-                logger.logInfo("No se encontraron libros en el idioma " + idioma.getLanguagesOmdb() + "."); // Mostrar mensaje de error
-                return; // Terminar la ejecución del método
+            final List<Languages> idiomas = Arrays.stream(inputIdioma.split(",")) // Separar los idiomas ingresados
+                    .map(Languages::fromInput) // Intentar convertir cada idioma ingresado al enum Languages
+                    .distinct()
+                    .toList();
+            final List<Integer> mascaras = Languages.mascarasQueIncluyen(Languages.mascara(idiomas)); // Máscaras de los libros que tienen todos esos idiomas
+            final String nombres = idiomas.stream().map(Languages::name).collect(Collectors.joining(" y ")); // Nombres para los mensajes
+            logger.logInfo("Buscando libros en el idioma: {}", nombres); // Mostrar mensaje de búsqueda
+
+            boolean hayLibros = navegador.navegar( // Recorrer los libros del idioma por páginas, de más a menos descargados
+                    (ultimo, limite) -> ultimo == null
+                            ? libroRepository.findLibrosPorIdioma(mascaras, Integer.MAX_VALUE, Long.MAX_VALUE, primeros(limite))
+                            : libroRepository.findLibrosPorIdioma(mascaras, ultimo.getNumeroDescargas(), ultimo.getId(), primeros(limite)),
+                    this::imprimirLibro); // Imprimir la información de cada libro
+
+            if (!hayLibros) { // Verificar si no hay libros en el idioma
+                logger.logInfo("No se encontraron libros en el idioma {}.", nombres); // Mostrar mensaje de error
             }
-
-            librosPorIdioma.forEach(this::imprimirLibro); // Imprimir la información de cada libro
         } catch (IllegalArgumentException e) { // Capturar excepción si el idioma ingresado no es válido
             logger.logInfo("Idioma no reconocido. Por favor, ingresa un idioma válido."); // Mostrar mensaje de error
         }
@@ -306,20 +407,12 @@ public class MenuPrincipal {
     private void mostrarEstadisticas() {
         logger.logInfo("Generando estadísticas de los libros registrados..."); // Mostrar mensaje de inicio
 
-        List<Libro> libros = libroRepository.findAll(); // Obtener todos los libros registrados
-        if (libros.isEmpty()) { // Verificar si no hay libros registrados
+        EstadisticasLibros estadisticas = estadisticasService.obtener(); // Calcular los agregados en la base de datos
+        if (estadisticas.totalLibros() == 0) { // Verificar si no hay libros registrados
             logger.logInfo("No hay libros registrados para generar estadísticas."); // Mostrar mensaje de error
             return; // Terminar la ejecución del método
         }
 
-        IntSummaryStatistics estadisticasDescargas = libros.stream() // Crear un stream de libros
-                .mapToInt(Libro::getNumeroDescargas) // Obtener el número de descargas de cada libro
-                .summaryStatistics(); // Generar estadísticas de las descargas
-
-        IntSummaryStatistics estadisticasAutoresPorLibro = libros.stream() // Crear un stream de libros
-                .mapToInt(libro -> libro.getAutores().size()) // Obtener el número de autores de cada libro
-                .summaryStatistics(); // Generar estadísticas del número de autores por libro
-
         logger.logInfo("""
             ------ Estadísticas ------
             Total de libros: %d
@@ -333,37 +426,45 @@ public class MenuPrincipal {
             Mínimo de autores en un libro: %d
             --------------------------
             """.formatted(
-                estadisticasDescargas.getCount(), // Total de libros registrados
-                estadisticasDescargas.getSum(), // Total de descargas
-                estadisticasDescargas.getAverage(), // Promedio de descargas por libro
-                estadisticasDescargas.getMax(), // Máximo de descargas
-                estadisticasDescargas.getMin(), // Mínimo de descargas
-                estadisticasAutoresPorLibro.getAverage(), // Promedio de autores por libro
-                estadisticasAutoresPorLibro.getMax(), // Máximo de autores en un libro
-                estadisticasAutoresPorLibro.getMin() // Mínimo de autores en un libro
+                estadisticas.totalLibros(), // Total de libros registrados
+                estadisticas.descargasTotales(), // Total de descargas
+                estadisticas.promedioDescargas(), // Promedio de descargas por libro
+                estadisticas.maxDescargas(), // Máximo de descargas
+                estadisticas.minDescargas(), // Mínimo de descargas
+                estadisticas.promedioAutores(), // Promedio de autores por libro
+                estadisticas.maxAutores(), // Máximo de autores en un libro
+                estadisticas.minAutores() // Mínimo de autores en un libro
         ));
     }
 
-    // Método para buscar el Top 10 de libros más descargados
-    private void buscarTop10Libros() {
-        logger.logInfo("Buscando el Top 10 de libros más descargados..."); // Mostrar mensaje de inicio
+    // Método para buscar el Top de libros más descargados, en total o de un idioma
+    private void buscarTopLibros() {
+        final int tamanio = rankingDescargas.getTamanio(); // Cantidad de libros del ranking
+        logger.logInfo("Escribe un idioma para filtrar el Top {} o presiona Enter para incluir todos:", tamanio); // Solicitar al usuario el idioma (opcional)
+        String inputIdioma = leerLinea().trim(); // Leer y limpiar la entrada del usuario
 
-        Pageable top10 = PageRequest.of(0, 10); // Configurar la paginación para obtener los primeros 10 libros
-        List<Libro> topLibros = libroRepository.findTop10Libros(top10); // Obtener la lista de los 10 libros más descargados
+        try {
+            final Optional<Languages> idioma = inputIdioma.isEmpty() ? Optional.empty() : Optional.of(Languages.fromInput(inputIdioma)); // Idioma del ranking, si se indicó
+            logger.logInfo("Buscando el Top {} de libros más descargados...", tamanio); // Mostrar mensaje de inicio
 
-        if (topLibros.isEmpty()) { // Verificar si no hay libros registrados
-            logger.logInfo("No hay libros registrados para generar el Top 10."); // Mostrar mensaje de error
-            return; // Terminar la ejecución del método
-        }
+            List<LibroIndexado> topLibros = rankingDescargas.top(idioma); // Ranking mantenido en memoria, sin ordenar la tabla
 
-        logger.logInfo("------ Top 10 Libros Más Descargados ------"); // Mostrar encabezado del Top 10
-        topLibros.forEach(this::imprimirLibro); // Imprimir la información de cada libro
+            if (topLibros.isEmpty()) { // Verificar si no hay libros registrados
+                logger.logInfo("No hay libros registrados para generar el Top {}.", tamanio); // Mostrar mensaje de error
+                return; // Terminar la ejecución del método
+            }
+
+            logger.logInfo("------ Top " + tamanio + " Libros Más Descargados" + idioma.map(i -> " en " + i.name()).orElse("") + " ------"); // Mostrar encabezado del Top
+            topLibros.forEach(this::imprimirLibroRanking); // Imprimir la información de cada libro
+        } catch (IllegalArgumentException e) { // Capturar excepción si el idioma ingresado no es válido
+            logger.logInfo("Idioma no reconocido. Por favor, ingresa un idioma válido."); // Mostrar mensaje de error
+        }
     }
 
     // Método para buscar un autor en la base de datos
     private void buscarAutor() {
         logger.logInfo("Por favor, escribe el nombre del autor que deseas buscar (formato: Nombre Apellido):"); // Solicitar al usuario el nombre del autor
-        String nombreUsuario = scanner.nextLine().trim(); // Leer y limpiar la entrada del usuario
+        String nombreUsuario = leerLinea().trim(); // Leer y limpiar la entrada del usuario
 
         if (nombreUsuario.isEmpty()) { // Verificar si no se ingresó un nombre
             logger.logInfo("No ingresaste ningún nombre. Por favor intenta de nuevo."); // Mostrar mensaje de error
@@ -378,10 +479,10 @@ public class MenuPrincipal {
 
         String formatoBD = partesNombre[1] + ", " + partesNombre[0]; // Formatear el nombre para buscar en la base de datos
 
-        List<Autor> autores = autorRepository.findByNombreParcial("%" + formatoBD + "%"); // Buscar autores que coincidan parcialmente con el nombre
+        List<AutorResumen> autores = autorRepository.findByNombreParcial(AutorRepository.patronContiene(formatoBD)); // Buscar autores que coincidan parcialmente con el nombre
 
         if (autores.isEmpty()) { // Verificar si no se encontraron autores
-            logger.logInfo("No se encontró ningún autor con el nombre: " + nombreUsuario); // Mostrar mensaje de error
+            logger.logInfo("No se encontró ningún autor con el nombre: {}", nombreUsuario); // Mostrar mensaje de error
         } else { // Si se encontraron autores
             logger.logInfo("Autores encontrados:"); // Mostrar encabezado
             autores.forEach(this::imprimirAutor); // Imprimir la información de cada autor encontrado
@@ -392,20 +493,56 @@ public class MenuPrincipal {
     private void listarAutoresMuertosAnio() {
         logger.logInfo("Por favor, ingresa el año para listar los autores fallecidos:"); // Solicitar al usuario el año
         try {
-            int anio = Integer.parseInt(scanner.nextLine().trim()); // Leer y convertir la entrada del usuario a un número entero
+            int anio = Integer.parseInt(leerLinea().trim()); // Leer y convertir la entrada del usuario a un número entero
 
-            Pageable limit = PageRequest.of(0, PAGE_SIZE); // Configurar la paginación para obtener los primeros 5 autores fallecidos
-            List<Autor> autores = autorRepository.findAutoresPorAnioFallecimiento(anio, limit); // Obtener la lista de autores fallecidos en el año indicado
+            logger.logInfo("Autores fallecidos en el año {}:", anio); // Mostrar encabezado
+            boolean hayAutores = navegador.navegar( // Recorrer los autores fallecidos en el año indicado por páginas
+                    (ultimo, limite) -> ultimo == null
+                            ? autorRepository.findAutoresPorAnioFallecimiento(anio, "", 0L, primeros(limite))
+                            : autorRepository.findAutoresPorAnioFallecimiento(anio, ultimo.getNombre(), ultimo.getId(), primeros(limite)),
+                    this::imprimirAutor); // Imprimir la información de cada autor fallecido
 
-            if (autores.isEmpty()) { // Verificar si no hay autores fallecidos en el año
-                logger.logInfo("No se encontraron autores fallecidos en el año " + anio + "."); // Mostrar mensaje de error
-                return; // Terminar la ejecución del método
+            if (!hayAutores) { // Verificar si no hay autores fallecidos en el año
+                logger.logInfo("No se encontraron autores fallecidos en el año {}.", anio); // Mostrar mensaje de error
             }
-
-            logger.logInfo("Autores fallecidos en el año " + anio + ":"); // Mostrar encabezado
-            autores.forEach(this::imprimirAutor); // Imprimir la información de cada autor fallecido
         } catch (NumberFormatException e) { // Capturar excepción si el usuario ingresa un valor no numérico
             logger.logInfo("El año ingresado no es válido. Por favor, intenta de nuevo."); // Mostrar mensaje de error
         }
     }
-}
+
+    // Límite de filas para las consultas por cursor: siempre la primera página, el cursor ya indica dónde continuar
+    private static Pageable primeros(int limite) {
+        return PageRequest.of(0, limite);
+    }
+
+    // Método para importar el catálogo completo de Gutendex
+    private void importarCatalogo() {
+        logger.logInfo("Importando el catálogo completo de Gutendex. Esto puede tardar varios minutos..."); // Mostrar mensaje de inicio
+        CrawlerCatalogo.ResumenRastreo resumen = crawlerCatalogo.rastrear(); // Recorrer todas las páginas y guardar los libros por lotes
+        logger.logInfo("Importación finalizada: {}", resumen); // Mostrar el resumen de la importación
+    }
+
+    // Método para mostrar los contadores de la caché de respuestas de la API
+    private void mostrarEstadisticasCache() {
+        CacheRespuestasApi.Estadisticas estadisticas = consumoApi.getEstadisticasCache(); // Obtener los contadores de la caché
+        logger.logInfo("""
+            ------ Caché de la API ------
+            Aciertos en memoria: %d
+            Aciertos en disco: %d
+            Fallos: %d
+            Expulsiones (LRU): %d
+            Entradas expiradas: %d
+            Entradas en memoria: %d
+            Tasa de aciertos: %.1f%%
+            -----------------------------
+            """.formatted(
+                estadisticas.aciertosMemoria(), // Respuestas servidas desde memoria
+                estadisticas.aciertosDisco(), // Respuestas servidas desde disco
+                estadisticas.fallos(), // Consultas que tuvieron que ir a la API
+                estadisticas.expulsiones(), // Entradas expulsadas por capacidad
+                estadisticas.expiradas(), // Entradas descartadas por TTL
+                estadisticas.entradasEnMemoria(), // Tamaño actual del nivel en memoria
+                estadisticas.tasaAciertos() * 100 // Porcentaje de aciertos
+        ));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.aluracursos.literatura.menu;
+
+import com.aluracursos.logger.loggerbase.LoggerBase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Navegación interactiva por páginas con paginación por cursor (keyset): cada página se pide a la base
+// a partir del último elemento de la página anterior, sin OFFSET, así que avanzar cuesta siempre lo mismo.
+// Para volver atrás se guarda el cursor con el que empezó cada página visitada.
+class NavegadorPaginas {
+
+    // Consulta de una página: hasta 'limite' elementos posteriores a 'ultimo' (null para la primera página)
+    @FunctionalInterface
+    interface BuscadorPagina<T> {
+        List<T> buscar(T ultimo, int limite);
+    }
+
+    private final Supplier<String> lectorLineas; // Respuestas de la persona, una línea por vez
+    private final LoggerBase logger;
+    private final int tamanioPagina;
+
+    NavegadorPaginas(Supplier<String> lectorLineas, LoggerBase logger, int tamanioPagina) {
+        this.lectorLineas = lectorLineas;
+        this.logger = logger;
+        this.tamanioPagina = tamanioPagina;
+    }
+
+    // Muestra la primera página y permite avanzar o retroceder. Devuelve false si no hay resultados.
+    <T> boolean navegar(BuscadorPagina<T> buscador, Consumer<T> imprimir) {
+        List<T> cursores = new ArrayList<>(); // Cursor de inicio de cada página anterior (null = primera página)
+        T cursor = null;
+        while (true) {
+            List<T> filas = buscador.buscar(cursor, tamanioPagina + 1); // Un elemento extra indica si hay página siguiente
+            if (filas.isEmpty()) {
+                return !cursores.isEmpty();
+            }
+            boolean haySiguiente = filas.size() > tamanioPagina;
+            List<T> pagina = haySiguiente ? filas.subList(0, tamanioPagina) : filas;
+            boolean hayAnterior = !cursores.isEmpty();
+
+            logger.logInfo("------ Página {} ------", cursores.size() + 1);
+            pagina.forEach(imprimir);
+            if (!haySiguiente && !hayAnterior) { // Todo cabe en una página: no hay nada que navegar
+                return true;
+            }
+
+            logger.logInfo((haySiguiente ? "s - Página siguiente | " : "") + (hayAnterior ? "a - Página anterior | " : "") + "Enter - Volver al menú");
+            String respuesta = lectorLineas.get().trim().toLowerCase();
+            if (respuesta.equals("s") && haySiguiente) {
+                cursores.add(cursor);
+                cursor = pagina.get(pagina.size() - 1); // La siguiente página empieza después del último elemento mostrado
+            } else if (respuesta.equals("a") && hayAnterior) {
+                cursor = cursores.remove(cursores.size() - 1);
+            } else {
+                return true;
+            }
+        }
+    }
+}
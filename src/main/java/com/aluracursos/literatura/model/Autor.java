@@ -8,18 +8,24 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "autores")
+@Table(name = "autores", indexes = {
+        @Index(name = "idx_autores_nombre_id", columnList = "nombre, id"),
+        @Index(name = "idx_autores_fallecimiento", columnList = "anio_fallecimiento")
+})
 public class Autor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Las altas toman el id con nextval en el propio INSERT; la secuencia avanza de a uno (V6)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "autores_seq")
+    @SequenceGenerator(name = "autores_seq", sequenceName = "autores_seq", allocationSize = 1)
     private Long id;
 
     @Column(unique = true, nullable = false)
     private final String nombre;
 
-    private final int anioNacimiento;
-    private final int anioFallecimiento;
+    // Años desconocidos se guardan como null (nunca como 0)
+    private final Integer anioNacimiento;
+    private final Integer anioFallecimiento;
 
     @ManyToMany(mappedBy = "autores", fetch = FetchType.LAZY)
     private final List<Libro> libros;
@@ -27,21 +33,21 @@ public class Autor {
     // Constructor vacío con valores predeterminados
     public Autor() {
         this.nombre = "Información no disponible";
-        this.anioNacimiento = 0;
-        this.anioFallecimiento = 0;
+        this.anioNacimiento = null;
+        this.anioFallecimiento = null;
         this.libros = new ArrayList<>();
     }
 
     // Constructor con DatosAutor
     public Autor(DatosAutor datosAutor) {
         this.nombre = verificarValor(datosAutor.nombre());
-        this.anioNacimiento = verificarEntero(datosAutor.anioNacimiento());
-        this.anioFallecimiento = verificarEntero(datosAutor.anioFallecimiento());
+        this.anioNacimiento = datosAutor.anioNacimiento();
+        this.anioFallecimiento = datosAutor.anioFallecimiento();
         this.libros = new ArrayList<>();
     }
 
     // Constructor con todos los campos
-    public Autor(Long id, String nombre, int anioNacimiento, int anioFallecimiento, List<Libro> libros) {
+    public Autor(Long id, String nombre, Integer anioNacimiento, Integer anioFallecimiento, List<Libro> libros) {
         this.id = id;
         this.nombre = nombre;
         this.anioNacimiento = anioNacimiento;
@@ -58,11 +64,11 @@ public class Autor {
         return nombre;
     }
 
-    public int getAnioNacimiento() {
+    public Integer getAnioNacimiento() {
         return anioNacimiento;
     }
 
-    public int getAnioFallecimiento() {
+    public Integer getAnioFallecimiento() {
         return anioFallecimiento;
     }
 
@@ -80,15 +86,11 @@ public class Autor {
         }
     }
 
-    // Métodos auxiliares para verificar valores
+    // Método auxiliar para verificar valores
     private String verificarValor(String valor) {
         return (valor == null || valor.isEmpty()) ? "Información no disponible" : valor;
     }
 
-    private int verificarEntero(Integer valor) {
-        return valor != null ? valor : 0;
-    }
-
     // Método personalizado para imprimir información del autor
     public String toCustomString() {
         return "Autor{id=" + id + ", nombre='" + nombre + "', nacimiento=" + anioNacimiento + ", fallecimiento=" + anioFallecimiento + "}";
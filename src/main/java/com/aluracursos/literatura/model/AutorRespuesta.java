@@ -0,0 +1,9 @@
+package com.aluracursos.literatura.model;
+
+// Autor tal como lo devuelve la API REST; los años son null cuando no se conocen
+public record AutorRespuesta(long id, String nombre, Integer anioNacimiento, Integer anioFallecimiento) {
+
+    public static AutorRespuesta desde(AutorResumen autor) {
+        return new AutorRespuesta(autor.getId(), autor.getNombre(), autor.getAnioNacimiento(), autor.getAnioFallecimiento());
+    }
+}
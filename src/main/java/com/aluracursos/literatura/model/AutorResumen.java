@@ -0,0 +1,13 @@
+package com.aluracursos.literatura.model;
+
+// Proyección de solo lectura para los listados de autores. Los años desconocidos son null.
+public interface AutorResumen {
+
+    Long getId();
+
+    String getNombre();
+
+    Integer getAnioNacimiento();
+
+    Integer getAnioFallecimiento();
+}
@@ -0,0 +1,5 @@
+package com.aluracursos.literatura.model;
+
+// Descargas de un libro ya registrado antes y después de actualizarlo
+public record CambioDescargas(int anteriores, int nuevas) {
+}
@@ -6,7 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record DatosAutor(
         @JsonAlias("name") String nombre,
-        @JsonAlias("birth_year") int anioNacimiento,
-        @JsonAlias("death_year") int anioFallecimiento
+        @JsonAlias("birth_year") Integer anioNacimiento, // null si la API no conoce el año
+        @JsonAlias("death_year") Integer anioFallecimiento
 ) {
 }
@@ -7,6 +7,7 @@ import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record DatosLibro(
+        @JsonAlias("id") Integer gutenbergId, // Id del libro en Project Gutenberg
         @JsonAlias("title") String titulo,
         @JsonAlias("authors") List<DatosAutor> autoresList,
         @JsonAlias("languages") List<String> idiomas,
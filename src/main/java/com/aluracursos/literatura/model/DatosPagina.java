@@ -0,0 +1,15 @@
+package com.aluracursos.literatura.model;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DatosPagina(
+        @JsonAlias("count") int total,
+        @JsonAlias("next") String siguiente,
+        @JsonAlias("previous") String anterior,
+        @JsonAlias("results") List<DatosLibro> resultados
+) {
+}
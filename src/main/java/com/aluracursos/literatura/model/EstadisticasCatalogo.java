@@ -0,0 +1,36 @@
+package com.aluracursos.literatura.model;
+
+import jakarta.persistence.*;
+
+// Fila única con las estadísticas del catálogo, actualizada en cada alta de libros
+// para que el informe no tenga que recorrer la tabla de libros.
+@Entity
+@Table(name = "estadisticas_catalogo")
+public class EstadisticasCatalogo {
+
+    // Identificador de la única fila de la tabla
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long totalLibros;
+    private long descargasTotales;
+    private int maxDescargas;
+    private int minDescargas;
+    private long totalAutorias;
+    private long maxAutores;
+    private long minAutores;
+
+    protected EstadisticasCatalogo() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public EstadisticasLibros toEstadisticas() {
+        return new EstadisticasLibros(totalLibros, descargasTotales, maxDescargas, minDescargas,
+                totalAutorias, maxAutores, minAutores);
+    }
+}
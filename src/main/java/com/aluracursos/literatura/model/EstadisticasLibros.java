@@ -0,0 +1,23 @@
+package com.aluracursos.literatura.model;
+
+// Resumen de las descargas y de los autores por libro de todo el catálogo
+public record EstadisticasLibros(
+        long totalLibros,
+        long descargasTotales,
+        int maxDescargas,
+        int minDescargas,
+        long totalAutorias,
+        long maxAutores,
+        long minAutores
+) {
+
+    public static final EstadisticasLibros VACIAS = new EstadisticasLibros(0, 0, 0, 0, 0, 0, 0);
+
+    public double promedioDescargas() {
+        return totalLibros == 0 ? 0 : (double) descargasTotales / totalLibros;
+    }
+
+    public double promedioAutores() {
+        return totalLibros == 0 ? 0 : (double) totalAutorias / totalLibros;
+    }
+}
@@ -1,5 +1,16 @@
 package com.aluracursos.literatura.model;
 
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Cada idioma ocupa el bit de su posición en la columna libros.idiomas: los nuevos idiomas
+// deben agregarse al final para no cambiar el significado de las máscaras ya guardadas.
 public enum Languages {
 
     EN("English", "Inglés", "Ingles"),
@@ -13,6 +24,21 @@ public enum Languages {
     private final String languagesEspanol; // Nombre en español (con tildes)
     private final String languagesSinTilde; // Nombre en español (sin tildes)
 
+    // Todas las formas aceptadas (código, nombre en inglés y en español) en minúsculas, con y sin tildes -> idioma
+    private static final Map<String, Languages> POR_NOMBRE = new HashMap<>();
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    // Cantidad de máscaras posibles con los idiomas actuales
+    private static final int MASCARAS_POSIBLES = 1 << values().length;
+
+    static {
+        for (Languages language : values()) {
+            for (String nombre : List.of(language.name(), language.languagesOmdb, language.languagesEspanol, language.languagesSinTilde)) {
+                POR_NOMBRE.put(nombre.toLowerCase(Locale.ROOT), language);
+                POR_NOMBRE.put(normalizar(nombre), language);
+            }
+        }
+    }
+
     Languages(final String languagesOmdb, final String languagesEspanol, final String languagesSinTilde) {
         this.languagesOmdb = languagesOmdb;
         this.languagesEspanol = languagesEspanol;
@@ -20,15 +46,59 @@ public enum Languages {
     }
 
     public static Languages fromInput(final String text) {
-        for (Languages language : Languages.values()) {
-            if (language.name().equalsIgnoreCase(text) ||
-                    language.languagesOmdb.equalsIgnoreCase(text) ||
-                    language.languagesEspanol.equalsIgnoreCase(text) ||
-                    language.languagesSinTilde.equalsIgnoreCase(text)) {
-                return language;
+        Languages language = null;
+        if (text != null) {
+            String clave = text.trim().toLowerCase(Locale.ROOT);
+            language = POR_NOMBRE.get(clave);
+            if (language == null) {
+                language = POR_NOMBRE.get(normalizar(clave)); // Solo se quitan las tildes si la forma escrita no coincide
+            }
+        }
+        if (language == null) {
+            throw new IllegalArgumentException("Idioma no reconocido: " + text);
+        }
+        return language;
+    }
+
+    // Bit del idioma dentro de la máscara de idiomas de un libro
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public static int mascara(Collection<Languages> languages) {
+        int mascara = 0;
+        for (Languages language : languages) {
+            mascara |= language.bit();
+        }
+        return mascara;
+    }
+
+    public static List<Languages> desdeMascara(int mascara) {
+        List<Languages> languages = new ArrayList<>();
+        for (Languages language : values()) {
+            if ((mascara & language.bit()) != 0) {
+                languages.add(language);
             }
         }
-        throw new IllegalArgumentException("Idioma no reconocido: " + text);
+        return languages;
+    }
+
+    // Todas las máscaras que incluyen los idiomas de 'requerida'. Con pocos idiomas son pocas, y permiten filtrar
+    // con "idiomas IN (...)" sobre el índice de la columna en lugar de evaluar una operación de bits en cada fila.
+    public static List<Integer> mascarasQueIncluyen(int requerida) {
+        List<Integer> mascaras = new ArrayList<>();
+        for (int mascara = 0; mascara < MASCARAS_POSIBLES; mascara++) {
+            if ((mascara & requerida) == requerida) {
+                mascaras.add(mascara);
+            }
+        }
+        return mascaras;
+    }
+
+    // Minúsculas y sin tildes: "Francés", "FRANCÉS" y "frances" son la misma clave
+    private static String normalizar(String text) {
+        return MARCAS_DIACRITICAS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
     }
 
     public String getLanguagesOmdb() {
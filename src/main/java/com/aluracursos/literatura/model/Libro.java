@@ -6,29 +6,38 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "libros")
+@Table(name = "libros", indexes = {
+        @Index(name = "idx_libros_descargas_id", columnList = "numero_descargas, id"),
+        @Index(name = "idx_libros_idiomas", columnList = "idiomas")
+})
 public class Libro {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Las altas toman el id con nextval en el propio INSERT; la secuencia avanza de a uno (V6)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "libros_seq")
+    @SequenceGenerator(name = "libros_seq", sequenceName = "libros_seq", allocationSize = 1)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    // Id del libro en Project Gutenberg: identifica al libro en las altas; null en los registrados antes de guardarlo
+    @Column(name = "gutenberg_id", unique = true)
+    private Integer gutenbergId;
+
+    // Puede repetirse: dos obras distintas pueden tener el mismo título
+    @Column(nullable = false)
     private final String titulo;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "libro_autor",
             joinColumns = @JoinColumn(name = "libro_id"),
-            inverseJoinColumns = @JoinColumn(name = "autor_id")
+            inverseJoinColumns = @JoinColumn(name = "autor_id"),
+            indexes = @Index(name = "idx_libro_autor_autor", columnList = "autor_id") // La clave primaria (libro_id, autor_id) cubre libro_id
     )
     private final List<Autor> autores = new ArrayList<>();
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "libro_idiomas", joinColumns = @JoinColumn(name = "libro_id"))
-    @Column(name = "idioma")
-    @Enumerated(EnumType.STRING)
-    private final List<Languages> idiomas = new ArrayList<>();
+    // Máscara de bits de los idiomas del libro (ver Languages.bit)
+    @Column(name = "idiomas", nullable = false)
+    private int idiomas;
 
     private final int numeroDescargas;
 
@@ -39,13 +48,20 @@ public class Libro {
 
     public Libro(DatosLibro datosLibro) {
         this.id = null;  // Se asignará automáticamente al persistir en la base de datos
+        this.gutenbergId = datosLibro.gutenbergId();
         this.titulo = verificarValor(datosLibro.titulo());
         this.numeroDescargas = verificarEntero(datosLibro.numeroDescargas());
     }
 
     public Libro(Long id, String titulo, int numeroDescargas) {
+        this(id, null, titulo, 0, numeroDescargas);
+    }
+
+    public Libro(Long id, Integer gutenbergId, String titulo, int mascaraIdiomas, int numeroDescargas) {
         this.id = id;
+        this.gutenbergId = gutenbergId;
         this.titulo = titulo;
+        this.idiomas = mascaraIdiomas;
         this.numeroDescargas = numeroDescargas;
     }
 
@@ -53,14 +69,26 @@ public class Libro {
         return id;
     }
 
+    public Integer getGutenbergId() {
+        return gutenbergId;
+    }
+
     public String getTitulo() {
         return titulo;
     }
 
     public List<Languages> getIdiomas() {
+        return Languages.desdeMascara(idiomas);
+    }
+
+    public int getMascaraIdiomas() {
         return idiomas;
     }
 
+    public void addIdioma(final Languages idioma) {
+        idiomas |= idioma.bit();
+    }
+
     public int getNumeroDescargas() {
         return numeroDescargas;
     }
@@ -87,6 +115,6 @@ public class Libro {
     }
 
     public String toCustomString() {
-        return "Libro{id=" + id + ", titulo='" + titulo + "', descargas=" + numeroDescargas + "}";
+        return "Libro{id=" + id + ", gutenbergId=" + gutenbergId + ", titulo='" + titulo + "', descargas=" + numeroDescargas + "}";
     }
 }
\ No newline at end of file
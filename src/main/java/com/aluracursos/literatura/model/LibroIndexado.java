@@ -0,0 +1,19 @@
+package com.aluracursos.literatura.model;
+
+import java.util.Objects;
+
+// Datos de un libro que guardan en memoria el índice de búsqueda y el ranking de descargas,
+// para mostrar los resultados sin consultar la base
+public record LibroIndexado(
+        long id,
+        String titulo,
+        String autores,
+        int mascaraIdiomas,
+        int numeroDescargas
+) {
+
+    public static LibroIndexado desde(LibroResumen libro) {
+        return new LibroIndexado(libro.getId(), libro.getTitulo(), Objects.requireNonNullElse(libro.getAutores(), ""),
+                libro.getMascaraIdiomas(), libro.getNumeroDescargas());
+    }
+}
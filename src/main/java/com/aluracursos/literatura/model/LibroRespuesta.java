@@ -0,0 +1,17 @@
+package com.aluracursos.literatura.model;
+
+import java.util.List;
+
+// Libro tal como lo devuelve la API REST
+public record LibroRespuesta(long id, String titulo, String autores, List<Languages> idiomas, int numeroDescargas) {
+
+    public static LibroRespuesta desde(LibroResumen libro) {
+        return new LibroRespuesta(libro.getId(), libro.getTitulo(), libro.getAutores(),
+                Languages.desdeMascara(libro.getMascaraIdiomas()), libro.getNumeroDescargas());
+    }
+
+    public static LibroRespuesta desde(LibroIndexado libro) {
+        return new LibroRespuesta(libro.id(), libro.titulo(), libro.autores(),
+                Languages.desdeMascara(libro.mascaraIdiomas()), libro.numeroDescargas());
+    }
+}
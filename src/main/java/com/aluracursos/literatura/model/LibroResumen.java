@@ -0,0 +1,16 @@
+package com.aluracursos.literatura.model;
+
+// Proyección de solo lectura para los listados de libros: una fila por libro,
+// con los nombres de autores ya agregados por la base de datos y los idiomas como máscara de bits.
+public interface LibroResumen {
+
+    Long getId();
+
+    String getTitulo();
+
+    String getAutores();
+
+    int getMascaraIdiomas();
+
+    int getNumeroDescargas();
+}
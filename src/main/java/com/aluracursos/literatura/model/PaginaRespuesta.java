@@ -0,0 +1,8 @@
+package com.aluracursos.literatura.model;
+
+import java.util.List;
+
+// Página de un listado de la API REST. 'siguiente' es el cursor opaco de la página siguiente
+// (se pasa como ?cursor=...), o null si esta es la última.
+public record PaginaRespuesta<T>(List<T> elementos, String siguiente) {
+}
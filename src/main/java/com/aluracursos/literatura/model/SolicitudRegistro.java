@@ -0,0 +1,5 @@
+package com.aluracursos.literatura.model;
+
+// Cuerpo de POST /api/libros: título a buscar en Gutendex y registrar
+public record SolicitudRegistro(String titulo) {
+}
@@ -1,11 +1,13 @@
 package com.aluracursos.literatura.repository;
 
 import com.aluracursos.literatura.model.Autor;
+import com.aluracursos.literatura.model.AutorResumen;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,13 +16,44 @@ public interface AutorRepository extends JpaRepository<Autor, Long> {
     // Consulta para buscar un autor por su nombre (sin importar mayúsculas o minúsculas)
     @Query("SELECT a FROM Autor a WHERE LOWER(a.nombre) = LOWER(:nombre)")
     Optional<Autor> findByNombre(@Param("nombre") String nombre);
-    @Query("SELECT DISTINCT a FROM Libro l JOIN l.autores a")
-    List<Autor> findAllAutores(Pageable pageable);
-    @Query("SELECT DISTINCT a FROM Libro l JOIN l.autores a WHERE a.anioNacimiento <= :anio AND (a.anioFallecimiento IS NULL OR a.anioFallecimiento > :anio)")
-    List<Autor> findAutoresVivosEnAnio(@Param("anio") int anio, Pageable pageable);
-    @Query("SELECT a FROM Autor a WHERE LOWER(a.nombre) LIKE LOWER(:nombre)")
-    List<Autor> findByNombreParcial(@Param("nombre") String nombre);
-    @Query("SELECT a FROM Autor a WHERE a.anioFallecimiento = :anio")
-    List<Autor> findAutoresPorAnioFallecimiento(@Param("anio") int anio, Pageable pageable);
+    // Consulta para resolver varios autores a la vez, por nombre exacto o por nombre en minúsculas
+    @Query("SELECT a FROM Autor a WHERE a.nombre IN :nombres OR LOWER(a.nombre) IN :claves")
+    List<Autor> findByNombres(@Param("nombres") Collection<String> nombres, @Param("claves") Collection<String> claves);
+    // Columnas de AutorResumen, en JPQL y en SQL nativo
+    String COLUMNAS_RESUMEN = "SELECT a.id AS id, a.nombre AS nombre, a.anioNacimiento AS anioNacimiento, a.anioFallecimiento AS anioFallecimiento FROM Autor a ";
+    String COLUMNAS_RESUMEN_SQL = """
+            SELECT a.id AS "id", a.nombre AS "nombre", a.anio_nacimiento AS "anioNacimiento", a.anio_fallecimiento AS "anioFallecimiento"
+            FROM autores a
+            """;
+
+    // Los listados paginados usan paginación por cursor (keyset): devuelven los autores posteriores a (nombre, id)
+    // en orden alfabético. Para la primera página se pasa ("", 0).
+    @Query(COLUMNAS_RESUMEN + "WHERE (a.nombre, a.id) > (:nombre, :id) ORDER BY a.nombre, a.id")
+    List<AutorResumen> findAllAutores(@Param("nombre") String nombre, @Param("id") long id, Pageable pageable);
+    // Las consultas por período de vida usan la columna 'vida' (int4range [nacimiento, fallecimiento), sin límite
+    // superior si el autor no tiene año de fallecimiento) y su índice GiST, en lugar de comparar los dos años.
+    // Autores vivos en el año: nacidos ese año o antes y que no fallecieron hasta ese año inclusive
+    @Query(value = COLUMNAS_RESUMEN_SQL + """
+            WHERE a.vida @> CAST(:anio AS integer) AND (a.nombre, a.id) > (:nombre, :id)
+            ORDER BY a.nombre, a.id
+            """, nativeQuery = true)
+    List<AutorResumen> findAutoresVivosEnAnio(@Param("anio") int anio, @Param("nombre") String nombre, @Param("id") long id, Pageable pageable);
+    // Autores vivos en algún momento entre los dos años (inclusive)
+    @Query(value = COLUMNAS_RESUMEN_SQL + """
+            WHERE a.vida && int4range(:desde, :hasta, '[]') AND (a.nombre, a.id) > (:nombre, :id)
+            ORDER BY a.nombre, a.id
+            """, nativeQuery = true)
+    List<AutorResumen> findAutoresVivosEntre(@Param("desde") int desde, @Param("hasta") int hasta,
+                                             @Param("nombre") String nombre, @Param("id") long id, Pageable pageable);
+    // Autores cuyo nombre coincide con el patrón LIKE (armado con patronContiene, que escapa % y _)
+    @Query(COLUMNAS_RESUMEN + "WHERE LOWER(a.nombre) LIKE LOWER(:nombre) ESCAPE '\\' ORDER BY a.nombre, a.id")
+    List<AutorResumen> findByNombreParcial(@Param("nombre") String nombre);
+
+    // Patrón LIKE que busca el texto tal cual en cualquier posición: % y _ del texto no actúan como comodines
+    static String patronContiene(String texto) {
+        return "%" + texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+    @Query(COLUMNAS_RESUMEN + "WHERE a.anioFallecimiento = :anio AND (a.nombre, a.id) > (:nombre, :id) ORDER BY a.nombre, a.id")
+    List<AutorResumen> findAutoresPorAnioFallecimiento(@Param("anio") int anio, @Param("nombre") String nombre, @Param("id") long id, Pageable pageable);
 
 }
@@ -0,0 +1,80 @@
+package com.aluracursos.literatura.repository;
+
+import com.aluracursos.literatura.model.EstadisticasCatalogo;
+import com.aluracursos.literatura.model.EstadisticasLibros;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EstadisticasRepository extends JpaRepository<EstadisticasCatalogo, Long> {
+
+    // Calcula las estadísticas en la base de datos: primero los autores por libro, luego los agregados
+    @Query("""
+            SELECT new com.aluracursos.literatura.model.EstadisticasLibros(
+                COUNT(*), COALESCE(SUM(x.descargas), 0), COALESCE(MAX(x.descargas), 0), COALESCE(MIN(x.descargas), 0),
+                COALESCE(SUM(x.autores), 0), COALESCE(MAX(x.autores), 0), COALESCE(MIN(x.autores), 0))
+            FROM (SELECT l.numeroDescargas AS descargas, COUNT(a) AS autores
+                  FROM Libro l LEFT JOIN l.autores a
+                  GROUP BY l.id, l.numeroDescargas) x
+            """)
+    EstadisticasLibros calcularEstadisticas();
+
+    // Suma un lote de altas a la fila de estadísticas; devuelve 0 si la fila todavía no existe
+    @Modifying
+    @Query(value = """
+            UPDATE estadisticas_catalogo SET
+                min_descargas = CASE WHEN total_libros = 0 THEN :minDescargas ELSE LEAST(min_descargas, :minDescargas) END,
+                min_autores = CASE WHEN total_libros = 0 THEN :minAutores ELSE LEAST(min_autores, :minAutores) END,
+                max_descargas = GREATEST(max_descargas, :maxDescargas),
+                max_autores = GREATEST(max_autores, :maxAutores),
+                total_libros = total_libros + :libros,
+                descargas_totales = descargas_totales + :descargas,
+                total_autorias = total_autorias + :autorias
+            WHERE id = 1
+            """, nativeQuery = true)
+    int sumarAltas(@Param("libros") long libros, @Param("descargas") long descargas,
+                   @Param("maxDescargas") int maxDescargas, @Param("minDescargas") int minDescargas,
+                   @Param("autorias") long autorias, @Param("maxAutores") long maxAutores,
+                   @Param("minAutores") long minAutores);
+
+    // Aplica cambios de descargas de libros ya contados. Si un libro que bajó tenía el máximo o uno que subió
+    // tenía el mínimo, el nuevo valor no se puede deducir y no se actualiza nada (devuelve 0, igual que sin fila).
+    @Modifying
+    @Query(value = """
+            UPDATE estadisticas_catalogo SET
+                descargas_totales = descargas_totales + :diferencia,
+                max_descargas = GREATEST(max_descargas, :maxNuevas),
+                min_descargas = LEAST(min_descargas, :minNuevas)
+            WHERE id = 1 AND :maxAnteriorQueBaja < max_descargas AND :minAnteriorQueSube > min_descargas
+            """, nativeQuery = true)
+    int sumarCambiosDescargas(@Param("diferencia") long diferencia, @Param("maxNuevas") int maxNuevas,
+                              @Param("minNuevas") int minNuevas, @Param("maxAnteriorQueBaja") int maxAnteriorQueBaja,
+                              @Param("minAnteriorQueSube") int minAnteriorQueSube);
+
+    // Bloqueo de la transacción que ordena la creación de la fila: quien la crea no ve las altas sin confirmar de
+    // otras transacciones, así que una transacción que no encontró la fila espera a las demás antes de crearla
+    // o de volver a sumarle. Se libera al confirmar o revertir.
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock('estadisticas_catalogo'::regclass::oid::bigint)) bloqueo",
+            nativeQuery = true)
+    int bloquearCreacion();
+
+    // Crea la fila de estadísticas a partir del contenido actual de la base de datos (con bloquearCreacion tomado)
+    @Modifying
+    @Query(value = """
+            INSERT INTO estadisticas_catalogo (id, total_libros, descargas_totales, max_descargas, min_descargas,
+                                               total_autorias, max_autores, min_autores)
+            SELECT 1, COUNT(*), COALESCE(SUM(x.descargas), 0), COALESCE(MAX(x.descargas), 0), COALESCE(MIN(x.descargas), 0),
+                   COALESCE(SUM(x.autores), 0), COALESCE(MAX(x.autores), 0), COALESCE(MIN(x.autores), 0)
+            FROM (SELECT l.numero_descargas AS descargas, COUNT(la.autor_id) AS autores
+                  FROM libros l LEFT JOIN libro_autor la ON la.libro_id = l.id
+                  GROUP BY l.id, l.numero_descargas) x
+            ON CONFLICT (id) DO NOTHING
+            """, nativeQuery = true)
+    int inicializar();
+
+    // Elimina la fila de estadísticas; la próxima lectura la vuelve a crear con inicializar
+    @Modifying
+    @Query(value = "DELETE FROM estadisticas_catalogo WHERE id = 1", nativeQuery = true)
+    int descartar();
+}
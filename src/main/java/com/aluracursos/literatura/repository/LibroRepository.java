@@ -1,25 +1,52 @@
 package com.aluracursos.literatura.repository;
 
-import com.aluracursos.literatura.model.Languages;
 import com.aluracursos.literatura.model.Libro;
+import com.aluracursos.literatura.model.LibroResumen;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LibroRepository extends JpaRepository<Libro, Long> {
 
-    @Query("SELECT l FROM Libro l WHERE LOWER(l.titulo) = LOWER(:tituloLibro)")
+    // Columnas de LibroResumen: los autores se agregan por libro con una subconsulta sobre índices y los idiomas
+    // son una columna de la propia tabla, así cada listado es una sola consulta paginada y sin cargar colecciones.
+    String COLUMNAS_RESUMEN = """
+            SELECT l.id AS "id", l.titulo AS "titulo", l.numero_descargas AS "numeroDescargas",
+                   l.idiomas AS "mascaraIdiomas",
+                   (SELECT string_agg(a.nombre, ', ' ORDER BY a.nombre)
+                    FROM libro_autor la JOIN autores a ON a.id = la.autor_id
+                    WHERE la.libro_id = l.id) AS "autores"
+            FROM libros l
+            """;
+
+    // El primer libro registrado con ese título; los títulos pueden repetirse entre obras distintas
+    @Query(value = "SELECT * FROM libros WHERE LOWER(titulo) = LOWER(:tituloLibro) ORDER BY id LIMIT 1", nativeQuery = true)
     Optional<Libro> findByTituloLibro(@Param("tituloLibro") String tituloLibro);
-    @Query("SELECT DISTINCT l FROM Libro l JOIN FETCH l.autores")
-    List<Libro> findAllLibrosConAutores(Pageable pageable);
-    @Query("SELECT DISTINCT l FROM Libro l JOIN FETCH l.autores a WHERE :idioma MEMBER OF l.idiomas")
-    List<Libro> findLibrosPorIdioma(@Param("idioma") Languages idioma, Pageable pageable);
-    @Query("SELECT l FROM Libro l ORDER BY l.numeroDescargas DESC")
-    List<Libro> findTop10Libros(Pageable pageable);
+    // Búsqueda por el id de Project Gutenberg, con su índice único
+    Optional<Libro> findByGutenbergId(int gutenbergId);
+    // Los listados paginados usan paginación por cursor (keyset): en lugar de OFFSET reciben la clave
+    // de la última fila mostrada, de modo que cualquier página cuesta lo mismo que la primera.
+    // Libros en orden de registro, posteriores al id indicado (0 para la primera página)
+    @Query(value = COLUMNAS_RESUMEN + "WHERE l.id > :id ORDER BY l.id", nativeQuery = true)
+    List<LibroResumen> findLibrosResumen(@Param("id") long id, Pageable pageable);
+    // Libros que tienen todos los idiomas pedidos, por descargas descendentes y posteriores a (descargas, id);
+    // para la primera página se pasa (Integer.MAX_VALUE, Long.MAX_VALUE). 'mascaras' son las máscaras que incluyen
+    // esos idiomas (Languages.mascarasQueIncluyen), de modo que el filtro usa el índice de la columna idiomas.
+    @Query(value = COLUMNAS_RESUMEN + """
+            WHERE l.idiomas IN (:mascaras)
+              AND (l.numero_descargas, l.id) < (:descargas, :id)
+            ORDER BY l.numero_descargas DESC, l.id DESC
+            """, nativeQuery = true)
+    List<LibroResumen> findLibrosPorIdioma(@Param("mascaras") Collection<Integer> mascaras, @Param("descargas") int descargas,
+                                           @Param("id") long id, Pageable pageable);
+    // Libros más descargados: recorre el índice (numero_descargas, id) desde el final y se detiene en el límite
+    @Query(value = COLUMNAS_RESUMEN + "ORDER BY l.numero_descargas DESC, l.id DESC", nativeQuery = true)
+    List<LibroResumen> findTopLibros(Pageable pageable);
 }
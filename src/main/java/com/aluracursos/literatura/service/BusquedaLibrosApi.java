@@ -0,0 +1,58 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Búsqueda de un libro por título en la API de Gutendex (endpoint /books?search=)
+@Service
+public class BusquedaLibrosApi {
+
+    private final ConsumoApi consumoApi;
+    private final ConvierteDatos conversor;
+    private final LoggerBase logger;
+    // URL base de la búsqueda; el título se agrega al final
+    private final String urlBusqueda;
+
+    public BusquedaLibrosApi(ConsumoApi consumoApi, ConvierteDatos conversor,
+                             @Value("${literatura.api.url-busqueda:https://gutendex.com/books?search=}") String urlBusqueda) {
+        this.consumoApi = consumoApi;
+        this.conversor = conversor;
+        this.urlBusqueda = urlBusqueda;
+        this.logger = new LoggerBaseImpl(BusquedaLibrosApi.class.getName());
+    }
+
+    // Devuelve el primer resultado de la búsqueda, o null si no hay respuesta o resultados
+    public DatosLibro buscarPrimero(String tituloLibro) {
+        try {
+            return buscar(tituloLibro).orElse(null);
+        } catch (IllegalStateException e) {
+            logger.logWarn(e.getMessage());
+            return null;
+        }
+    }
+
+    // Devuelve el primer resultado de la búsqueda, vacío si la API no encontró nada.
+    // Lanza IllegalStateException si no hubo respuesta o no se pudo procesar, para distinguir un fallo de un título inexistente.
+    public Optional<DatosLibro> buscar(String tituloLibro) {
+        final String url = urlBusqueda + URLEncoder.encode(tituloLibro, StandardCharsets.UTF_8); // Codificar el título (los espacios quedan como '+')
+
+        final String json = consumoApi.obtenerDatos(url); // Consumir la API para obtener los datos en formato JSON
+        if (json == null || json.isEmpty()) { // Verificar si la respuesta es nula o vacía
+            throw new IllegalStateException("No se recibió respuesta desde la API.");
+        }
+
+        try (Stream<DatosLibro> resultados = conversor.obtenerResultados(json, DatosLibro.class)) { // Recorrer los resultados sin construir el árbol JSON
+            return resultados.findFirst(); // Convertir solo el primer elemento a un objeto DatosLibro
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Error al procesar los datos de la API: " + e.getMessage(), e);
+        }
+    }
+}
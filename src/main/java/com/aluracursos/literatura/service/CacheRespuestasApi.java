@@ -0,0 +1,273 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caché de dos niveles para las respuestas de la API: un LRU acotado en memoria y un almacén en disco
+// que sobrevive a los reinicios, también acotado. Ambos niveles usan la URL normalizada como clave.
+@Component
+public class CacheRespuestasApi {
+
+    private final boolean habilitada;
+    private final boolean modoOffline;
+    private final int capacidad;
+    private final long ttlMillis;
+    private final Path directorio;
+    private final long maxBytesDisco;
+    private final LoggerBase logger;
+
+    // Nivel en memoria: LinkedHashMap en orden de acceso, el menos usado se expulsa al superar la capacidad
+    private final Map<String, Entrada> memoria;
+
+    private final AtomicLong aciertosMemoria = new AtomicLong();
+    private final AtomicLong aciertosDisco = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong expulsiones = new AtomicLong();
+    private final AtomicLong expiradas = new AtomicLong();
+
+    // Bytes escritos en el directorio desde el último barrido (-1 antes del primero). Es una cota superior:
+    // reemplazar una entrada suma su tamaño otra vez, lo que solo adelanta el próximo barrido.
+    private final AtomicLong bytesEnDisco = new AtomicLong(-1);
+
+    public CacheRespuestasApi(@Value("${literatura.cache.habilitada:true}") boolean habilitada,
+                              @Value("${literatura.api.modo-offline:false}") boolean modoOffline,
+                              @Value("${literatura.cache.capacidad:500}") int capacidad,
+                              @Value("${literatura.cache.ttl:24h}") Duration ttl,
+                              @Value("${literatura.cache.directorio:${user.home}/.literatura/cache}") Path directorio,
+                              @Value("${literatura.cache.tamanio-disco:200MB}") DataSize tamanioDisco) {
+        this.habilitada = habilitada || modoOffline; // El modo offline necesita la caché aunque esté deshabilitada
+        this.modoOffline = modoOffline;
+        this.capacidad = capacidad;
+        this.ttlMillis = ttl.toMillis();
+        this.directorio = directorio;
+        this.maxBytesDisco = tamanioDisco.toBytes();
+        this.logger = new LoggerBaseImpl(CacheRespuestasApi.class.getName());
+        this.memoria = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                boolean expulsar = size() > CacheRespuestasApi.this.capacidad;
+                if (expulsar) {
+                    expulsiones.incrementAndGet();
+                }
+                return expulsar;
+            }
+        };
+    }
+
+    // Caché deshabilitada, útil para pruebas y mediciones que deben llegar siempre al servidor
+    public static CacheRespuestasApi deshabilitada() {
+        return new CacheRespuestasApi(false, false, 0, Duration.ZERO, Path.of("."), DataSize.ofBytes(0));
+    }
+
+    // Devuelve la respuesta guardada para la URL o null si no existe o ya expiró.
+    // En modo offline las respuestas expiradas se siguen sirviendo, porque no hay otra fuente.
+    public String obtener(String url) {
+        if (!habilitada) {
+            return null;
+        }
+        String clave = normalizar(url);
+        long ahora = System.currentTimeMillis();
+
+        Entrada entrada;
+        synchronized (memoria) {
+            entrada = memoria.get(clave);
+        }
+        if (entrada != null && esVigente(entrada, ahora)) {
+            aciertosMemoria.incrementAndGet();
+            return entrada.cuerpo();
+        }
+
+        entrada = leerDeDisco(clave);
+        if (entrada != null && esVigente(entrada, ahora)) {
+            aciertosDisco.incrementAndGet();
+            synchronized (memoria) {
+                memoria.put(clave, entrada); // Promover al nivel en memoria
+            }
+            return entrada.cuerpo();
+        }
+        if (entrada != null) {
+            expiradas.incrementAndGet();
+            eliminar(clave);
+        }
+        fallos.incrementAndGet();
+        return null;
+    }
+
+    // Guarda la respuesta en ambos niveles
+    public void guardar(String url, String cuerpo) {
+        if (!habilitada || cuerpo == null) {
+            return;
+        }
+        String clave = normalizar(url);
+        Entrada entrada = new Entrada(cuerpo, System.currentTimeMillis() + ttlMillis);
+        synchronized (memoria) {
+            memoria.put(clave, entrada);
+        }
+        escribirEnDisco(clave, entrada);
+    }
+
+    public boolean isModoOffline() {
+        return modoOffline;
+    }
+
+    public Estadisticas getEstadisticas() {
+        int tamanio;
+        synchronized (memoria) {
+            tamanio = memoria.size();
+        }
+        return new Estadisticas(aciertosMemoria.get(), aciertosDisco.get(), fallos.get(), expulsiones.get(),
+                expiradas.get(), tamanio);
+    }
+
+    // Normaliza la URL para que variantes equivalentes compartan la misma entrada: esquema, host y nombres de
+    // los parámetros en minúsculas, sin barra final en la ruta y con los parámetros ordenados. Los valores se
+    // conservan tal cual: el servidor puede distinguir mayúsculas en ellos.
+    static String normalizar(String url) {
+        URI uri = URI.create(url.trim()).normalize();
+        String esquema = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        String puerto = uri.getPort() == -1 ? "" : ":" + uri.getPort();
+        String ruta = uri.getRawPath() == null ? "" : uri.getRawPath();
+        if (ruta.endsWith("/")) {
+            ruta = ruta.substring(0, ruta.length() - 1);
+        }
+        String consulta = "";
+        if (uri.getRawQuery() != null && !uri.getRawQuery().isEmpty()) {
+            String[] parametros = uri.getRawQuery().replace("%20", "+").split("&");
+            for (int i = 0; i < parametros.length; i++) {
+                int igual = parametros[i].indexOf('=');
+                String nombre = igual < 0 ? parametros[i] : parametros[i].substring(0, igual);
+                parametros[i] = nombre.toLowerCase(Locale.ROOT) + (igual < 0 ? "" : parametros[i].substring(igual));
+            }
+            Arrays.sort(parametros);
+            consulta = "?" + String.join("&", parametros);
+        }
+        return esquema + "://" + host + puerto + ruta + consulta;
+    }
+
+    private boolean esVigente(Entrada entrada, long ahora) {
+        return modoOffline || entrada.expiraEn() > ahora;
+    }
+
+    // Formato del archivo: primera línea con la expiración en milisegundos, el resto es el cuerpo
+    private Entrada leerDeDisco(String clave) {
+        Path archivo = archivoPara(clave);
+        if (!Files.isRegularFile(archivo)) {
+            return null;
+        }
+        try {
+            String contenido = Files.readString(archivo, StandardCharsets.UTF_8);
+            int salto = contenido.indexOf('\n');
+            return new Entrada(contenido.substring(salto + 1), Long.parseLong(contenido.substring(0, salto)));
+        } catch (IOException | RuntimeException e) {
+            logger.logWarn("No se pudo leer la caché en disco: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void escribirEnDisco(String clave, Entrada entrada) {
+        Path archivo = archivoPara(clave);
+        try {
+            Files.createDirectories(directorio);
+            Path temporal = Files.createTempFile(directorio, "respuesta", ".tmp");
+            Files.writeString(temporal, entrada.expiraEn() + "\n" + entrada.cuerpo(), StandardCharsets.UTF_8);
+            long bytes = Files.size(temporal);
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long total = bytesEnDisco.get();
+            if (total < 0 || bytesEnDisco.addAndGet(bytes) > maxBytesDisco) {
+                barrerDisco(); // La primera escritura del proceso también barre lo que dejaron las ejecuciones anteriores
+            }
+        } catch (IOException e) {
+            logger.logWarn("No se pudo guardar la respuesta en la caché en disco: {}", e.getMessage());
+        }
+    }
+
+    // Si el directorio supera el tamaño máximo, borra las entradas escritas hace más tiempo (las primeras en
+    // vencer) hasta dejarlo en tres cuartos del máximo, para no barrer en cada escritura
+    private synchronized void barrerDisco() {
+        record Archivo(Path ruta, long bytes, long escrito) {
+        }
+        List<Archivo> archivos = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> entradas = Files.newDirectoryStream(directorio, "*.json")) {
+            for (Path ruta : entradas) {
+                BasicFileAttributes atributos = Files.readAttributes(ruta, BasicFileAttributes.class);
+                archivos.add(new Archivo(ruta, atributos.size(), atributos.lastModifiedTime().toMillis()));
+                total += atributos.size();
+            }
+        } catch (IOException e) {
+            logger.logWarn("No se pudo recorrer la caché en disco: {}", e.getMessage());
+            return;
+        }
+
+        if (total > maxBytesDisco) {
+            archivos.sort(Comparator.comparingLong(Archivo::escrito));
+            long objetivo = maxBytesDisco / 4 * 3;
+            for (int i = 0; i < archivos.size() && total > objetivo; i++) {
+                try {
+                    Files.deleteIfExists(archivos.get(i).ruta());
+                    total -= archivos.get(i).bytes();
+                } catch (IOException e) {
+                    logger.logWarn("No se pudo eliminar una entrada de la caché en disco: {}", e.getMessage());
+                }
+            }
+        }
+        bytesEnDisco.set(total);
+    }
+
+    private void eliminar(String clave) {
+        synchronized (memoria) {
+            memoria.remove(clave);
+        }
+        try {
+            Files.deleteIfExists(archivoPara(clave));
+        } catch (IOException e) {
+            logger.logWarn("No se pudo eliminar la entrada expirada de la caché: {}", e.getMessage());
+        }
+    }
+
+    private Path archivoPara(String clave) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(clave.getBytes(StandardCharsets.UTF_8));
+            return directorio.resolve(HexFormat.of().formatHex(hash) + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entrada(String cuerpo, long expiraEn) {
+    }
+
+    public record Estadisticas(long aciertosMemoria, long aciertosDisco, long fallos, long expulsiones,
+                               long expiradas, int entradasEnMemoria) {
+
+        public double tasaAciertos() {
+            long total = aciertosMemoria + aciertosDisco + fallos;
+            return total == 0 ? 0 : (double) (aciertosMemoria + aciertosDisco) / total;
+        }
+    }
+}
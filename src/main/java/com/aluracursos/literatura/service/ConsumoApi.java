@@ -1,5 +1,9 @@
 package com.aluracursos.literatura.service;
 
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -7,37 +11,308 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
-public class ConsumoApi {
+public class ConsumoApi implements AutoCloseable {
 
-    public String obtenerDatos(String url) {
-        // Configurar el cliente HTTP para seguir redirecciones
-        HttpClient client = HttpClient.newBuilder()
+    // Cliente HTTP compartido: mantiene el pool de conexiones (keep-alive) y las sesiones TLS entre llamadas
+    private final HttpClient client;
+    // Ejecutor de hilos virtuales para las solicitudes asíncronas
+    private final ExecutorService executor;
+    // Tiempo máximo de espera para cada solicitud
+    private final Duration timeoutSolicitud;
+    // Caché de respuestas consultada antes de ir a la API
+    private final CacheRespuestasApi cache;
+    // Duración, código de estado y tamaño de cada respuesta
+    private final MedidorOperaciones medidor;
+    // Cuándo y cuántas veces se reintenta una solicitud fallida
+    private final PoliticaReintentos politicaReintentos;
+    // Solicitudes por segundo admitidas por cada host
+    private final LimitadorTasa limitador;
+    // Solicitudes en vuelo a la vez, ajustado según la latencia y los errores observados
+    private final LimitadorConcurrencia limitadorConcurrencia;
+    // Cuándo se duplica una solicitud lenta
+    private final PoliticaCobertura politicaCobertura;
+    private final AtomicLong coberturasEnviadas = new AtomicLong();
+    private final AtomicLong coberturasGanadoras = new AtomicLong();
+    // URL normalizada -> resultado de la solicitud que está en curso para ella
+    private final ConcurrentMap<String, CompletableFuture<String>> enVuelo = new ConcurrentHashMap<>();
+    private final LoggerBase logger;
+
+    public ConsumoApi(@Value("${literatura.api.timeout-conexion:5s}") Duration timeoutConexion,
+                      @Value("${literatura.api.timeout-solicitud:20s}") Duration timeoutSolicitud,
+                      CacheRespuestasApi cache, MedidorOperaciones medidor,
+                      PoliticaReintentos politicaReintentos, LimitadorTasa limitador,
+                      LimitadorConcurrencia limitadorConcurrencia, PoliticaCobertura politicaCobertura) {
+        this.cache = cache;
+        this.medidor = medidor;
+        this.politicaReintentos = politicaReintentos;
+        this.limitador = limitador;
+        this.limitadorConcurrencia = limitadorConcurrencia;
+        this.politicaCobertura = politicaCobertura;
+        medidor.indicador("literatura.api.concurrencia.limite", "Solicitudes a la API admitidas en vuelo a la vez",
+                limitadorConcurrencia::getLimite);
+        medidor.indicador("literatura.api.concurrencia.en-vuelo", "Solicitudes a la API en vuelo",
+                limitadorConcurrencia::getEnVuelo);
+        medidor.contador("literatura.api.coberturas", "Solicitudes de cobertura enviadas", coberturasEnviadas::get);
+        medidor.contador("literatura.api.coberturas.ganadoras", "Coberturas que respondieron antes que la solicitud original",
+                coberturasGanadoras::get);
+        this.logger = new LoggerBaseImpl(ConsumoApi.class.getName());
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.timeoutSolicitud = timeoutSolicitud;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2) // Multiplexar solicitudes sobre una misma conexión cuando el servidor lo permite
                 .followRedirects(HttpClient.Redirect.NORMAL) // Habilitar redirecciones normales
+                .connectTimeout(timeoutConexion)
+                .executor(executor)
                 .build();
+    }
+
+    // Devuelve el cuerpo de la respuesta o null si la API no respondió con 200 después de los reintentos.
+    // Las llamadas concurrentes a una misma URL comparten una sola solicitud y su resultado.
+    public String obtenerDatos(String url) {
+        final URI uri = URI.create(url);
+        final MedidorOperaciones.Medicion medicion = medidor.iniciar(MedidorOperaciones.TIPO_API, uri.getPath()); // Se etiqueta por ruta, no por URL completa
+        final String enCache = cache.obtener(url); // Consultar primero la caché
+        if (enCache != null) {
+            medicion.terminar("cache");
+            return enCache;
+        }
+        if (cache.isModoOffline()) { // En modo offline solo se sirven respuestas guardadas
+            medicion.terminar("offline");
+            logger.logWarn("Modo offline: no hay una respuesta guardada para {}", url);
+            return null;
+        }
 
+        final String clave = CacheRespuestasApi.normalizar(url);
+        final CompletableFuture<String> propia = new CompletableFuture<>();
+        final CompletableFuture<String> enCurso = enVuelo.putIfAbsent(clave, propia);
+        if (enCurso != null) { // Otra llamada ya está pidiendo esta URL: esperar su resultado
+            medicion.terminar("compartida");
+            return esperar(enCurso);
+        }
+        medicion.terminar("enviada"); // Los intentos contra la API se miden aparte, con su código de estado
+        try {
+            String cuerpo = obtenerConReintentos(uri);
+            if (cuerpo != null) {
+                cache.guardar(url, cuerpo); // Guardar la respuesta para las próximas consultas
+            }
+            propia.complete(cuerpo);
+            return cuerpo;
+        } catch (RuntimeException | Error e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enVuelo.remove(clave, propia);
+        }
+    }
+
+    // Envía la solicitud respetando el límite de velocidad del host y la reintenta mientras falle
+    // por causas pasajeras (429, 5xx de pasarela, errores de conexión)
+    private String obtenerConReintentos(URI uri) {
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+                .uri(uri)
+                .timeout(timeoutSolicitud)
+                .GET()
                 .build();
 
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        for (int intento = 1; ; intento++) {
+            Optional<Duration> retryAfter = Optional.empty();
+            String causa;
+            MedidorOperaciones.Medicion medicion = medidor.iniciar(MedidorOperaciones.TIPO_API, uri.getPath()); // Cada intento se mide con su código de estado
+            try {
+                HttpResponse<byte[]> response = enviar(request, uri.getHost());
+                medicion.terminar(String.valueOf(response.statusCode()), response.body().length);
 
-            // Verificar si la respuesta es válida
-            if (response.statusCode() != 200) {
-                System.out.println("Error en la respuesta de la API. Código de estado: " + response.statusCode());
+                if (response.statusCode() == 200) {
+                    return new String(response.body(), StandardCharsets.UTF_8); // Gutendex responde JSON en UTF-8
+                }
+                if (!PoliticaReintentos.esReintentable(response.statusCode())) {
+                    logger.logWarn("Error en la respuesta de la API. Código de estado: {}", response.statusCode());
+                    return null;
+                }
+                retryAfter = PoliticaReintentos.retryAfter(response.headers());
+                retryAfter.ifPresent(pausa -> limitador.pausar(uri.getHost(), pausa)); // Nadie más le pide nada al host mientras tanto
+                causa = "código de estado " + response.statusCode();
+            } catch (IOException e) {
+                medicion.terminar("error");
+                causa = "error de conexión: " + e.getMessage();
+            } catch (InterruptedException e) {
+                medicion.terminar("interrumpida");
+                logger.logWarn("La solicitud fue interrumpida: {}", e.getMessage());
+                Thread.currentThread().interrupt(); // Restablecer el estado de interrupción
                 return null;
             }
 
-            return response.body();
-        } catch (IOException e) {
-            System.out.println("Error de conexión: " + e.getMessage());
-            return null;
+            Optional<Duration> espera = politicaReintentos.espera(intento, retryAfter);
+            if (espera.isEmpty()) {
+                logger.logWarn("La API falló {} veces para {} ({}); no se reintenta más", intento, uri, causa);
+                return null;
+            }
+            final int numero = intento;
+            final String motivo = causa;
+            logger.logDebug(() -> "Reintento " + numero + " de " + uri + " en " + espera.get().toMillis() + " ms (" + motivo + ")");
+            try {
+                Thread.sleep(espera.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    // Envía la solicitud dentro del límite de concurrencia y de velocidad. Si la respuesta tarda más que el
+    // retraso de cobertura y hay lugar libre, envía un duplicado y devuelve la primera respuesta que llegue.
+    private HttpResponse<byte[]> enviar(HttpRequest request, String host) throws IOException, InterruptedException {
+        limitadorConcurrencia.adquirir();
+        try {
+            limitador.adquirir(host);
+        } catch (InterruptedException e) {
+            limitadorConcurrencia.liberarSinMedir();
+            throw e;
+        }
+        CompletableFuture<HttpResponse<byte[]>> primaria = lanzar(request);
+
+        Optional<Duration> retraso = politicaCobertura.retraso();
+        if (retraso.isEmpty()) {
+            return esperarRespuesta(primaria);
+        }
+        try {
+            return esperarRespuesta(primaria, retraso.get());
+        } catch (TimeoutException e) {
+            // Tarda más que el percentil: se intenta una cobertura
+        }
+        if (!limitadorConcurrencia.intentarAdquirir()) { // Sin lugar libre una cobertura solo agregaría carga
+            return esperarRespuesta(primaria);
+        }
+        if (!limitador.intentarAdquirir(host)) {
+            limitadorConcurrencia.liberarSinMedir();
+            return esperarRespuesta(primaria);
+        }
+        coberturasEnviadas.incrementAndGet();
+        CompletableFuture<HttpResponse<byte[]>> cobertura = lanzar(request);
+        CompletableFuture<HttpResponse<byte[]>> primera = primeraRespuesta(primaria, cobertura);
+        try {
+            HttpResponse<byte[]> response = esperarRespuesta(primera);
+            if (cobertura.isDone() && !cobertura.isCompletedExceptionally() && cobertura.join() == response) {
+                coberturasGanadoras.incrementAndGet();
+            }
+            return response;
+        } finally {
+            primaria.cancel(true); // La perdedora se cancela; sobre la ganadora no tiene efecto
+            cobertura.cancel(true);
+        }
+    }
+
+    // Envía una solicitud que ya tiene su lugar en el limitador de concurrencia y lo libera al terminar,
+    // informando la latencia y si hubo error
+    private CompletableFuture<HttpResponse<byte[]>> lanzar(HttpRequest request) {
+        long inicio = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> envio = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()); // En bytes para medir el tamaño real
+        envio.whenComplete((response, error) -> {
+            long latencia = System.nanoTime() - inicio;
+            if (error instanceof CancellationException || error != null && error.getCause() instanceof CancellationException) {
+                limitadorConcurrencia.liberarSinMedir();
+                return;
+            }
+            boolean fallo = error != null || PoliticaReintentos.esReintentable(response.statusCode());
+            limitadorConcurrencia.liberar(latencia, fallo);
+            if (!fallo && response.statusCode() == 200) {
+                politicaCobertura.registrar(latencia);
+            }
+        });
+        return envio;
+    }
+
+    // La primera respuesta HTTP de las dos; solo falla si fallan ambas
+    private static CompletableFuture<HttpResponse<byte[]>> primeraRespuesta(CompletableFuture<HttpResponse<byte[]>> una,
+                                                                            CompletableFuture<HttpResponse<byte[]>> otra) {
+        CompletableFuture<HttpResponse<byte[]>> primera = new CompletableFuture<>();
+        AtomicInteger fallidas = new AtomicInteger();
+        for (CompletableFuture<HttpResponse<byte[]>> envio : List.of(una, otra)) {
+            envio.whenComplete((response, error) -> {
+                if (error == null) {
+                    primera.complete(response);
+                } else if (fallidas.incrementAndGet() == 2) {
+                    primera.completeExceptionally(error);
+                }
+            });
+        }
+        return primera;
+    }
+
+    private static HttpResponse<byte[]> esperarRespuesta(CompletableFuture<HttpResponse<byte[]>> envio)
+            throws IOException, InterruptedException {
+        try {
+            return envio.get();
+        } catch (ExecutionException e) {
+            throw comoIOException(e);
+        } catch (InterruptedException e) {
+            envio.cancel(true);
+            throw e;
+        }
+    }
+
+    private static HttpResponse<byte[]> esperarRespuesta(CompletableFuture<HttpResponse<byte[]>> envio, Duration limite)
+            throws IOException, InterruptedException, TimeoutException {
+        try {
+            return envio.get(limite.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw comoIOException(e);
+        } catch (InterruptedException e) {
+            envio.cancel(true);
+            throw e;
+        }
+    }
+
+    // sendAsync envuelve los errores de E/S; se desenvuelven para tratarlos igual que los de send
+    private static IOException comoIOException(ExecutionException e) {
+        return e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+    }
+
+    // Espera el resultado de la solicitud que otra llamada ya envió
+    private String esperar(CompletableFuture<String> enCurso) {
+        try {
+            return enCurso.get();
         } catch (InterruptedException e) {
-            System.out.println("La solicitud fue interrumpida: " + e.getMessage());
-            Thread.currentThread().interrupt(); // Restablecer el estado de interrupción
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            logger.logWarn("Falló la solicitud compartida: {}", e.getCause().getMessage());
             return null;
         }
     }
-}
\ No newline at end of file
+
+    // Versión asíncrona de obtenerDatos: cada solicitud se ejecuta en su propio hilo virtual
+    // y todas comparten el mismo cliente, por lo que muchas búsquedas pueden reutilizar las conexiones abiertas.
+    public CompletableFuture<String> obtenerDatosAsync(String url) {
+        return CompletableFuture.supplyAsync(() -> obtenerDatos(url), executor);
+    }
+
+    // Contadores de aciertos, fallos y expulsiones de la caché de respuestas
+    public CacheRespuestasApi.Estadisticas getEstadisticasCache() {
+        return cache.getEstadisticas();
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        client.close(); // Cerrar las conexiones abiertas
+        executor.close(); // Esperar a que terminen las solicitudes en curso
+    }
+}
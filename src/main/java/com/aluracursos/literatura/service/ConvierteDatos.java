@@ -1,19 +1,78 @@
 package com.aluracursos.literatura.service;
 
+import com.aluracursos.literatura.model.DatosLibro;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 @Component
 public class ConvierteDatos implements IConvierteDatos{
 
+    // Nombre del arreglo de resultados en las respuestas paginadas de la API
+    private static final String CAMPO_RESULTADOS = "results";
+
     private ObjectMapper objectMapper = new ObjectMapper();
+    // Lectores preconstruidos por clase, para no resolver el deserializador en cada llamada
+    private final ConcurrentMap<Class<?>, ObjectReader> lectores = new ConcurrentHashMap<>();
+    // Duración de cada decodificación, etiquetada por la clase de destino
+    private final MedidorOperaciones medidor;
+
+    public ConvierteDatos() {
+        this(MedidorOperaciones.deshabilitado());
+    }
+
+    @Autowired
+    public ConvierteDatos(MedidorOperaciones medidor) {
+        this.medidor = medidor;
+        lectorPara(DatosLibro.class); // El lector más usado queda listo desde el inicio
+    }
 
     @Override
     public <T> T obtenerDatos(String json, Class<T> clase) {
+        MedidorOperaciones.Medicion medicion = medidor.iniciar(MedidorOperaciones.TIPO_JSON, clase.getSimpleName());
         try {
-            return objectMapper.readValue(json,clase);
+            T valor = lectorPara(clase).readValue(json);
+            medicion.terminar(MedidorOperaciones.RESULTADO_OK);
+            return valor;
         } catch (JsonProcessingException e) {
+            medicion.terminar("error");
+            throw new RuntimeException(e);
+        }
+    }
+
+    // La decodificación de cada respuesta se registra una vez (nombre 'Clase[]'), con la suma del tiempo de
+    // todos sus elementos y sin el que se pasa procesándolos entre uno y otro
+    @Override
+    public <T> Stream<T> obtenerResultados(String json, Class<T> clase) {
+        long inicio = System.nanoTime();
+        try {
+            JsonParser parser = objectMapper.getFactory().createParser(json);
+            IteradorResultados<T> iterador = new IteradorResultados<>(parser, lectorPara(clase), medidor, clase.getSimpleName() + "[]");
+            if (!avanzarHastaResultados(parser)) { // La respuesta no contiene resultados
+                parser.close();
+                return Stream.empty();
+            }
+            iterador.decodificacion = System.nanoTime() - inicio; // Incluye el salto hasta el arreglo de resultados
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterador, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> {
+                        iterador.registrar(MedidorOperaciones.RESULTADO_OK); // Si se dejó de leer antes del final
+                        cerrar(parser);
+                    });
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
@@ -22,4 +81,99 @@ public class ConvierteDatos implements IConvierteDatos{
     public ObjectMapper getObjectMapper() {
         return objectMapper;
     }
+
+    private ObjectReader lectorPara(Class<?> clase) {
+        return lectores.computeIfAbsent(clase, objectMapper::readerFor);
+    }
+
+    // Recorre los campos del objeto raíz saltando los subárboles que no interesan, sin materializarlos,
+    // y deja el parser sobre el inicio del arreglo 'results'.
+    private boolean avanzarHastaResultados(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if (CAMPO_RESULTADOS.equals(campo) && valor == JsonToken.START_ARRAY) {
+                return true;
+            }
+            parser.skipChildren(); // No hace nada con valores escalares
+        }
+        return false;
+    }
+
+    private static void cerrar(JsonParser parser) {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Iterador perezoso: deserializa un elemento del arreglo cada vez que se solicita
+    private static final class IteradorResultados<T> implements Iterator<T> {
+
+        private final JsonParser parser;
+        private final ObjectReader lector;
+        private final MedidorOperaciones medidor;
+        private final String nombre;
+        private boolean pendiente;
+        private boolean terminado;
+        private long decodificacion; // Tiempo sumado de lectura de la respuesta, en nanosegundos
+        private boolean registrado;
+
+        private IteradorResultados(JsonParser parser, ObjectReader lector, MedidorOperaciones medidor, String nombre) {
+            this.parser = parser;
+            this.lector = lector;
+            this.medidor = medidor;
+            this.nombre = nombre;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!pendiente && !terminado) {
+                long inicio = System.nanoTime();
+                try {
+                    JsonToken token = parser.nextToken();
+                    terminado = token == null || token == JsonToken.END_ARRAY;
+                    pendiente = !terminado;
+                } catch (IOException e) {
+                    registrar("error");
+                    throw new RuntimeException(e);
+                }
+                decodificacion += System.nanoTime() - inicio;
+                if (terminado) {
+                    registrar(MedidorOperaciones.RESULTADO_OK);
+                }
+            }
+            return pendiente;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            pendiente = false;
+            long inicio = System.nanoTime();
+            try {
+                T valor = lector.readValue(parser);
+                decodificacion += System.nanoTime() - inicio;
+                return valor;
+            } catch (IOException e) {
+                decodificacion += System.nanoTime() - inicio;
+                registrar("error");
+                throw new RuntimeException(e);
+            }
+        }
+
+        // Registra la decodificación de la respuesta una sola vez, al terminar, fallar o cerrarse
+        private void registrar(String resultado) {
+            if (!registrado) {
+                registrado = true;
+                medidor.registrar(MedidorOperaciones.TIPO_JSON, nombre, resultado, decodificacion);
+            }
+        }
+    }
 }
@@ -0,0 +1,213 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.literatura.model.DatosPagina;
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Recorre el catálogo completo de Gutendex siguiendo la paginación y persiste los libros por lotes
+@Component
+public class CrawlerCatalogo {
+
+    // Parámetro de página dentro de los enlaces 'next' de Gutendex
+    private static final Pattern PARAMETRO_PAGINA = Pattern.compile("[?&]page=(\\d+)");
+
+    private final ConsumoApi consumoApi;
+    private final ConvierteDatos conversor;
+    private final RegistroLibroService registroLibroService;
+    private final LoggerBase logger;
+    // URL de la primera página del catálogo
+    private final String urlCatalogo;
+    // Máximo de páginas pedidas por adelantado; cuántas se descargan a la vez lo ajusta el LimitadorConcurrencia de ConsumoApi
+    private final int maxEnVuelo;
+    // Cantidad de libros que se guardan en cada transacción
+    private final int tamanioLote;
+
+    public CrawlerCatalogo(ConsumoApi consumoApi, ConvierteDatos conversor, RegistroLibroService registroLibroService,
+                           @Value("${literatura.crawler.url-catalogo:https://gutendex.com/books/}") String urlCatalogo,
+                           @Value("${literatura.crawler.max-en-vuelo:64}") int maxEnVuelo,
+                           @Value("${literatura.ingesta.libros-por-transaccion:500}") int tamanioLote) {
+        this.consumoApi = consumoApi;
+        this.conversor = conversor;
+        this.registroLibroService = registroLibroService;
+        this.urlCatalogo = urlCatalogo;
+        this.maxEnVuelo = maxEnVuelo;
+        this.tamanioLote = tamanioLote;
+        this.logger = new LoggerBaseImpl(CrawlerCatalogo.class.getName());
+    }
+
+    public ResumenRastreo rastrear() {
+        return rastrear(urlCatalogo);
+    }
+
+    // Descarga la primera página y, a partir de su enlace 'next' y del total, calcula las URL de las demás
+    // para pedirlas en paralelo con una ventana acotada. Las páginas se consumen en orden.
+    public ResumenRastreo rastrear(String urlInicial) {
+        Progreso progreso = new Progreso();
+        DatosPagina primera = descargarPagina(urlInicial);
+        if (primera == null) {
+            logger.logInfo("No se pudo descargar la primera página del catálogo.");
+            return progreso.resumen();
+        }
+
+        List<DatosLibro> pendientes = new ArrayList<>(tamanioLote);
+        procesarPagina(primera, pendientes, progreso);
+
+        List<String> urlsRestantes = calcularUrlsRestantes(primera);
+        if (urlsRestantes == null) { // El enlace 'next' no tiene el formato esperado: seguirlo página a página
+            DatosPagina actual = primera;
+            while (actual != null && actual.siguiente() != null) {
+                actual = descargarPagina(actual.siguiente());
+                procesarPagina(actual, pendientes, progreso);
+            }
+        } else {
+            Deque<CompletableFuture<String>> enVuelo = new ArrayDeque<>(maxEnVuelo);
+            int siguiente = 0;
+            while (siguiente < urlsRestantes.size() || !enVuelo.isEmpty()) {
+                while (enVuelo.size() < maxEnVuelo && siguiente < urlsRestantes.size()) { // Llenar la ventana
+                    enVuelo.addLast(consumoApi.obtenerDatosAsync(urlsRestantes.get(siguiente++)));
+                }
+                procesarResultados(convertirResultados(enVuelo.removeFirst().join()), pendientes, progreso);
+            }
+        }
+
+        guardarLote(pendientes, progreso); // Guardar los libros que quedaron en el último lote
+        ResumenRastreo resumen = progreso.resumen();
+        logger.logInfo("Rastreo finalizado: {}", resumen);
+        return resumen;
+    }
+
+    private DatosPagina descargarPagina(String url) {
+        return convertirPagina(consumoApi.obtenerDatos(url));
+    }
+
+    private DatosPagina convertirPagina(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return conversor.obtenerDatos(json, DatosPagina.class);
+        } catch (RuntimeException e) {
+            logger.logWarn("Error al procesar una página del catálogo: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Convierte solo el arreglo 'results' de la página, sin materializar el resto de la respuesta
+    private List<DatosLibro> convertirResultados(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try (Stream<DatosLibro> resultados = conversor.obtenerResultados(json, DatosLibro.class)) {
+            return resultados.toList();
+        } catch (RuntimeException e) {
+            logger.logWarn("Error al procesar una página del catálogo: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void procesarPagina(DatosPagina pagina, List<DatosLibro> pendientes, Progreso progreso) {
+        procesarResultados(pagina == null ? null : pagina.resultados(), pendientes, progreso);
+    }
+
+    private void procesarResultados(List<DatosLibro> resultados, List<DatosLibro> pendientes, Progreso progreso) {
+        if (resultados == null) {
+            progreso.paginasFallidas++;
+            return;
+        }
+        progreso.paginas++;
+        progreso.librosLeidos += resultados.size();
+        pendientes.addAll(resultados);
+        if (pendientes.size() >= tamanioLote) {
+            guardarLote(pendientes, progreso);
+        }
+        progreso.informar(logger);
+    }
+
+    private void guardarLote(List<DatosLibro> pendientes, Progreso progreso) {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        try {
+            progreso.librosRegistrados += registroLibroService.registrarLote(pendientes);
+        } catch (RuntimeException e) { // El lote completo se revierte, pero el rastreo continúa
+            progreso.lotesFallidos++;
+            logger.logWarn("Error al guardar un lote de {} libros: {}", pendientes.size(), e.getMessage());
+        }
+        pendientes.clear();
+    }
+
+    // Genera las URL de las páginas 2..N reemplazando el número de página del enlace 'next'
+    private List<String> calcularUrlsRestantes(DatosPagina primera) {
+        if (primera.siguiente() == null) {
+            return List.of();
+        }
+        Matcher matcher = PARAMETRO_PAGINA.matcher(primera.siguiente());
+        if (primera.resultados() == null || primera.resultados().isEmpty() || !matcher.find()) {
+            return null;
+        }
+        int porPagina = primera.resultados().size();
+        int totalPaginas = (primera.total() + porPagina - 1) / porPagina;
+        int paginaSiguiente = Integer.parseInt(matcher.group(1));
+        String prefijo = primera.siguiente().substring(0, matcher.start(1));
+        String sufijo = primera.siguiente().substring(matcher.end(1));
+
+        List<String> urls = new ArrayList<>(Math.max(0, totalPaginas - paginaSiguiente + 1));
+        for (int pagina = paginaSiguiente; pagina <= totalPaginas; pagina++) {
+            urls.add(prefijo + pagina + sufijo);
+        }
+        return urls;
+    }
+
+    public record ResumenRastreo(int paginas, int paginasFallidas, int librosLeidos, int librosRegistrados,
+                                 int lotesFallidos, Duration duracion) {
+
+        @Override
+        public String toString() {
+            double segundos = Math.max(duracion.toMillis(), 1) / 1000.0;
+            return "%d páginas (%d fallidas), %d libros leídos, %d registrados, %d lotes fallidos en %.1f s (%.1f páginas/s, %.1f libros/s)"
+                    .formatted(paginas, paginasFallidas, librosLeidos, librosRegistrados, lotesFallidos,
+                            segundos, paginas / segundos, librosRegistrados / segundos);
+        }
+    }
+
+    // Contadores del rastreo en curso; solo los modifica el hilo que ejecuta rastrear()
+    private static final class Progreso {
+
+        // Intervalo mínimo entre dos informes de progreso
+        private static final long INTERVALO_INFORME_NANOS = Duration.ofSeconds(5).toNanos();
+
+        private final long inicio = System.nanoTime();
+        private long ultimoInforme = inicio;
+        private int paginas;
+        private int paginasFallidas;
+        private int librosLeidos;
+        private int librosRegistrados;
+        private int lotesFallidos;
+
+        void informar(LoggerBase logger) {
+            long ahora = System.nanoTime();
+            if (ahora - ultimoInforme >= INTERVALO_INFORME_NANOS) {
+                ultimoInforme = ahora;
+                logger.logInfo(() -> "Progreso: " + resumen());
+            }
+        }
+
+        ResumenRastreo resumen() {
+            return new ResumenRastreo(paginas, paginasFallidas, librosLeidos, librosRegistrados, lotesFallidos,
+                    Duration.ofNanos(System.nanoTime() - inicio));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.CambioDescargas;
+import com.aluracursos.literatura.model.EstadisticasCatalogo;
+import com.aluracursos.literatura.model.EstadisticasLibros;
+import com.aluracursos.literatura.model.Libro;
+import com.aluracursos.literatura.repository.EstadisticasRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+// Estadísticas del catálogo: agregados calculados en la base de datos o, si está habilitada,
+// la fila materializada que se mantiene al día en cada alta y se lee en tiempo constante.
+@Service
+public class EstadisticasService {
+
+    private final EstadisticasRepository estadisticasRepository;
+    private final boolean materializadas;
+
+    public EstadisticasService(EstadisticasRepository estadisticasRepository,
+                               @Value("${literatura.estadisticas.materializadas:false}") boolean materializadas) {
+        this.estadisticasRepository = estadisticasRepository;
+        this.materializadas = materializadas;
+    }
+
+    @Transactional
+    public EstadisticasLibros obtener() {
+        if (!materializadas) {
+            return estadisticasRepository.calcularEstadisticas();
+        }
+        return estadisticasRepository.findById(EstadisticasCatalogo.ID)
+                .or(() -> {
+                    estadisticasRepository.bloquearCreacion(); // Primera lectura: construir la fila desde los datos actuales
+                    estadisticasRepository.inicializar();
+                    return estadisticasRepository.findById(EstadisticasCatalogo.ID);
+                })
+                .map(EstadisticasCatalogo::toEstadisticas)
+                .orElse(EstadisticasLibros.VACIAS);
+    }
+
+    // Suma los libros recién guardados a la fila materializada, dentro de la misma transacción del alta
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarAltas(Collection<Libro> libros) {
+        if (!materializadas || libros.isEmpty()) {
+            return;
+        }
+        long descargas = 0;
+        long autorias = 0;
+        int maxDescargas = Integer.MIN_VALUE;
+        int minDescargas = Integer.MAX_VALUE;
+        long maxAutores = Long.MIN_VALUE;
+        long minAutores = Long.MAX_VALUE;
+        for (Libro libro : libros) {
+            int autores = libro.getAutores().size();
+            descargas += libro.getNumeroDescargas();
+            autorias += autores;
+            maxDescargas = Math.max(maxDescargas, libro.getNumeroDescargas());
+            minDescargas = Math.min(minDescargas, libro.getNumeroDescargas());
+            maxAutores = Math.max(maxAutores, autores);
+            minAutores = Math.min(minAutores, autores);
+        }
+
+        int filas = estadisticasRepository.sumarAltas(libros.size(), descargas, maxDescargas, minDescargas,
+                autorias, maxAutores, minAutores);
+        if (filas == 0) {
+            // Quien crea la fila no ve las altas sin confirmar de otras transacciones: esperar a las que la estén
+            // creando y volver a intentarlo, para que ninguna la cree sin ver los lotes ya confirmados de las demás
+            estadisticasRepository.bloquearCreacion();
+            filas = estadisticasRepository.sumarAltas(libros.size(), descargas, maxDescargas, minDescargas,
+                    autorias, maxAutores, minAutores);
+        }
+        if (filas == 0) {
+            // La fila todavía no existe: se crea a partir de la base de datos, que ya incluye este lote
+            estadisticasRepository.flush();
+            estadisticasRepository.inicializar();
+        }
+    }
+
+    // Aplica a la fila materializada las descargas que cambiaron en libros ya contados, dentro de la misma
+    // transacción: el total se corrige con la diferencia y los extremos solo si el cambio los amplía. Si bajó un
+    // libro que tenía el máximo o subió uno que tenía el mínimo, la fila se descarta y se recalcula en la próxima
+    // lectura. Debe llamarse antes que registrarAltas en la misma transacción.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCambiosDescargas(Collection<CambioDescargas> cambios) {
+        if (!materializadas || cambios.isEmpty()) {
+            return;
+        }
+        long diferencia = 0;
+        int maxNuevas = Integer.MIN_VALUE;
+        int minNuevas = Integer.MAX_VALUE;
+        int maxAnteriorQueBaja = Integer.MIN_VALUE;
+        int minAnteriorQueSube = Integer.MAX_VALUE;
+        for (CambioDescargas cambio : cambios) {
+            diferencia += cambio.nuevas() - cambio.anteriores();
+            maxNuevas = Math.max(maxNuevas, cambio.nuevas());
+            minNuevas = Math.min(minNuevas, cambio.nuevas());
+            if (cambio.nuevas() < cambio.anteriores()) {
+                maxAnteriorQueBaja = Math.max(maxAnteriorQueBaja, cambio.anteriores());
+            } else if (cambio.nuevas() > cambio.anteriores()) {
+                minAnteriorQueSube = Math.min(minAnteriorQueSube, cambio.anteriores());
+            }
+        }
+
+        int filas = estadisticasRepository.sumarCambiosDescargas(diferencia, maxNuevas, minNuevas,
+                maxAnteriorQueBaja, minAnteriorQueSube);
+        if (filas == 0) {
+            // Sin fila no hay nada que corregir, pero una transacción que la esté creando no ve estos cambios:
+            // esperarla y volver a intentarlo. Si la fila existe y no se actualizó, cambió un extremo.
+            estadisticasRepository.bloquearCreacion();
+            filas = estadisticasRepository.sumarCambiosDescargas(diferencia, maxNuevas, minNuevas,
+                    maxAnteriorQueBaja, minAnteriorQueSube);
+        }
+        if (filas == 0) {
+            estadisticasRepository.descartar();
+        }
+    }
+
+    // Descarta la fila materializada cuando cambian descargas de libros ya contados cuyo valor anterior no se
+    // conoce: se recalcula en la próxima lectura
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invalidar() {
+        if (materializadas) {
+            estadisticasRepository.descartar();
+        }
+    }
+}
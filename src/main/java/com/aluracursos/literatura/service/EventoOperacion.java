@@ -0,0 +1,32 @@
+package com.aluracursos.literatura.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Evento de Java Flight Recorder para cada operación medida por MedidorOperaciones (mismos tipos y nombres
+// que las métricas). Se graba con: java -XX:StartFlightRecording=filename=literatura.jfr -jar ...
+// y aparece en JDK Mission Control bajo la categoría "Literatura".
+@Name("com.aluracursos.literatura.Operacion")
+@Label("Operación")
+@Category("Literatura")
+@Description("Llamada a la API, decodificación JSON, consulta a un repositorio u opción del menú")
+@StackTrace(false)
+class EventoOperacion extends jdk.jfr.Event {
+
+    @Label("Tipo")
+    String tipo;
+
+    @Label("Nombre")
+    String nombre;
+
+    @Label("Resultado")
+    String resultado;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
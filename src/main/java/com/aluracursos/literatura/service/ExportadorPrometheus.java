@@ -0,0 +1,77 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Escribe periódicamente todas las métricas en formato de texto de Prometheus en un archivo, ya que la
+// aplicación de consola no expone un servidor HTTP (con el perfil 'servidor' también están en /actuator/prometheus). El archivo se reemplaza de forma atómica, así que
+// puede leerlo el textfile collector de node_exporter o cualquier otro proceso sin ver escrituras a medias.
+// Las pruebas con @SpringBootTest desactivan el registro de Prometheus: en ese caso no se exporta nada.
+@Component
+public class ExportadorPrometheus {
+
+    private final PrometheusMeterRegistry registro;
+    private final String archivo;
+    private final Duration intervalo;
+    private final LoggerBase logger;
+    private ScheduledExecutorService programador;
+
+    public ExportadorPrometheus(ObjectProvider<PrometheusMeterRegistry> registro,
+                                @Value("${literatura.metricas.archivo:}") String archivo,
+                                @Value("${literatura.metricas.intervalo:30s}") Duration intervalo) {
+        this.registro = registro.getIfAvailable();
+        this.archivo = archivo;
+        this.intervalo = intervalo;
+        this.logger = new LoggerBaseImpl(ExportadorPrometheus.class.getName());
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public synchronized void iniciar() {
+        if (registro == null || archivo.isBlank() || programador != null) { // Sin archivo configurado no se exporta nada
+            return;
+        }
+        programador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("exportador-prometheus").factory());
+        programador.scheduleWithFixedDelay(this::escribir, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        logger.logInfo("Métricas de Prometheus en {} cada {} s", Path.of(archivo).toAbsolutePath(), intervalo.toSeconds());
+    }
+
+    // Escribe las métricas en un archivo temporal y lo mueve sobre el destino
+    public void escribir() {
+        Path destino = Path.of(archivo).toAbsolutePath();
+        try {
+            Files.createDirectories(destino.getParent());
+            Path temporal = Files.createTempFile(destino.getParent(), destino.getFileName().toString(), ".tmp");
+            Files.writeString(temporal, registro.scrape(), StandardCharsets.UTF_8);
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.logWarn("No se pudieron escribir las métricas en {}: {}", destino, e.getMessage());
+        }
+    }
+
+    // Un último volcado al cerrar, para no perder lo medido desde la escritura anterior
+    @PreDestroy
+    public synchronized void detener() {
+        if (programador == null) {
+            return;
+        }
+        programador.shutdownNow();
+        escribir();
+    }
+}
@@ -1,5 +1,7 @@
 package com.aluracursos.literatura.service;
 
+import java.util.stream.Stream;
+
 /**
  * La interfaz IConvierteDatos define un contrato para convertir datos desde un formato JSON
  * a una instancia de una clase específica.
@@ -19,4 +21,16 @@ public interface IConvierteDatos {
      */
     <T> T obtenerDatos(String json, Class<T> clase);
 
+    /**
+     * Método genérico para recorrer el arreglo "results" de una respuesta paginada sin construir
+     * el árbol JSON completo. Los elementos se convierten de uno en uno a medida que se consume el Stream,
+     * y los demás campos de la respuesta se saltan sin materializarlos.
+     *
+     * @param <T>    El tipo de objeto al que se va a convertir cada resultado.
+     * @param json   La cadena de texto en formato JSON con la respuesta paginada.
+     * @param clase  La clase del tipo al que se quiere convertir cada resultado.
+     * @return Un Stream perezoso con los resultados; debe cerrarse para liberar el parser.
+     */
+    <T> Stream<T> obtenerResultados(String json, Class<T> clase);
+
 }
@@ -0,0 +1,241 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.literatura.repository.LibroRepository;
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Importación desatendida de una lista de títulos: cada título pasa por la misma búsqueda y registro que la
+// opción 1 del menú, con hasta 'paralelismo' títulos en curso a la vez. Los títulos repetidos se procesan una vez.
+// La entrada tiene un título por línea o, en formato NDJSON, un objeto por línea con el campo "titulo" o "title".
+@Service
+public class ImportadorTitulos {
+
+    // Intervalo mínimo entre dos informes de progreso
+    private static final long INTERVALO_INFORME_NANOS = Duration.ofSeconds(5).toNanos();
+
+    public enum Estado {
+        REGISTRADO, YA_REGISTRADO, NO_ENCONTRADO, FALLIDO
+    }
+
+    // Resultado de un título: su estado, el título registrado (si lo hubo), el motivo del fallo y cuánto tardó
+    public record ResultadoTitulo(String titulo, Estado estado, String detalle, long nanos) {
+    }
+
+    private final LibroRepository libroRepository;
+    private final BusquedaLibrosApi busquedaLibrosApi;
+    private final RegistroLibroService registroLibroService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoggerBase logger;
+    // Máximo de títulos buscándose y registrándose a la vez
+    private final int paralelismo;
+
+    public ImportadorTitulos(LibroRepository libroRepository, BusquedaLibrosApi busquedaLibrosApi,
+                             RegistroLibroService registroLibroService,
+                             @Value("${literatura.lote.paralelismo:8}") int paralelismo) {
+        this.libroRepository = libroRepository;
+        this.busquedaLibrosApi = busquedaLibrosApi;
+        this.registroLibroService = registroLibroService;
+        this.paralelismo = paralelismo;
+        this.logger = new LoggerBaseImpl(ImportadorTitulos.class.getName());
+    }
+
+    // Lee los títulos del archivo indicado, o de la entrada estándar si la ruta es "-"
+    public ResumenImportacion importar(String origen) {
+        try (BufferedReader lector = "-".equals(origen)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(origen), StandardCharsets.UTF_8)) {
+            return importar(lector);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la lista de títulos " + origen, e);
+        }
+    }
+
+    public ResumenImportacion importar(BufferedReader lector) throws IOException {
+        long inicio = System.nanoTime();
+        Map<String, String> titulos = new LinkedHashMap<>(); // Clave normalizada -> primer título con esa clave
+        int leidos = 0;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            String titulo = leerTitulo(linea);
+            if (titulo == null) {
+                continue;
+            }
+            leidos++;
+            titulos.putIfAbsent(clave(titulo), titulo);
+        }
+        logger.logInfo("Importando {} títulos ({} repetidos omitidos) con {} en paralelo...", titulos.size(), leidos - titulos.size(), paralelismo);
+
+        Set<Integer> registradosEnEstaImportacion = ConcurrentHashMap.newKeySet(); // Ids de Gutenberg: títulos distintos pueden llevar al mismo libro
+        Semaphore ventana = new Semaphore(paralelismo);
+        List<Future<ResultadoTitulo>> futuros = new ArrayList<>(titulos.size());
+        // El progreso lo informan las tareas al terminar, porque el envío queda bloqueado por la ventana hasta casi el final
+        AtomicInteger terminados = new AtomicInteger();
+        AtomicLong ultimoInforme = new AtomicLong(System.nanoTime());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String titulo : titulos.values()) {
+                ventana.acquireUninterruptibly(); // Acotar los títulos en curso
+                futuros.add(executor.submit(() -> {
+                    try {
+                        return procesar(titulo, registradosEnEstaImportacion);
+                    } finally {
+                        ventana.release();
+                        informarProgreso(terminados.incrementAndGet(), titulos.size(), ultimoInforme);
+                    }
+                }));
+            }
+            List<ResultadoTitulo> resultados = new ArrayList<>(futuros.size());
+            for (Future<ResultadoTitulo> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return new ResumenImportacion(leidos, leidos - titulos.size(), resultados, Duration.ofNanos(System.nanoTime() - inicio));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restablecer el estado de interrupción
+            throw new IllegalStateException("La importación fue interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error inesperado al importar un título", e.getCause()); // procesar no deja escapar excepciones
+        }
+    }
+
+    // Informa cuántos títulos terminaron, como mucho una vez por intervalo aunque terminen varios a la vez
+    private void informarProgreso(int terminados, int total, AtomicLong ultimoInforme) {
+        long ahora = System.nanoTime();
+        long anterior = ultimoInforme.get();
+        if (ahora - anterior >= INTERVALO_INFORME_NANOS && ultimoInforme.compareAndSet(anterior, ahora)) {
+            logger.logInfo("Progreso: {} de {} títulos", terminados, total);
+        }
+    }
+
+    // Busca y registra un único título (POST /api/libros)
+    public ResultadoTitulo procesar(String titulo) {
+        return procesar(titulo.strip(), ConcurrentHashMap.newKeySet());
+    }
+
+    // Busca el título en la base y en la API y registra el primer resultado; nunca lanza excepciones
+    private ResultadoTitulo procesar(String titulo, Set<Integer> registradosEnEstaImportacion) {
+        long inicio = System.nanoTime();
+        try {
+            if (libroRepository.findByTituloLibro(titulo).isPresent()) {
+                return new ResultadoTitulo(titulo, Estado.YA_REGISTRADO, null, System.nanoTime() - inicio);
+            }
+            DatosLibro datosLibro = busquedaLibrosApi.buscar(titulo).orElse(null);
+            if (datosLibro == null || !registroLibroService.esRegistrable(datosLibro)) {
+                return new ResultadoTitulo(titulo, Estado.NO_ENCONTRADO, null, System.nanoTime() - inicio);
+            }
+            // El resultado puede tener otro título; si otro proceso lo registra a la vez, la inserción no hace nada
+            if (!registradosEnEstaImportacion.add(datosLibro.gutenbergId())
+                    || registroLibroService.registrarLote(List.of(datosLibro)) == 0) {
+                return new ResultadoTitulo(titulo, Estado.YA_REGISTRADO, datosLibro.titulo(), System.nanoTime() - inicio);
+            }
+            return new ResultadoTitulo(titulo, Estado.REGISTRADO, datosLibro.titulo(), System.nanoTime() - inicio);
+        } catch (RuntimeException e) {
+            return new ResultadoTitulo(titulo, Estado.FALLIDO, e.getMessage(), System.nanoTime() - inicio);
+        }
+    }
+
+    // Devuelve el título de la línea, o null si la línea está vacía o no tiene título
+    private String leerTitulo(String linea) {
+        String texto = linea.strip();
+        if (texto.isEmpty()) {
+            return null;
+        }
+        if (texto.charAt(0) != '{') { // Un título por línea
+            return texto;
+        }
+        try {
+            JsonNode objeto = objectMapper.readTree(texto);
+            JsonNode titulo = objeto.hasNonNull("titulo") ? objeto.get("titulo") : objeto.get("title");
+            return titulo == null || titulo.asText().isBlank() ? null : titulo.asText().strip();
+        } catch (IOException e) {
+            logger.logWarn("Línea NDJSON inválida, se omite: {}", texto);
+            return null;
+        }
+    }
+
+    // Los títulos que solo difieren en mayúsculas o espacios se consideran repetidos
+    private static String clave(String titulo) {
+        return String.join(" ", titulo.strip().split("\\s+")).toLowerCase(Locale.ROOT);
+    }
+
+    public record ResumenImportacion(int leidos, int repetidos, List<ResultadoTitulo> resultados, Duration duracion) {
+
+        public long cantidad(Estado estado) {
+            return resultados.stream().filter(resultado -> resultado.estado() == estado).count();
+        }
+
+        public List<ResultadoTitulo> conEstado(Estado estado) {
+            return resultados.stream().filter(resultado -> resultado.estado() == estado).toList();
+        }
+
+        // Percentil (por rango más cercano) del tiempo de cada título, en milisegundos
+        public double percentilMilis(double percentil) {
+            if (resultados.isEmpty()) {
+                return 0;
+            }
+            long[] tiempos = resultados.stream().mapToLong(ResultadoTitulo::nanos).toArray();
+            Arrays.sort(tiempos);
+            int indice = (int) Math.ceil(percentil / 100 * tiempos.length) - 1;
+            return tiempos[Math.max(indice, 0)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            double segundos = Math.max(duracion.toMillis(), 1) / 1000.0;
+            return "%d títulos leídos (%d repetidos): %d registrados, %d ya registrados, %d no encontrados, %d fallidos en %.1f s (%.1f títulos/s; por título p50 %.0f ms, p95 %.0f ms, máx %.0f ms)"
+                    .formatted(leidos, repetidos, cantidad(Estado.REGISTRADO), cantidad(Estado.YA_REGISTRADO),
+                            cantidad(Estado.NO_ENCONTRADO), cantidad(Estado.FALLIDO), segundos, resultados.size() / segundos,
+                            percentilMilis(50), percentilMilis(95), percentilMilis(100));
+        }
+
+        // Informe completo: el resumen y, para reintentar o revisar, los títulos no encontrados y los fallidos
+        public String informe() {
+            StringBuilder texto = new StringBuilder("Importación de títulos").append(System.lineSeparator())
+                    .append(this).append(System.lineSeparator());
+            agregarSeccion(texto, "No encontrados", conEstado(Estado.NO_ENCONTRADO));
+            agregarSeccion(texto, "Fallidos", conEstado(Estado.FALLIDO));
+            return texto.toString();
+        }
+
+        private static void agregarSeccion(StringBuilder texto, String nombre, List<ResultadoTitulo> resultados) {
+            if (resultados.isEmpty()) {
+                return;
+            }
+            texto.append(System.lineSeparator()).append(nombre).append(" (").append(resultados.size()).append("):").append(System.lineSeparator());
+            for (ResultadoTitulo resultado : resultados) {
+                texto.append(resultado.titulo());
+                if (resultado.detalle() != null) {
+                    texto.append('\t').append(resultado.detalle());
+                }
+                texto.append(System.lineSeparator());
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.LibroIndexado;
+import com.aluracursos.literatura.model.LibroResumen;
+import com.aluracursos.literatura.repository.LibroRepository;
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice invertido en memoria sobre los títulos y autores de los libros registrados.
+// Cada término (sin acentos y en minúsculas) apunta a los ids de los libros que lo contienen; los términos
+// se guardan ordenados para resolver búsquedas por prefijo con un rango del TreeMap.
+@Service
+public class IndiceBusqueda {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    // Los términos de una letra aparecen en casi todos los libros y no ayudan a filtrar
+    private static final int LONGITUD_MINIMA_TERMINO = 2;
+    // Libros que se leen de la base en cada consulta al construir el índice
+    private static final int LIBROS_POR_CONSULTA = 1_000;
+    // Puntos por término de la consulta: coincidencia exacta o solo por prefijo
+    private static final int PUNTOS_EXACTO = 2;
+    private static final int PUNTOS_PREFIJO = 1;
+
+    private final LibroRepository libroRepository;
+    private final LoggerBase logger;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Set<Long>> librosPorTermino = new TreeMap<>();
+    private final Map<Long, LibroIndexado> libros = new HashMap<>();
+    // Términos de cada libro, para comprobar los candidatos sin volver a normalizar su texto
+    private final Map<Long, String[]> terminosPorLibro = new HashMap<>();
+
+    public IndiceBusqueda(LibroRepository libroRepository) {
+        this.libroRepository = libroRepository;
+        this.logger = new LoggerBaseImpl(IndiceBusqueda.class.getName());
+    }
+
+    // Construye el índice con los libros registrados en la base (ver InstantaneaService.cargarCatalogo)
+    public void construir() {
+        long inicio = System.nanoTime();
+        long ultimoId = 0;
+        List<LibroResumen> pagina;
+        do {
+            pagina = libroRepository.findLibrosResumen(ultimoId, PageRequest.of(0, LIBROS_POR_CONSULTA)); // Recorrido por cursor, sin OFFSET
+            agregar(pagina.stream().map(LibroIndexado::desde).toList());
+            if (!pagina.isEmpty()) {
+                ultimoId = pagina.get(pagina.size() - 1).getId();
+            }
+        } while (pagina.size() == LIBROS_POR_CONSULTA);
+        logger.logInfo("Índice de búsqueda construido: {} libros, {} términos en {} ms",
+                cantidadLibros(), cantidadTerminos(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    // Construye el índice con libros ya leídos, por ejemplo de una InstantaneaCatalogo
+    public void construir(Collection<LibroIndexado> registrados) {
+        long inicio = System.nanoTime();
+        agregar(registrados);
+        logger.logInfo("Índice de búsqueda construido: {} libros, {} términos en {} ms",
+                cantidadLibros(), cantidadTerminos(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public void agregar(Collection<LibroIndexado> nuevos) {
+        lock.writeLock().lock();
+        try {
+            for (LibroIndexado libro : nuevos) {
+                if (libros.put(libro.id(), libro) != null) {
+                    continue; // Ya estaba indexado (por ejemplo, guardado durante la construcción)
+                }
+                Set<String> propios = terminos(libro.titulo() + " " + libro.autores());
+                String[] compartidos = new String[propios.size()];
+                int i = 0;
+                for (String termino : propios) {
+                    Set<Long> ids = librosPorTermino.computeIfAbsent(termino, t -> new HashSet<>());
+                    ids.add(libro.id());
+                    compartidos[i++] = librosPorTermino.ceilingKey(termino); // Misma instancia que la clave del diccionario
+                }
+                terminosPorLibro.put(libro.id(), compartidos);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Devuelve hasta 'limite' libros cuyo título o autores contienen todos los términos de la consulta,
+    // completos o como prefijo. Primero los que tienen más coincidencias exactas y luego los más descargados.
+    public List<LibroIndexado> buscar(String consulta, int limite) {
+        Set<String> terminosConsulta = terminos(consulta);
+        if (terminosConsulta.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            // Se empieza por el término más selectivo: sus libros son los únicos candidatos posibles
+            List<Map.Entry<String, Integer>> porSelectividad = new ArrayList<>();
+            for (String termino : terminosConsulta) {
+                porSelectividad.add(Map.entry(termino, contarLibros(termino)));
+            }
+            porSelectividad.sort(Map.Entry.comparingByValue());
+
+            Map<Long, Integer> puntuaciones = new HashMap<>();
+            String masSelectivo = porSelectividad.get(0).getKey();
+            rangoPrefijo(masSelectivo).forEach((indexado, ids) -> {
+                int puntos = puntos(indexado, masSelectivo);
+                ids.forEach(id -> puntuaciones.merge(id, puntos, Math::max));
+            });
+
+            // El resto de los términos se comprueba sobre los términos de cada candidato, sin recorrer sus listas
+            for (Map.Entry<String, Integer> siguiente : porSelectividad.subList(1, porSelectividad.size())) {
+                if (puntuaciones.isEmpty()) {
+                    break;
+                }
+                String termino = siguiente.getKey();
+                puntuaciones.entrySet().removeIf(candidato -> {
+                    int puntos = 0;
+                    for (String propio : terminosPorLibro.get(candidato.getKey())) {
+                        if (propio.startsWith(termino)) {
+                            puntos = Math.max(puntos, puntos(propio, termino));
+                        }
+                    }
+                    candidato.setValue(candidato.getValue() + puntos);
+                    return puntos == 0;
+                });
+            }
+
+            Comparator<LibroIndexado> orden = Comparator.comparingInt((LibroIndexado libro) -> puntuaciones.get(libro.id())).reversed()
+                    .thenComparing(Comparator.comparingInt(LibroIndexado::numeroDescargas).reversed());
+            return puntuaciones.keySet().stream()
+                    .map(libros::get)
+                    .sorted(orden)
+                    .limit(limite)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int cantidadLibros() {
+        lock.readLock().lock();
+        try {
+            return libros.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int cantidadTerminos() {
+        lock.readLock().lock();
+        try {
+            return librosPorTermino.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Términos del índice que empiezan por el término dado (incluido él mismo)
+    private SortedMap<String, Set<Long>> rangoPrefijo(String termino) {
+        return librosPorTermino.subMap(termino, termino + Character.MAX_VALUE);
+    }
+
+    // Cantidad aproximada de libros que contienen el término o un término que empieza por él
+    private int contarLibros(String termino) {
+        int cantidad = 0;
+        for (Set<Long> ids : rangoPrefijo(termino).values()) {
+            cantidad += ids.size();
+        }
+        return cantidad;
+    }
+
+    private static int puntos(String indexado, String termino) {
+        return indexado.equals(termino) ? PUNTOS_EXACTO : PUNTOS_PREFIJO;
+    }
+
+    // Separa el texto en términos sin acentos y en minúsculas: "Cervantes Saavedra, Miguel de" -> cervantes, saavedra, miguel, de
+    static Set<String> terminos(String texto) {
+        if (texto == null) {
+            return Set.of();
+        }
+        String normalizado = esAscii(texto) ? texto // La mayoría de los títulos no tiene acentos: se evita Normalizer
+                : MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        Set<String> terminos = new HashSet<>();
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean parteDeTermino = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (parteDeTermino && inicio < 0) {
+                inicio = i;
+            } else if (!parteDeTermino && inicio >= 0) {
+                if (i - inicio >= LONGITUD_MINIMA_TERMINO) {
+                    terminos.add(normalizado.substring(inicio, i).toLowerCase(Locale.ROOT));
+                }
+                inicio = -1;
+            }
+        }
+        return terminos;
+    }
+
+    private static boolean esAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,393 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosAutor;
+import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.literatura.model.Languages;
+import com.aluracursos.literatura.model.LibroIndexado;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+// Instantánea binaria del catálogo (libros, autores y autorías) que se lee mapeada en memoria: cada valor está
+// en una posición calculable a partir de las cantidades de la cabecera, así que abrirla no recorre los registros
+// y leer un libro es leer unas pocas columnas. Formato (enteros big-endian):
+// - Cabecera de 48 bytes: MAGIA, VERSION, cantidades de libros, autores y autorías, huella de la base exportada,
+//   fecha de creación, CRC32C del cuerpo y CRC32C de la propia cabecera.
+// - Columnas: id de los libros (long), id de los autores (long), id de Gutenberg (int, 0 si no tiene),
+//   descargas, máscara de idiomas, posición del título, primera autoría de cada libro (L + 1 valores: los autores
+//   del libro i son autorias[primera[i]..primera[i + 1]), índice del autor de cada autoría, años de nacimiento
+//   y fallecimiento (SIN_ANIO si no se conocen) y posición del nombre de cada autor.
+// - Textos: longitud (int) seguida de los bytes UTF-8. Todo el archivo debe medir menos de 2 GB.
+public final class InstantaneaCatalogo {
+
+    static final int MAGIA = 0x4C434154; // "LCAT"
+    static final short VERSION = 1;
+    static final int TAMANIO_CABECERA = 48;
+    static final int SIN_ANIO = Integer.MIN_VALUE;
+
+    private final Path archivo;
+    private final ByteBuffer datos;
+    private final int libros;
+    private final int autores;
+    private final int autorias;
+    private final long huella;
+    private final long creadaEn;
+
+    // Posición de cada columna en el archivo
+    private final int idsLibros;
+    private final int idsAutores;
+    private final int idsGutenberg;
+    private final int descargas;
+    private final int idiomas;
+    private final int titulos;
+    private final int primeraAutoria;
+    private final int autoriasLibros;
+    private final int nacimientos;
+    private final int fallecimientos;
+    private final int nombres;
+    private final int textos;
+
+    // Nombres de los autores ya decodificados: se repiten en muchos libros
+    private String[] nombresDecodificados;
+
+    private InstantaneaCatalogo(Path archivo, ByteBuffer datos) throws IOException {
+        this.archivo = archivo;
+        this.datos = datos;
+        if (datos.capacity() < TAMANIO_CABECERA || datos.getInt(0) != MAGIA) {
+            throw invalida("no es una instantánea del catálogo");
+        }
+        if (datos.getShort(4) != VERSION) {
+            throw invalida("versión " + datos.getShort(4) + " no soportada (se esperaba " + VERSION + ")");
+        }
+        CRC32C crcCabecera = new CRC32C();
+        crcCabecera.update(datos.slice(0, TAMANIO_CABECERA - Integer.BYTES));
+        if ((int) crcCabecera.getValue() != datos.getInt(44)) {
+            throw invalida("la suma de verificación de la cabecera no coincide");
+        }
+        this.libros = datos.getInt(8);
+        this.autores = datos.getInt(12);
+        this.autorias = datos.getInt(16);
+        this.huella = datos.getLong(24);
+        this.creadaEn = datos.getLong(32);
+        long columnas = (long) Long.BYTES * (libros + autores) + (long) Integer.BYTES * (5L * libros + 1 + autorias + 3L * autores);
+        if (libros < 0 || autores < 0 || autorias < 0 || TAMANIO_CABECERA + columnas > datos.capacity()) {
+            throw invalida("las cantidades de la cabecera no corresponden al tamaño del archivo");
+        }
+
+        this.idsLibros = TAMANIO_CABECERA;
+        this.idsAutores = idsLibros + Long.BYTES * libros;
+        this.idsGutenberg = idsAutores + Long.BYTES * autores;
+        this.descargas = idsGutenberg + Integer.BYTES * libros;
+        this.idiomas = descargas + Integer.BYTES * libros;
+        this.titulos = idiomas + Integer.BYTES * libros;
+        this.primeraAutoria = titulos + Integer.BYTES * libros;
+        this.autoriasLibros = primeraAutoria + Integer.BYTES * (libros + 1);
+        this.nacimientos = autoriasLibros + Integer.BYTES * autorias;
+        this.fallecimientos = nacimientos + Integer.BYTES * autores;
+        this.nombres = fallecimientos + Integer.BYTES * autores;
+        this.textos = nombres + Integer.BYTES * autores;
+
+        CRC32C crcCuerpo = new CRC32C();
+        crcCuerpo.update(datos.slice(TAMANIO_CABECERA, datos.capacity() - TAMANIO_CABECERA));
+        if ((int) crcCuerpo.getValue() != datos.getInt(40)) {
+            throw invalida("la suma de verificación de los datos no coincide");
+        }
+    }
+
+    // Mapea el archivo en memoria y verifica su formato y sus sumas de verificación
+    public static InstantaneaCatalogo abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Instantánea inválida (" + archivo + "): supera los 2 GB");
+            }
+            MappedByteBuffer mapeado = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()); // Sigue válido al cerrar el canal
+            return new InstantaneaCatalogo(archivo, mapeado);
+        }
+    }
+
+    public int cantidadLibros() {
+        return libros;
+    }
+
+    public int cantidadAutores() {
+        return autores;
+    }
+
+    public int cantidadAutorias() {
+        return autorias;
+    }
+
+    // Huella de la base de datos en el momento de la exportación (ver InstantaneaService)
+    public long huella() {
+        return huella;
+    }
+
+    public long creadaEn() {
+        return creadaEn;
+    }
+
+    public long tamanio() {
+        return datos.capacity();
+    }
+
+    public long idLibro(int libro) {
+        return datos.getLong(idsLibros + Long.BYTES * libro);
+    }
+
+    // null si el libro se registró antes de guardar los ids de Gutenberg
+    public Integer gutenbergId(int libro) {
+        int id = datos.getInt(idsGutenberg + Integer.BYTES * libro);
+        return id == 0 ? null : id;
+    }
+
+    public String titulo(int libro) {
+        return texto(datos.getInt(titulos + Integer.BYTES * libro));
+    }
+
+    public int numeroDescargas(int libro) {
+        return datos.getInt(descargas + Integer.BYTES * libro);
+    }
+
+    public int mascaraIdiomas(int libro) {
+        return datos.getInt(idiomas + Integer.BYTES * libro);
+    }
+
+    // Índices (0..cantidadAutores) de los autores del libro, ordenados por nombre
+    public int[] autoresDe(int libro) {
+        int desde = datos.getInt(primeraAutoria + Integer.BYTES * libro);
+        int hasta = datos.getInt(primeraAutoria + Integer.BYTES * (libro + 1));
+        int[] indices = new int[hasta - desde];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = datos.getInt(autoriasLibros + Integer.BYTES * (desde + i));
+        }
+        return indices;
+    }
+
+    public long idAutor(int autor) {
+        return datos.getLong(idsAutores + Long.BYTES * autor);
+    }
+
+    public synchronized String nombreAutor(int autor) {
+        if (nombresDecodificados == null) {
+            nombresDecodificados = new String[autores];
+        }
+        String nombre = nombresDecodificados[autor];
+        if (nombre == null) {
+            nombre = texto(datos.getInt(nombres + Integer.BYTES * autor));
+            nombresDecodificados[autor] = nombre;
+        }
+        return nombre;
+    }
+
+    public Integer anioNacimiento(int autor) {
+        return anio(datos.getInt(nacimientos + Integer.BYTES * autor));
+    }
+
+    public Integer anioFallecimiento(int autor) {
+        return anio(datos.getInt(fallecimientos + Integer.BYTES * autor));
+    }
+
+    // El libro como lo guardan el índice de búsqueda y el ranking
+    public LibroIndexado libroIndexado(int libro) {
+        int[] indices = autoresDe(libro);
+        StringBuilder nombresAutores = new StringBuilder();
+        for (int indice : indices) {
+            if (!nombresAutores.isEmpty()) {
+                nombresAutores.append(", ");
+            }
+            nombresAutores.append(nombreAutor(indice));
+        }
+        return new LibroIndexado(idLibro(libro), titulo(libro), nombresAutores.toString(), mascaraIdiomas(libro), numeroDescargas(libro));
+    }
+
+    public List<LibroIndexado> librosIndexados() {
+        List<LibroIndexado> indexados = new ArrayList<>(libros);
+        for (int libro = 0; libro < libros; libro++) {
+            indexados.add(libroIndexado(libro));
+        }
+        return indexados;
+    }
+
+    // El libro como lo devuelve la API, para registrarlo en otra base
+    public DatosLibro datosLibro(int libro) {
+        List<DatosAutor> datosAutores = new ArrayList<>();
+        for (int indice : autoresDe(libro)) {
+            datosAutores.add(new DatosAutor(nombreAutor(indice), anioNacimiento(indice), anioFallecimiento(indice)));
+        }
+        List<String> codigos = Languages.desdeMascara(mascaraIdiomas(libro)).stream()
+                .map(idioma -> idioma.name().toLowerCase(Locale.ROOT))
+                .toList();
+        return new DatosLibro(gutenbergId(libro), titulo(libro), datosAutores, codigos, numeroDescargas(libro));
+    }
+
+    @Override
+    public String toString() {
+        return "InstantaneaCatalogo{archivo=" + archivo + ", libros=" + libros + ", autores=" + autores
+                + ", autorias=" + autorias + ", bytes=" + datos.capacity() + "}";
+    }
+
+    private String texto(int posicion) {
+        int longitud = datos.getInt(textos + posicion);
+        byte[] bytes = new byte[longitud];
+        datos.get(textos + posicion + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Integer anio(int valor) {
+        return valor == SIN_ANIO ? null : valor;
+    }
+
+    private IOException invalida(String motivo) {
+        return new IOException("Instantánea inválida (" + archivo + "): " + motivo);
+    }
+
+    // Arma una instantánea en memoria, columna por columna, y la escribe de una vez. Los autores se agregan
+    // antes que los libros que los referencian, mediante el índice que devuelve agregarAutor.
+    public static final class Escritor {
+
+        private final Columna idsLibros = new Columna(true);
+        private final Columna idsAutores = new Columna(true);
+        private final Columna idsGutenberg = new Columna(false);
+        private final Columna descargas = new Columna(false);
+        private final Columna idiomas = new Columna(false);
+        private final Columna titulos = new Columna(false);
+        private final Columna primeraAutoria = new Columna(false);
+        private final Columna autorias = new Columna(false);
+        private final Columna nacimientos = new Columna(false);
+        private final Columna fallecimientos = new Columna(false);
+        private final Columna nombres = new Columna(false);
+        private final ByteArrayOutputStream textos = new ByteArrayOutputStream();
+
+        public Escritor() {
+            primeraAutoria.agregar(0);
+        }
+
+        public int agregarAutor(long id, String nombre, Integer anioNacimiento, Integer anioFallecimiento) {
+            idsAutores.agregar(id);
+            nacimientos.agregar(anioNacimiento == null ? SIN_ANIO : anioNacimiento);
+            fallecimientos.agregar(anioFallecimiento == null ? SIN_ANIO : anioFallecimiento);
+            nombres.agregar(agregarTexto(nombre));
+            return idsAutores.tamanio - 1;
+        }
+
+        // Índice del autor con ese id; requiere que los autores se hayan agregado en orden de id
+        public int indiceAutor(long id) {
+            int indice = Arrays.binarySearch(idsAutores.valores, 0, idsAutores.tamanio, id);
+            if (indice < 0) {
+                throw new IllegalArgumentException("Autor inexistente en la instantánea: " + id);
+            }
+            return indice;
+        }
+
+        // 'autores' son índices devueltos por agregarAutor, en el orden en que se mostrarán
+        public void agregarLibro(long id, Integer gutenbergId, String titulo, int numeroDescargas, int mascaraIdiomas, int[] autores) {
+            idsLibros.agregar(id);
+            idsGutenberg.agregar(gutenbergId == null ? 0 : gutenbergId);
+            descargas.agregar(numeroDescargas);
+            idiomas.agregar(mascaraIdiomas);
+            titulos.agregar(agregarTexto(titulo));
+            for (int autor : autores) {
+                if (autor < 0 || autor >= idsAutores.tamanio) {
+                    throw new IllegalArgumentException("Autor inexistente en la instantánea: " + autor);
+                }
+                autorias.agregar(autor);
+            }
+            primeraAutoria.agregar(autorias.tamanio);
+        }
+
+        // Escribe en un archivo temporal y lo renombra, para no dejar nunca una instantánea a medias
+        public void escribir(Path destino, long huella) throws IOException {
+            Path directorio = destino.toAbsolutePath().getParent();
+            Files.createDirectories(directorio);
+            Path temporal = Files.createTempFile(directorio, destino.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                    canal.position(TAMANIO_CABECERA);
+                    CRC32C crcCuerpo = new CRC32C();
+                    DataOutputStream salida = new DataOutputStream(new CheckedOutputStream(
+                            new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16), crcCuerpo));
+                    for (Columna columna : List.of(idsLibros, idsAutores, idsGutenberg, descargas, idiomas, titulos,
+                            primeraAutoria, autorias, nacimientos, fallecimientos, nombres)) {
+                        columna.escribir(salida);
+                    }
+                    textos.writeTo(salida);
+                    salida.flush();
+                    if (canal.size() > Integer.MAX_VALUE) {
+                        throw new IOException("La instantánea supera los 2 GB");
+                    }
+
+                    ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+                    cabecera.putInt(MAGIA).putShort(VERSION).putShort((short) 0)
+                            .putInt(idsLibros.tamanio).putInt(idsAutores.tamanio).putInt(autorias.tamanio).putInt(0)
+                            .putLong(huella).putLong(System.currentTimeMillis())
+                            .putInt((int) crcCuerpo.getValue());
+                    CRC32C crcCabecera = new CRC32C();
+                    crcCabecera.update(cabecera.array(), 0, cabecera.position());
+                    cabecera.putInt((int) crcCabecera.getValue()).flip();
+                    canal.write(cabecera, 0);
+                    canal.force(true);
+                }
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+        }
+
+        private int agregarTexto(String texto) {
+            byte[] bytes = (texto == null ? "" : texto).getBytes(StandardCharsets.UTF_8);
+            int posicion = textos.size();
+            textos.write(bytes.length >>> 24);
+            textos.write(bytes.length >>> 16);
+            textos.write(bytes.length >>> 8);
+            textos.write(bytes.length);
+            textos.writeBytes(bytes);
+            return posicion;
+        }
+    }
+
+    // Columna de enteros (int o long) que crece sin encajonar los valores
+    private static final class Columna {
+
+        private final boolean larga;
+        private long[] valores = new long[1024];
+        private int tamanio;
+
+        Columna(boolean larga) {
+            this.larga = larga;
+        }
+
+        void agregar(long valor) {
+            if (tamanio == valores.length) {
+                valores = Arrays.copyOf(valores, tamanio * 2);
+            }
+            valores[tamanio++] = valor;
+        }
+
+        void escribir(DataOutputStream salida) throws IOException {
+            for (int i = 0; i < tamanio; i++) {
+                if (larga) {
+                    salida.writeLong(valores[i]);
+                } else {
+                    salida.writeInt((int) valores[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.literatura.model.LibroIndexado;
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Exporta el catálogo de la base a una InstantaneaCatalogo y la usa para arrancar en caliente: si la instantánea
+// corresponde a la base actual, el índice de búsqueda y el ranking se cargan desde el archivo mapeado en lugar de
+// consultar todos los libros. También sirve de semilla para registrar el catálogo en otra base.
+@Service
+public class InstantaneaService {
+
+    // Resumen barato de la base (un recorrido de libros, sin uniones) que cambia con las altas, las descargas,
+    // los idiomas, los ids de Gutenberg asignados a libros antiguos, las autorías y los autores.
+    // No detecta cambios hechos a mano en títulos o nombres.
+    private static final String HUELLA = """
+            SELECT count(*), coalesce(max(id), 0), coalesce(sum(numero_descargas::bigint), 0),
+                   coalesce(sum(idiomas::bigint * (id % 1000003)), 0), coalesce(sum(gutenberg_id::bigint), 0),
+                   (SELECT count(*) FROM libro_autor),
+                   (SELECT count(*) FROM autores),
+                   (SELECT coalesce(max(id), 0) FROM autores)
+            FROM libros
+            """;
+
+    private static final String AUTORES = "SELECT id, nombre, anio_nacimiento, anio_fallecimiento FROM autores ORDER BY id";
+
+    // Los autores de cada libro en el mismo orden que los listados (LibroRepository.COLUMNAS_RESUMEN)
+    private static final String LIBROS = """
+            SELECT l.id, l.gutenberg_id, l.titulo, l.numero_descargas, l.idiomas,
+                   (SELECT array_agg(a.id ORDER BY a.nombre)
+                    FROM libro_autor la JOIN autores a ON a.id = la.autor_id
+                    WHERE la.libro_id = l.id) AS autores
+            FROM libros l
+            ORDER BY l.id
+            """;
+
+    // Filas que se piden por viaje a la base al exportar, para no cargar el resultado completo en memoria
+    private static final int FILAS_POR_LECTURA = 1_000;
+
+    private final IndiceBusqueda indiceBusqueda;
+    private final RankingDescargas rankingDescargas;
+    private final RegistroLibroService registroLibroService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate lecturaConsistente;
+    private final LoggerBase logger;
+    // Instantánea que se usa al arrancar y se reescribe si está desactualizada; vacío para no usarla
+    private final String archivo;
+    // Cantidad de libros que se registran en cada transacción al importar una instantánea
+    private final int tamanioLote;
+    // Exportación que se lanzó al arrancar, si la hay
+    private volatile Thread exportacion;
+
+    public InstantaneaService(IndiceBusqueda indiceBusqueda, RankingDescargas rankingDescargas,
+                              RegistroLibroService registroLibroService, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${literatura.instantanea.archivo:}") String archivo,
+                              @Value("${literatura.ingesta.libros-por-transaccion:500}") int tamanioLote) {
+        this.indiceBusqueda = indiceBusqueda;
+        this.rankingDescargas = rankingDescargas;
+        this.registroLibroService = registroLibroService;
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FILAS_POR_LECTURA); // Con una transacción abierta, PostgreSQL entrega el resultado por partes
+        // La huella y los datos se leen de la misma foto de la base aunque otros procesos registren libros
+        this.lecturaConsistente = new TransactionTemplate(transactionManager);
+        this.lecturaConsistente.setReadOnly(true);
+        this.lecturaConsistente.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.archivo = archivo;
+        this.tamanioLote = tamanioLote;
+        this.logger = new LoggerBaseImpl(InstantaneaService.class.getName());
+    }
+
+    // Carga el índice de búsqueda y el ranking antes de que se muestre el menú: desde la instantánea si está
+    // al día o desde la base en caso contrario, y en ese caso la vuelve a escribir en segundo plano
+    @EventListener(ApplicationStartedEvent.class)
+    public void cargarCatalogo() {
+        Optional<InstantaneaCatalogo> instantanea = abrirVigente();
+        if (instantanea.isPresent()) {
+            long inicio = System.nanoTime();
+            List<LibroIndexado> libros = instantanea.get().librosIndexados();
+            indiceBusqueda.construir(libros);
+            rankingDescargas.construir(libros);
+            logger.logInfo("Catálogo cargado desde la instantánea {}: {} libros en {} ms",
+                    archivo, libros.size(), (System.nanoTime() - inicio) / 1_000_000);
+            return;
+        }
+        indiceBusqueda.construir();
+        rankingDescargas.construir();
+        if (!archivo.isBlank()) {
+            exportacion = Thread.ofVirtual().name("instantanea-catalogo").start(() -> {
+                try {
+                    exportar(Path.of(archivo));
+                } catch (IOException | RuntimeException e) {
+                    logger.logWarn("No se pudo escribir la instantánea del catálogo {}: {}", archivo, e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Deja terminar la exportación en curso antes de que se cierre la conexión a la base, para que
+    // la próxima ejecución arranque desde la instantánea aunque esta haya durado poco
+    @PreDestroy
+    public void esperarExportacion() {
+        Thread enCurso = exportacion;
+        if (enCurso == null) {
+            return;
+        }
+        try {
+            enCurso.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restablecer el estado de interrupción
+        }
+    }
+
+    // Escribe una instantánea con todos los libros, autores y autorías de la base
+    public InstantaneaCatalogo exportar(Path destino) throws IOException {
+        long inicio = System.nanoTime();
+        try {
+            lecturaConsistente.executeWithoutResult(estado -> {
+                InstantaneaCatalogo.Escritor escritor = new InstantaneaCatalogo.Escritor();
+                long huella = huella();
+                jdbcTemplate.query(AUTORES, fila -> {
+                    escritor.agregarAutor(fila.getLong(1), fila.getString(2),
+                            fila.getObject(3, Integer.class), fila.getObject(4, Integer.class));
+                });
+                jdbcTemplate.query(LIBROS, fila -> {
+                    Array arreglo = fila.getArray(6);
+                    Long[] idsAutores = arreglo == null ? new Long[0] : (Long[]) arreglo.getArray();
+                    int[] autores = new int[idsAutores.length];
+                    for (int i = 0; i < autores.length; i++) {
+                        autores[i] = escritor.indiceAutor(idsAutores[i]);
+                    }
+                    escritor.agregarLibro(fila.getLong(1), fila.getObject(2, Integer.class), fila.getString(3),
+                            fila.getInt(4), fila.getInt(5), autores);
+                });
+                try {
+                    escritor.escribir(destino, huella);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        InstantaneaCatalogo escrita = InstantaneaCatalogo.abrir(destino); // Verificar lo que quedó en el disco
+        logger.logInfo("Instantánea exportada en {} ms: {}", (System.nanoTime() - inicio) / 1_000_000, escrita);
+        return escrita;
+    }
+
+    // Registra en la base los libros de la instantánea, por lotes y sin duplicar los que ya existen.
+    // Los libros sin id de Gutenberg no se pueden identificar en otra base y se omiten.
+    public int importar(Path origen) throws IOException {
+        InstantaneaCatalogo instantanea = InstantaneaCatalogo.abrir(origen);
+        int registrados = 0;
+        int sinId = 0;
+        List<DatosLibro> lote = new ArrayList<>(tamanioLote);
+        for (int libro = 0; libro < instantanea.cantidadLibros(); libro++) {
+            DatosLibro datosLibro = instantanea.datosLibro(libro);
+            if (datosLibro.gutenbergId() == null) {
+                sinId++;
+                continue;
+            }
+            lote.add(datosLibro);
+            if (lote.size() == tamanioLote) {
+                registrados += registroLibroService.registrarLote(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            registrados += registroLibroService.registrarLote(lote);
+        }
+        logger.logInfo("Instantánea {} importada: {} libros nuevos de {} ({} sin id de Gutenberg omitidos)",
+                origen, registrados, instantanea.cantidadLibros(), sinId);
+        return registrados;
+    }
+
+    // La instantánea configurada, si existe, es válida y corresponde a la base actual
+    private Optional<InstantaneaCatalogo> abrirVigente() {
+        if (archivo.isBlank() || !Files.isRegularFile(Path.of(archivo))) {
+            return Optional.empty();
+        }
+        try {
+            InstantaneaCatalogo instantanea = InstantaneaCatalogo.abrir(Path.of(archivo));
+            if (instantanea.huella() != huella()) {
+                logger.logInfo("La instantánea {} no corresponde a la base actual; se carga desde la base", archivo);
+                return Optional.empty();
+            }
+            return Optional.of(instantanea);
+        } catch (IOException e) {
+            logger.logWarn("{}; se carga desde la base", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Visible en el paquete para las pruebas
+    long huella() {
+        return jdbcTemplate.query(HUELLA, fila -> {
+            fila.next();
+            long huella = 17;
+            for (int columna = 1; columna <= fila.getMetaData().getColumnCount(); columna++) {
+                huella = huella * 1_000_003 + fila.getLong(columna);
+            }
+            return huella;
+        });
+    }
+}
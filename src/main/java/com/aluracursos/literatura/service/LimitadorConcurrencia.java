@@ -0,0 +1,129 @@
+package com.aluracursos.literatura.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Acota las solicitudes a la API que están en vuelo a la vez con un límite que se ajusta solo (AIMD):
+// cada respuesta rápida y correcta lo sube de a una unidad y cada señal de congestión lo multiplica por 0,9.
+// Es congestión un error (429, 5xx, fallo de conexión) o una latencia mayor que 'tolerancia' veces la mínima
+// observada, que es la latencia del servidor sin cola. Se reduce como mucho una vez por latencia de respuesta,
+// así una misma ráfaga de respuestas lentas no lo hunde hasta el mínimo.
+@Component
+public class LimitadorConcurrencia {
+
+    private static final double FACTOR_REDUCCION = 0.9;
+    // La latencia mínima se olvida de a poco, por si el servidor se vuelve más lento de forma permanente
+    private static final double OLVIDO_LATENCIA_MINIMA = 0.001;
+
+    private final int minimo;
+    private final int maximo;
+    private final double tolerancia;
+    private final ReentrantLock lock = new ReentrantLock(true); // Justo: los que esperan entran en orden de llegada
+    private final Condition hayLugar = lock.newCondition();
+
+    private double limite;
+    private int enVuelo;
+    private double latenciaMinima = Double.NaN;
+    private long ultimaReduccion = System.nanoTime();
+
+    public LimitadorConcurrencia(@Value("${literatura.api.concurrencia-inicial:8}") int inicial,
+                                 @Value("${literatura.api.concurrencia-minima:1}") int minimo,
+                                 @Value("${literatura.api.concurrencia-maxima:64}") int maximo,
+                                 @Value("${literatura.api.tolerancia-latencia:2.0}") double tolerancia) {
+        this.minimo = Math.max(1, minimo);
+        this.maximo = Math.max(this.minimo, maximo);
+        this.tolerancia = tolerancia;
+        this.limite = Math.clamp(inicial, this.minimo, this.maximo);
+    }
+
+    // Límite que no cambia, útil para pruebas y mediciones
+    public static LimitadorConcurrencia fijo(int limite) {
+        return new LimitadorConcurrencia(limite, limite, limite, Double.POSITIVE_INFINITY);
+    }
+
+    // Bloquea hasta que haya lugar para una solicitud más
+    public void adquirir() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (enVuelo >= (int) limite) {
+                hayLugar.await();
+            }
+            enVuelo++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Toma un lugar solo si está libre ahora mismo (para solicitudes prescindibles, como las de cobertura)
+    public boolean intentarAdquirir() {
+        lock.lock();
+        try {
+            if (enVuelo >= (int) limite || lock.hasWaiters(hayLugar)) {
+                return false;
+            }
+            enVuelo++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Libera el lugar de una solicitud terminada y ajusta el límite según su latencia y si hubo error
+    public void liberar(long latenciaNanos, boolean error) {
+        lock.lock();
+        try {
+            boolean saturado = enVuelo >= limite / 2; // Solo se sube el límite si realmente se está usando
+            enVuelo--;
+            if (Double.isNaN(latenciaMinima) || latenciaNanos < latenciaMinima) {
+                latenciaMinima = latenciaNanos;
+            } else {
+                latenciaMinima += (latenciaNanos - latenciaMinima) * OLVIDO_LATENCIA_MINIMA;
+            }
+
+            long ahora = System.nanoTime();
+            if (error || latenciaNanos > tolerancia * latenciaMinima) {
+                if (ahora - ultimaReduccion >= latenciaNanos) {
+                    limite = Math.max(minimo, limite * FACTOR_REDUCCION);
+                    ultimaReduccion = ahora;
+                }
+            } else if (saturado) {
+                limite = Math.min(maximo, limite + 1);
+            }
+            hayLugar.signalAll(); // El límite pudo haber subido: puede haber lugar para más de uno
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Libera el lugar de una solicitud cancelada sin ajustar el límite: no se sabe cuánto habría tardado
+    public void liberarSinMedir() {
+        lock.lock();
+        try {
+            enVuelo--;
+            hayLugar.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimite() {
+        lock.lock();
+        try {
+            return (int) limite;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getEnVuelo() {
+        lock.lock();
+        try {
+            return enVuelo;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
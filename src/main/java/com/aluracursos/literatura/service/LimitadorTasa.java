@@ -0,0 +1,104 @@
+package com.aluracursos.literatura.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Limita las solicitudes por segundo que se envían a cada host con una cubeta de fichas: se acumulan
+// hasta 'rafaga' fichas a razón de 'solicitudesPorSegundo' y cada solicitud consume una. Cuando no quedan,
+// la ficha se reserva igualmente y el hilo (virtual) duerme hasta que se genera, de modo que los que esperan
+// se atienden en orden de llegada. Un Retry-After del servidor detiene la cubeta del host para todos los hilos.
+@Component
+public class LimitadorTasa {
+
+    private final double solicitudesPorSegundo;
+    private final double rafaga;
+    // host -> cubeta de fichas
+    private final ConcurrentMap<String, Cubeta> cubetas = new ConcurrentHashMap<>();
+
+    // Con solicitudesPorSegundo <= 0 no se limita nada
+    public LimitadorTasa(@Value("${literatura.api.solicitudes-por-segundo:10}") double solicitudesPorSegundo,
+                         @Value("${literatura.api.rafaga:20}") int rafaga) {
+        this.solicitudesPorSegundo = solicitudesPorSegundo;
+        this.rafaga = Math.max(1, rafaga);
+    }
+
+    public static LimitadorTasa deshabilitado() {
+        return new LimitadorTasa(0, 1);
+    }
+
+    // Bloquea hasta que el host admita una solicitud más
+    public void adquirir(String host) throws InterruptedException {
+        if (solicitudesPorSegundo <= 0) {
+            return;
+        }
+        long espera = cubeta(host).reservar(System.nanoTime());
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+
+    // Consume una ficha solo si hay una disponible ahora mismo (para solicitudes prescindibles, como las de cobertura)
+    public boolean intentarAdquirir(String host) {
+        return solicitudesPorSegundo <= 0 || cubeta(host).intentarReservar(System.nanoTime());
+    }
+
+    // Ninguna solicitud al host sale antes de que pase 'pausa' (por ejemplo, el Retry-After de un 429)
+    public void pausar(String host, Duration pausa) {
+        if (solicitudesPorSegundo <= 0) {
+            return;
+        }
+        cubeta(host).pausar(System.nanoTime() + pausa.toNanos());
+    }
+
+    private Cubeta cubeta(String host) {
+        return cubetas.computeIfAbsent(host, h -> new Cubeta());
+    }
+
+    private final class Cubeta {
+
+        private final double nanosPorFicha = TimeUnit.SECONDS.toNanos(1) / solicitudesPorSegundo;
+        // Fichas disponibles; negativo cuando hay solicitudes esperando las próximas fichas
+        private double fichas = rafaga;
+        private long ultimaRecarga = System.nanoTime();
+        // Mientras dure la pausa no se generan fichas
+        private long pausadaHasta = ultimaRecarga;
+
+        // Consume una ficha y devuelve cuántos nanosegundos hay que esperar a que exista
+        synchronized long reservar(long ahora) {
+            recargar(ahora);
+            fichas -= 1;
+            long esperaPausa = Math.max(0, pausadaHasta - ahora);
+            return fichas >= 0 ? esperaPausa : esperaPausa + (long) (-fichas * nanosPorFicha);
+        }
+
+        synchronized boolean intentarReservar(long ahora) {
+            recargar(ahora);
+            if (pausadaHasta - ahora > 0 || fichas < 1) {
+                return false;
+            }
+            fichas -= 1;
+            return true;
+        }
+
+        synchronized void pausar(long hasta) {
+            recargar(System.nanoTime());
+            if (hasta - pausadaHasta > 0) {
+                pausadaHasta = hasta;
+                fichas = Math.min(fichas, 0); // Al reanudar, la ráfaga acumulada no sale de golpe
+            }
+        }
+
+        private void recargar(long ahora) {
+            long desde = Math.max(ultimaRecarga, pausadaHasta);
+            if (ahora - desde > 0) {
+                fichas = Math.min(rafaga, fichas + (ahora - desde) / nanosPorFicha);
+            }
+            ultimaRecarga = Math.max(ultimaRecarga, ahora);
+        }
+    }
+}
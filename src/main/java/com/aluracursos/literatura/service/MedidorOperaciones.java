@@ -0,0 +1,169 @@
+package com.aluracursos.literatura.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Mide la duración de las operaciones de la aplicación con un temporizador de Micrometer
+// (literatura.operaciones, etiquetado por tipo, nombre y resultado) y un evento JFR por cada ejecución.
+// La cantidad de ejecuciones por resultado (por ejemplo, por código de estado HTTP) es el conteo del temporizador.
+@Component
+public class MedidorOperaciones {
+
+    public static final String TIPO_API = "api";
+    public static final String TIPO_JSON = "json";
+    public static final String TIPO_REPOSITORIO = "repositorio";
+    public static final String TIPO_MENU = "menu";
+
+    public static final String RESULTADO_OK = "ok";
+
+    private static final String METRICA_DURACION = "literatura.operaciones";
+    private static final String METRICA_BYTES = "literatura.operaciones.bytes";
+
+    private record Clave(String tipo, String nombre, String resultado) {
+    }
+
+    private final MeterRegistry registro;
+    // Los medidores se buscan una vez por combinación de etiquetas y luego se reutilizan
+    private final ConcurrentMap<Clave, Timer> temporizadores = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Clave, DistributionSummary> tamanios = new ConcurrentHashMap<>();
+
+    public MedidorOperaciones(MeterRegistry registro) {
+        this.registro = registro;
+    }
+
+    // Medidor sin registro de métricas (los eventos JFR solo se graban si hay una grabación activa),
+    // útil para pruebas y mediciones que crean los servicios a mano
+    public static MedidorOperaciones deshabilitado() {
+        return new MedidorOperaciones(new CompositeMeterRegistry());
+    }
+
+    // Empieza a medir una operación; la medición se cierra con Medicion.terminar
+    public Medicion iniciar(String tipo, String nombre) {
+        return new Medicion(tipo, nombre);
+    }
+
+    // Mide una operación completa; si lanza una excepción, el resultado es el nombre de la excepción
+    public <T> T medir(String tipo, String nombre, Supplier<T> operacion) {
+        Medicion medicion = iniciar(tipo, nombre);
+        try {
+            T valor = operacion.get();
+            medicion.terminar(RESULTADO_OK);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            medicion.terminar(e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    public void medir(String tipo, String nombre, Runnable operacion) {
+        medir(tipo, nombre, () -> {
+            operacion.run();
+            return null;
+        });
+    }
+
+    // Registra una duración que midió quien llama, sin evento JFR: para operaciones hechas de muchos tramos
+    // cortos (por ejemplo, los elementos de una respuesta) que se suman y se registran una sola vez
+    public void registrar(String tipo, String nombre, String resultado, long nanos) {
+        temporizador(new Clave(tipo, nombre, resultado)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Publica un valor que se lee en cada exportación (por ejemplo, el límite de concurrencia actual)
+    public void indicador(String nombre, String descripcion, Supplier<Number> valor) {
+        Gauge.builder(nombre, valor).description(descripcion).register(registro);
+    }
+
+    // Publica un conteo que solo crece y que mantiene otro componente
+    public void contador(String nombre, String descripcion, Supplier<Number> valor) {
+        FunctionCounter.builder(nombre, valor, v -> v.get().doubleValue()).description(descripcion).register(registro);
+    }
+
+    private Timer temporizador(Clave clave) {
+        return temporizadores.computeIfAbsent(clave, c -> Timer.builder(METRICA_DURACION)
+                .description("Duración de las llamadas a la API, decodificaciones JSON, consultas y opciones del menú")
+                .tag("tipo", c.tipo())
+                .tag("nombre", c.nombre())
+                .tag("resultado", c.resultado())
+                .register(registro));
+    }
+
+    private DistributionSummary tamanio(Clave clave) {
+        return tamanios.computeIfAbsent(clave, c -> DistributionSummary.builder(METRICA_BYTES)
+                .description("Tamaño de los datos procesados por cada operación")
+                .baseUnit("bytes")
+                .tag("tipo", c.tipo())
+                .tag("nombre", c.nombre())
+                .register(registro));
+    }
+
+    // Con pausar y reanudar se dejan fuera las esperas que no son parte de la operación (por ejemplo, lo que tarda
+    // la persona en responder en el menú): el temporizador registra la suma de los tramos activos y cada tramo se
+    // graba como un evento JFR propio
+    public final class Medicion {
+
+        private final String tipo;
+        private final String nombre;
+        private long inicioTramo;
+        private long activo; // Duración de los tramos ya cerrados
+        private EventoOperacion evento; // null mientras la medición está en pausa
+
+        private Medicion(String tipo, String nombre) {
+            this.tipo = tipo;
+            this.nombre = nombre;
+            reanudar();
+        }
+
+        public void pausar() {
+            if (evento != null) {
+                cerrarTramo(RESULTADO_OK, -1);
+            }
+        }
+
+        public void reanudar() {
+            if (evento != null) {
+                return;
+            }
+            inicioTramo = System.nanoTime();
+            evento = new EventoOperacion();
+            evento.begin();
+        }
+
+        public void terminar(String resultado) {
+            terminar(resultado, -1);
+        }
+
+        // 'bytes' negativo si la operación no procesó datos medibles
+        public void terminar(String resultado, long bytes) {
+            if (evento != null) {
+                cerrarTramo(resultado, bytes);
+            }
+            temporizador(new Clave(tipo, nombre, resultado)).record(activo, TimeUnit.NANOSECONDS);
+            if (bytes >= 0) {
+                tamanio(new Clave(tipo, nombre, null)).record(bytes);
+            }
+        }
+
+        private void cerrarTramo(String resultado, long bytes) {
+            activo += System.nanoTime() - inicioTramo;
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.tipo = tipo;
+                evento.nombre = nombre;
+                evento.resultado = resultado;
+                evento.bytes = Math.max(bytes, 0);
+                evento.commit();
+            }
+            evento = null;
+        }
+    }
+}
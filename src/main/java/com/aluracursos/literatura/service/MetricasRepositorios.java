@@ -0,0 +1,44 @@
+package com.aluracursos.literatura.service;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+// Mide cada método de los repositorios de Spring Data (LibroRepository.findTopLibros, AutorRepository.findByNombres, ...)
+// con MedidorOperaciones, agregando un interceptor al proxy que crea Spring Data para cada repositorio.
+// Reemplaza a la métrica spring.data.repository.invocations de Actuator, que no genera eventos JFR.
+@Component
+public class MetricasRepositorios implements BeanPostProcessor {
+
+    // Se obtiene en la primera consulta: los post-procesadores se crean antes que el registro de métricas
+    private final SingletonSupplier<MedidorOperaciones> medidor;
+
+    public MetricasRepositorios(ObjectProvider<MedidorOperaciones> medidor) {
+        this.medidor = SingletonSupplier.of(medidor::getObject);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrica) {
+            fabrica.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxy, repositorio) -> {
+                String prefijo = repositorio.getRepositoryInterface().getSimpleName() + ".";
+                proxy.addAdvice((MethodInterceptor) invocacion -> {
+                    MedidorOperaciones.Medicion medicion = medidor.obtain()
+                            .iniciar(MedidorOperaciones.TIPO_REPOSITORIO, prefijo + invocacion.getMethod().getName());
+                    try {
+                        Object resultado = invocacion.proceed();
+                        medicion.terminar(MedidorOperaciones.RESULTADO_OK);
+                        return resultado;
+                    } catch (Throwable e) {
+                        medicion.terminar(e.getClass().getSimpleName());
+                        throw e;
+                    }
+                });
+            }));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,64 @@
+package com.aluracursos.literatura.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+// Solicitudes de cobertura ("hedged requests"): si la respuesta tarda más que el percentil configurado
+// de las latencias recientes, se envía la misma solicitud otra vez, se usa la primera respuesta que llegue
+// y se cancela la otra. Con el p95 se duplica como mucho una de cada veinte solicitudes, justo las que
+// caen en la cola lenta. Mientras no haya suficientes muestras no se envían coberturas.
+@Component
+public class PoliticaCobertura {
+
+    // Latencias recientes que se usan para calcular el percentil
+    private static final int MUESTRAS = 256;
+    private static final int MUESTRAS_MINIMAS = 20;
+
+    private final boolean habilitada;
+    private final double percentil;
+    private final Duration retrasoMinimo;
+    // Búfer circular de latencias en nanosegundos
+    private final long[] latencias = new long[MUESTRAS];
+    private int registradas;
+
+    public PoliticaCobertura(@Value("${literatura.api.cobertura.habilitada:false}") boolean habilitada,
+                             @Value("${literatura.api.cobertura.percentil:95}") double percentil,
+                             @Value("${literatura.api.cobertura.retraso-minimo:50ms}") Duration retrasoMinimo) {
+        this.habilitada = habilitada;
+        this.percentil = percentil;
+        this.retrasoMinimo = retrasoMinimo;
+    }
+
+    public static PoliticaCobertura deshabilitada() {
+        return new PoliticaCobertura(false, 95, Duration.ZERO);
+    }
+
+    // Registra la latencia de una respuesta correcta
+    public synchronized void registrar(long latenciaNanos) {
+        if (habilitada) {
+            latencias[registradas++ % MUESTRAS] = latenciaNanos;
+        }
+    }
+
+    // Cuánto esperar la respuesta antes de enviar la cobertura, o vacío si no se debe enviar
+    public Optional<Duration> retraso() {
+        if (!habilitada) {
+            return Optional.empty();
+        }
+        long[] copia;
+        synchronized (this) {
+            if (registradas < MUESTRAS_MINIMAS) {
+                return Optional.empty();
+            }
+            copia = Arrays.copyOf(latencias, Math.min(registradas, MUESTRAS));
+        }
+        Arrays.sort(copia);
+        int indice = (int) Math.ceil(percentil / 100 * copia.length) - 1;
+        Duration retraso = Duration.ofNanos(copia[Math.clamp(indice, 0, copia.length - 1)]);
+        return Optional.of(retraso.compareTo(retrasoMinimo) < 0 ? retrasoMinimo : retraso);
+    }
+}
@@ -0,0 +1,86 @@
+package com.aluracursos.literatura.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Decide si una solicitud fallida a la API se reintenta y cuánto se espera antes de hacerlo.
+// La espera crece exponencialmente con cada intento y se sortea entre 0 y ese máximo ("full jitter"),
+// así los trabajadores que fallaron a la vez no vuelven a llegar juntos. Si el servidor envía
+// Retry-After (en 429 y 503), nunca se reintenta antes de lo que pide.
+@Component
+public class PoliticaReintentos {
+
+    private final int reintentos;
+    private final Duration esperaBase;
+    private final Duration esperaMaxima;
+
+    public PoliticaReintentos(@Value("${literatura.api.reintentos:3}") int reintentos,
+                              @Value("${literatura.api.espera-base:500ms}") Duration esperaBase,
+                              @Value("${literatura.api.espera-maxima:30s}") Duration esperaMaxima) {
+        this.reintentos = reintentos;
+        this.esperaBase = esperaBase;
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    // Un único intento por solicitud, útil para pruebas y mediciones
+    public static PoliticaReintentos sinReintentos() {
+        return new PoliticaReintentos(0, Duration.ZERO, Duration.ZERO);
+    }
+
+    // Límite de velocidad, errores del servidor y pasarelas caídas; los 4xx restantes no cambian al repetirlos
+    public static boolean esReintentable(int codigoEstado) {
+        return codigoEstado == 429 || codigoEstado == 500 || codigoEstado == 502
+                || codigoEstado == 503 || codigoEstado == 504;
+    }
+
+    // Espera antes del reintento número 'intento' (1 para el primero), o vacío si ya no se debe reintentar:
+    // se agotaron los reintentos o el servidor pide esperar más que la espera máxima
+    public Optional<Duration> espera(int intento, Optional<Duration> retryAfter) {
+        if (intento > reintentos) {
+            return Optional.empty();
+        }
+        long techo = Math.min(esperaMaxima.toMillis(), esperaBase.toMillis() << Math.min(intento - 1, 20));
+        Duration sorteada = Duration.ofMillis(techo <= 0 ? 0 : ThreadLocalRandom.current().nextLong(techo + 1));
+        if (retryAfter.isEmpty()) {
+            return Optional.of(sorteada);
+        }
+        if (retryAfter.get().compareTo(esperaMaxima) > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(sorteada.compareTo(retryAfter.get()) > 0 ? sorteada : retryAfter.get());
+    }
+
+    // Lee Retry-After en cualquiera de sus dos formas: segundos o fecha HTTP
+    public static Optional<Duration> retryAfter(HttpHeaders cabeceras) {
+        return cabeceras.firstValue("Retry-After").flatMap(PoliticaReintentos::interpretarRetryAfter);
+    }
+
+    static Optional<Duration> interpretarRetryAfter(String valor) {
+        String limpio = valor.strip();
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(limpio))));
+        } catch (NumberFormatException e) {
+            // No son segundos: se intenta como fecha
+        }
+        try {
+            Instant instante = ZonedDateTime.parse(limpio, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration hastaEntonces = Duration.between(Instant.now(), instante);
+            return Optional.of(hastaEntonces.isNegative() ? Duration.ZERO : hastaEntonces);
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    public int getReintentos() {
+        return reintentos;
+    }
+}
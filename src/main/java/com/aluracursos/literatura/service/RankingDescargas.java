@@ -0,0 +1,143 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.Languages;
+import com.aluracursos.literatura.model.LibroIndexado;
+import com.aluracursos.literatura.repository.LibroRepository;
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+// Ranking de los libros más descargados, en total y por idioma. Cada ranking guarda solo los K primeros
+// ordenados, se actualiza con cada alta y se lee sin ordenar nada, sea cual sea el tamaño del catálogo.
+// Al arrancar (o si un ranking queda incompleto) se carga desde la base con el índice (numero_descargas, id).
+@Service
+public class RankingDescargas {
+
+    // Mismo orden que las consultas de la base: más descargas primero y, a igualdad, el id mayor
+    private static final Comparator<LibroIndexado> ORDEN = Comparator.comparingInt(LibroIndexado::numeroDescargas)
+            .thenComparingLong(LibroIndexado::id)
+            .reversed();
+    // Clave del ranking general; los rankings por idioma usan la máscara del idioma
+    private static final int TODOS = 0;
+
+    private final LibroRepository libroRepository;
+    private final int tamanio;
+    private final LoggerBase logger;
+
+    // Clave (TODOS o bit del idioma) -> los K libros más descargados; si falta, se carga desde la base
+    private final Map<Integer, TreeSet<LibroIndexado>> rankings = new HashMap<>();
+    // id -> entrada de los libros que están en algún ranking, para encontrarlos al cambiar sus descargas
+    private final Map<Long, LibroIndexado> enRanking = new HashMap<>();
+
+    public RankingDescargas(LibroRepository libroRepository, @Value("${literatura.ranking.tamanio:10}") int tamanio) {
+        this.libroRepository = libroRepository;
+        this.tamanio = tamanio;
+        this.logger = new LoggerBaseImpl(RankingDescargas.class.getName());
+    }
+
+    public int getTamanio() {
+        return tamanio;
+    }
+
+    // Carga todos los rankings desde la base: K filas por ranking, leídas por índice (ver InstantaneaService.cargarCatalogo)
+    public synchronized void construir() {
+        rankings.clear();
+        enRanking.clear();
+        cargar(TODOS);
+        for (Languages idioma : Languages.values()) {
+            cargar(idioma.bit());
+        }
+        logger.logInfo("Ranking de descargas cargado: top {} general y por idioma", tamanio);
+    }
+
+    // Arma todos los rankings a partir de los libros ya leídos (por ejemplo, de una InstantaneaCatalogo)
+    public synchronized void construir(Collection<LibroIndexado> libros) {
+        rankings.clear();
+        enRanking.clear();
+        rankings.put(TODOS, new TreeSet<>(ORDEN));
+        for (Languages idioma : Languages.values()) {
+            rankings.put(idioma.bit(), new TreeSet<>(ORDEN));
+        }
+        registrar(libros);
+        logger.logInfo("Ranking de descargas cargado: top {} general y por idioma", tamanio);
+    }
+
+    // Los K libros más descargados; con un idioma, solo los que lo incluyen
+    public synchronized List<LibroIndexado> top(Optional<Languages> idioma) {
+        int clave = idioma.map(Languages::bit).orElse(TODOS);
+        TreeSet<LibroIndexado> ranking = rankings.get(clave);
+        if (ranking == null) {
+            ranking = cargar(clave); // Arranque en frío o ranking invalidado
+        }
+        return List.copyOf(ranking);
+    }
+
+    // Registra libros nuevos o con descargas actualizadas
+    public synchronized void registrar(Collection<LibroIndexado> libros) {
+        for (LibroIndexado libro : libros) {
+            LibroIndexado anterior = enRanking.get(libro.id());
+            if (anterior != null && libro.numeroDescargas() < anterior.numeroDescargas()) {
+                invalidar(anterior); // Bajó: el puesto que deja libre puede ser de un libro que no está en memoria
+                continue;
+            }
+            if (anterior != null) {
+                quitar(anterior);
+            }
+            ofrecer(TODOS, libro);
+            for (Languages idioma : Languages.desdeMascara(libro.mascaraIdiomas())) {
+                ofrecer(idioma.bit(), libro);
+            }
+        }
+    }
+
+    private TreeSet<LibroIndexado> cargar(int clave) {
+        PageRequest primeros = PageRequest.of(0, tamanio);
+        TreeSet<LibroIndexado> ranking = new TreeSet<>(ORDEN);
+        (clave == TODOS
+                ? libroRepository.findTopLibros(primeros)
+                : libroRepository.findLibrosPorIdioma(Languages.mascarasQueIncluyen(clave), Integer.MAX_VALUE, Long.MAX_VALUE, primeros))
+                .forEach(libro -> ranking.add(LibroIndexado.desde(libro)));
+        ranking.forEach(libro -> enRanking.put(libro.id(), libro));
+        rankings.put(clave, ranking);
+        return ranking;
+    }
+
+    // Inserta el libro si entra en los K primeros y descarta el último si el ranking se pasa de tamaño
+    private void ofrecer(int clave, LibroIndexado libro) {
+        TreeSet<LibroIndexado> ranking = rankings.get(clave);
+        if (ranking == null) {
+            return; // Se cargará completo desde la base en la próxima lectura
+        }
+        if (ranking.size() >= tamanio && ORDEN.compare(libro, ranking.last()) > 0) {
+            return; // No supera al último del ranking
+        }
+        ranking.add(libro);
+        enRanking.put(libro.id(), libro);
+        if (ranking.size() > tamanio) {
+            LibroIndexado expulsado = ranking.pollLast();
+            if (rankings.values().stream().noneMatch(otro -> otro.contains(expulsado))) {
+                enRanking.remove(expulsado.id());
+            }
+        }
+    }
+
+    private void quitar(LibroIndexado libro) {
+        rankings.values().forEach(ranking -> ranking.remove(libro));
+        enRanking.remove(libro.id());
+    }
+
+    private void invalidar(LibroIndexado libro) {
+        rankings.entrySet().removeIf(entrada -> entrada.getValue().contains(libro));
+        enRanking.remove(libro.id());
+    }
+}
@@ -0,0 +1,306 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.Autor;
+import com.aluracursos.literatura.model.CambioDescargas;
+import com.aluracursos.literatura.model.DatosAutor;
+import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.literatura.model.Languages;
+import com.aluracursos.literatura.model.Libro;
+import com.aluracursos.literatura.model.LibroIndexado;
+import com.aluracursos.literatura.repository.LibroRepository;
+import com.aluracursos.logger.loggerbase.LoggerBase;
+import com.aluracursos.logger.loggerbase.LoggerBaseImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// Servicio que guarda los datos de la API con INSERT ... ON CONFLICT por conjuntos: cada lote se envía
+// en unas pocas sentencias, identificado por el id de Project Gutenberg. Volver a importar los mismos libros
+// no cambia nada y dos procesos que guardan el mismo libro a la vez no fallan: el segundo lo encuentra.
+@Service
+public class RegistroLibroService {
+
+    // Longitud máxima de la columna 'titulo' en la tabla libros
+    private static final int LONGITUD_MAXIMA_TITULO = 255;
+
+    // Asigna el id de Gutenberg a los libros registrados antes de guardarlo, por su título (el de id menor si se repite),
+    // para que la inserción siguiente los encuentre en lugar de duplicarlos
+    static final String ASIGNAR_IDS_GUTENBERG = """
+            UPDATE libros l SET gutenberg_id = d.gutenberg_id
+            FROM (SELECT DISTINCT ON (lower(titulo)) gutenberg_id, titulo
+                  FROM unnest(?::integer[], ?::varchar[]) AS d(gutenberg_id, titulo)
+                  ORDER BY lower(titulo), gutenberg_id) d
+            WHERE l.gutenberg_id IS NULL
+              AND l.id = (SELECT min(x.id) FROM libros x WHERE lower(x.titulo) = lower(d.titulo) AND x.gutenberg_id IS NULL)
+              AND NOT EXISTS (SELECT 1 FROM libros o WHERE o.gutenberg_id = d.gutenberg_id)
+            """;
+
+    // Inserta los libros nuevos y actualiza las descargas e idiomas de los existentes solo si cambiaron.
+    // Devuelve las filas insertadas (xmax = 0) o actualizadas; las que no cambian no se devuelven ni se escriben.
+    // Los libros existentes conservan su id y solo los nuevos toman un valor de la secuencia.
+    static final String GUARDAR_LIBROS = """
+            INSERT INTO libros (id, gutenberg_id, titulo, numero_descargas, idiomas)
+            SELECT COALESCE((SELECT l.id FROM libros l WHERE l.gutenberg_id = d.gutenberg_id), nextval('libros_seq')),
+                   d.gutenberg_id, d.titulo, d.numero_descargas, d.idiomas
+            FROM unnest(?::integer[], ?::varchar[], ?::integer[], ?::integer[]) AS d(gutenberg_id, titulo, numero_descargas, idiomas)
+            ON CONFLICT (gutenberg_id) DO UPDATE
+                SET numero_descargas = EXCLUDED.numero_descargas, idiomas = EXCLUDED.idiomas
+                WHERE (libros.numero_descargas, libros.idiomas) IS DISTINCT FROM (EXCLUDED.numero_descargas, EXCLUDED.idiomas)
+            RETURNING id, gutenberg_id, xmax = 0 AS insertado
+            """;
+
+    // Bloquea los libros existentes que la sentencia anterior va a actualizar y devuelve sus descargas actuales,
+    // para corregir las estadísticas con la diferencia. Los que no cambian no se bloquean ni se escriben.
+    private static final String BLOQUEAR_CAMBIOS = """
+            SELECT l.gutenberg_id, l.numero_descargas
+            FROM libros l
+            JOIN unnest(?::integer[], ?::integer[], ?::integer[]) AS d(gutenberg_id, numero_descargas, idiomas)
+                ON d.gutenberg_id = l.gutenberg_id
+            WHERE (l.numero_descargas, l.idiomas) IS DISTINCT FROM (d.numero_descargas, d.idiomas)
+            ORDER BY l.gutenberg_id
+            FOR UPDATE OF l
+            """;
+
+    private static final String VINCULAR_AUTORES = """
+            INSERT INTO libro_autor (libro_id, autor_id)
+            SELECT * FROM unnest(?::bigint[], ?::bigint[])
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final LibroRepository libroRepository;
+    private final ResolutorAutores resolutorAutores;
+    private final EstadisticasService estadisticasService;
+    private final IndiceBusqueda indiceBusqueda;
+    private final RankingDescargas rankingDescargas;
+    private final JdbcTemplate jdbcTemplate;
+    private final LoggerBase logger;
+
+    public RegistroLibroService(LibroRepository libroRepository, ResolutorAutores resolutorAutores,
+                                EstadisticasService estadisticasService, IndiceBusqueda indiceBusqueda,
+                                RankingDescargas rankingDescargas, JdbcTemplate jdbcTemplate) {
+        this.libroRepository = libroRepository;
+        this.resolutorAutores = resolutorAutores;
+        this.estadisticasService = estadisticasService;
+        this.indiceBusqueda = indiceBusqueda;
+        this.rankingDescargas = rankingDescargas;
+        this.jdbcTemplate = jdbcTemplate;
+        this.logger = new LoggerBaseImpl(RegistroLibroService.class.getName());
+    }
+
+    // Registra un único libro en su propia transacción. Si ya estaba registrado, devuelve el existente.
+    @Transactional
+    public Libro registrar(DatosLibro datosLibro) {
+        if (!esRegistrable(datosLibro)) {
+            throw new IllegalArgumentException("El libro no tiene los datos mínimos para registrarlo: " + datosLibro.titulo());
+        }
+        List<Libro> altas = guardar(List.of(datosLibro));
+        return altas.isEmpty()
+                ? libroRepository.findByGutenbergId(datosLibro.gutenbergId()).orElseThrow()
+                : altas.get(0);
+    }
+
+    // Registra un lote de libros en una sola transacción, omitiendo los que no son válidos,
+    // y actualiza las descargas de los que ya existen. Devuelve la cantidad de libros nuevos.
+    @Transactional
+    public int registrarLote(List<DatosLibro> lote) {
+        return guardar(lote).size();
+    }
+
+    // Verifica que los datos del libro tengan la información mínima para poder guardarlo
+    public boolean esRegistrable(DatosLibro datosLibro) {
+        return datosLibro.gutenbergId() != null
+                && datosLibro.titulo() != null
+                && !datosLibro.titulo().isBlank()
+                && datosLibro.titulo().length() <= LONGITUD_MAXIMA_TITULO
+                && datosLibro.autoresList() != null
+                && !datosLibro.autoresList().isEmpty();
+    }
+
+    // Guarda el lote y devuelve los libros insertados, con sus idiomas y autores
+    private List<Libro> guardar(List<DatosLibro> lote) {
+        // Ordenados por id de Gutenberg: todas las transacciones bloquean las filas en el mismo orden y no se interbloquean
+        Map<Integer, DatosLibro> candidatos = new TreeMap<>();
+        for (DatosLibro datosLibro : lote) {
+            if (esRegistrable(datosLibro)) {
+                candidatos.putIfAbsent(datosLibro.gutenbergId(), datosLibro); // Omitir libros repetidos dentro del lote
+            }
+        }
+        if (candidatos.isEmpty()) {
+            return List.of();
+        }
+
+        int cantidad = candidatos.size();
+        Integer[] idsGutenberg = new Integer[cantidad];
+        String[] titulos = new String[cantidad];
+        Integer[] descargas = new Integer[cantidad];
+        Integer[] mascaras = new Integer[cantidad];
+        int i = 0;
+        for (DatosLibro datosLibro : candidatos.values()) {
+            idsGutenberg[i] = datosLibro.gutenbergId();
+            titulos[i] = datosLibro.titulo();
+            descargas[i] = datosLibro.numeroDescargas();
+            mascaras[i] = mascaraIdiomas(datosLibro);
+            i++;
+        }
+
+        jdbcTemplate.update(conexion -> sentencia(conexion, ASIGNAR_IDS_GUTENBERG,
+                arreglo(conexion, "integer", idsGutenberg), arreglo(conexion, "varchar", titulos)));
+        Map<Integer, Integer> descargasAnteriores = new HashMap<>();
+        jdbcTemplate.query(conexion -> sentencia(conexion, BLOQUEAR_CAMBIOS,
+                        arreglo(conexion, "integer", idsGutenberg), arreglo(conexion, "integer", descargas),
+                        arreglo(conexion, "integer", mascaras)),
+                fila -> {
+                    descargasAnteriores.put(fila.getInt("gutenberg_id"), fila.getInt("numero_descargas"));
+                });
+        List<Libro> altas = new ArrayList<>();
+        List<Libro> actualizados = new ArrayList<>();
+        jdbcTemplate.query(conexion -> sentencia(conexion, GUARDAR_LIBROS,
+                        arreglo(conexion, "integer", idsGutenberg), arreglo(conexion, "varchar", titulos),
+                        arreglo(conexion, "integer", descargas), arreglo(conexion, "integer", mascaras)),
+                fila -> {
+                    int j = Arrays.binarySearch(idsGutenberg, fila.getInt("gutenberg_id")); // Los ids están ordenados
+                    Libro libro = new Libro(fila.getLong("id"), idsGutenberg[j], titulos[j], mascaras[j], descargas[j]);
+                    (fila.getBoolean("insertado") ? altas : actualizados).add(libro);
+                });
+        if (altas.isEmpty() && actualizados.isEmpty()) {
+            return List.of(); // Nada cambió: ni autores, ni estadísticas, ni índice
+        }
+
+        if (!altas.isEmpty()) {
+            vincularAutores(altas, candidatos);
+        }
+        registrarCambiosDescargas(actualizados, descargasAnteriores); // Antes que las altas: ver EstadisticasService
+        estadisticasService.registrarAltas(altas); // Una sola actualización de estadísticas por lote
+
+        List<LibroIndexado> indexados = new ArrayList<>(altas.size() + actualizados.size());
+        altas.forEach(libro -> indexados.add(paraIndice(candidatos.get(libro.getGutenbergId()), libro)));
+        actualizados.forEach(libro -> indexados.add(paraIndice(candidatos.get(libro.getGutenbergId()), libro)));
+        publicarAlConfirmar(indexados);
+        return altas;
+    }
+
+    // Corrige las estadísticas con las descargas anteriores de los libros actualizados. Si otra transacción cambió
+    // un libro entre el bloqueo y la actualización, su valor anterior no se conoce y las estadísticas se descartan.
+    private void registrarCambiosDescargas(List<Libro> actualizados, Map<Integer, Integer> descargasAnteriores) {
+        List<CambioDescargas> cambios = new ArrayList<>(actualizados.size());
+        for (Libro libro : actualizados) {
+            Integer anteriores = descargasAnteriores.get(libro.getGutenbergId());
+            if (anteriores == null) {
+                estadisticasService.invalidar();
+                return;
+            }
+            cambios.add(new CambioDescargas(anteriores, libro.getNumeroDescargas()));
+        }
+        estadisticasService.registrarCambiosDescargas(cambios);
+    }
+
+    // Resuelve los autores de todos los libros nuevos y crea las relaciones con una sola sentencia
+    private void vincularAutores(List<Libro> altas, Map<Integer, DatosLibro> candidatos) {
+        Map<String, Autor> autores = resolutorAutores.resolver(altas.stream()
+                .flatMap(libro -> candidatos.get(libro.getGutenbergId()).autoresList().stream())
+                .toList());
+        TreeSet<long[]> relaciones = new TreeSet<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        for (Libro libro : altas) {
+            asignarAutores(candidatos.get(libro.getGutenbergId()), libro, autores);
+            libro.getAutores().forEach(autor -> relaciones.add(new long[]{libro.getId(), autor.getId()}));
+        }
+        Long[] libroIds = new Long[relaciones.size()];
+        Long[] autorIds = new Long[relaciones.size()];
+        int i = 0;
+        for (long[] relacion : relaciones) {
+            libroIds[i] = relacion[0];
+            autorIds[i] = relacion[1];
+            i++;
+        }
+        jdbcTemplate.update(conexion -> sentencia(conexion, VINCULAR_AUTORES,
+                arreglo(conexion, "bigint", libroIds), arreglo(conexion, "bigint", autorIds)));
+    }
+
+    private static PreparedStatement sentencia(Connection conexion, String sql, Array... arreglos) throws SQLException {
+        PreparedStatement sentencia = conexion.prepareStatement(sql);
+        for (int i = 0; i < arreglos.length; i++) {
+            sentencia.setArray(i + 1, arreglos[i]);
+        }
+        return sentencia;
+    }
+
+    private static Array arreglo(Connection conexion, String tipo, Object[] valores) throws SQLException {
+        return conexion.createArrayOf(tipo, valores);
+    }
+
+    // Agrega los libros al índice de búsqueda y al ranking cuando se confirma la transacción actual,
+    // para no publicar altas que luego se revierten
+    private void publicarAlConfirmar(List<LibroIndexado> libros) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar(libros);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publicar(libros);
+            }
+        });
+    }
+
+    private void publicar(List<LibroIndexado> libros) {
+        indiceBusqueda.agregar(libros);
+        rankingDescargas.registrar(libros);
+    }
+
+    // Los nombres se toman de los datos de la API: leerlos de las entidades podría cargar autores desde la base
+    private LibroIndexado paraIndice(DatosLibro datosLibro, Libro libro) {
+        String autores = datosLibro.autoresList().stream()
+                .map(DatosAutor::nombre)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return new LibroIndexado(libro.getId(), libro.getTitulo(), autores, libro.getMascaraIdiomas(), libro.getNumeroDescargas());
+    }
+
+    // Método para calcular la máscara de idiomas de un libro
+    private int mascaraIdiomas(DatosLibro datosLibro) {
+        if (datosLibro.idiomas() == null) { // Algunos resultados de la API no incluyen idiomas
+            return 0;
+        }
+        return datosLibro.idiomas().stream() // Obtener la lista de idiomas y crear un stream
+                .map(idioma -> { // Mapear cada idioma a un objeto del enum Languages
+                    try {
+                        return Languages.fromInput(idioma); // Intentar convertir el idioma a un enum Languages
+                    } catch (IllegalArgumentException e) { // Capturar excepción si el idioma no es válido
+                        logger.logWarn("Idioma no reconocido: {}", idioma); // Registrar el idioma no reconocido
+                        return null; // Retornar null si no se reconoce el idioma
+                    }
+                })
+                .filter(Objects::nonNull) // Filtrar los valores nulos
+                .mapToInt(Languages::bit) // Tomar el bit de cada idioma válido
+                .reduce(0, (mascara, bit) -> mascara | bit); // Combinar los bits en la máscara de idiomas del libro
+    }
+
+    // Método para asignar los autores ya resueltos a un libro.
+    // Solo se actualiza el lado propietario de la relación: sincronizar Autor.libros obligaría
+    // a cargar la colección completa de libros de cada autor.
+    private void asignarAutores(DatosLibro datosLibro, Libro libro, Map<String, Autor> autores) {
+        datosLibro.autoresList().stream()
+                .map(datosAutor -> autores.get(ResolutorAutores.clave(datosAutor.nombre()))) // Buscar el autor resuelto por su nombre
+                .distinct() // Un mismo autor puede aparecer repetido en la API
+                .forEach(libro.getAutores()::add); // Añadir el autor al libro
+    }
+}
@@ -0,0 +1,159 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.Autor;
+import com.aluracursos.literatura.model.DatosAutor;
+import com.aluracursos.literatura.repository.AutorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Resuelve los autores de un lote de libros con una consulta IN y una inserción por lotes,
+// en lugar de un findByNombre + saveAndFlush por autor.
+@Service
+public class ResolutorAutores {
+
+    // Valor que usa Autor cuando la API no informa el nombre
+    private static final String NOMBRE_NO_DISPONIBLE = "Información no disponible";
+
+    // Inserta todos los autores nuevos en una sentencia, ordenados por nombre para que las transacciones
+    // concurrentes tomen los bloqueos en el mismo orden. Si otro proceso ya insertó el mismo nombre,
+    // la fila se omite y se recupera en la consulta posterior.
+    private static final String INSERTAR_AUTORES = """
+            INSERT INTO autores (id, nombre, anio_nacimiento, anio_fallecimiento)
+            SELECT nextval('autores_seq'), d.nombre, d.anio_nacimiento, d.anio_fallecimiento
+            FROM (SELECT * FROM unnest(?::varchar[], ?::integer[], ?::integer[]) AS d(nombre, anio_nacimiento, anio_fallecimiento)
+                  ORDER BY nombre) d
+            ON CONFLICT (nombre) DO NOTHING
+            """;
+
+    private final AutorRepository autorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacidadCache;
+
+    // Nombre normalizado -> id de los autores ya confirmados en la base de datos, con expulsión LRU
+    private final Map<String, Long> idsPorNombre;
+
+    public ResolutorAutores(AutorRepository autorRepository, JdbcTemplate jdbcTemplate,
+                            @Value("${literatura.autores.cache-capacidad:10000}") int capacidadCache) {
+        this.autorRepository = autorRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacidadCache = capacidadCache;
+        this.idsPorNombre = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > ResolutorAutores.this.capacidadCache;
+            }
+        };
+    }
+
+    // Devuelve un autor por cada nombre distinto (clave: nombre normalizado), creando los que no existen.
+    // Los autores devueltos pertenecen a la transacción actual.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, Autor> resolver(Collection<DatosAutor> datosAutores) {
+        Map<String, DatosAutor> pendientes = new LinkedHashMap<>();
+        for (DatosAutor datosAutor : datosAutores) {
+            pendientes.putIfAbsent(clave(datosAutor.nombre()), datosAutor);
+        }
+
+        Map<String, Autor> resueltos = new HashMap<>(pendientes.size() * 2);
+        synchronized (idsPorNombre) { // 1. Autores ya conocidos: ninguna consulta
+            pendientes.keySet().removeIf(clave -> {
+                Long id = idsPorNombre.get(clave);
+                if (id != null) {
+                    resueltos.put(clave, autorRepository.getReferenceById(id));
+                }
+                return id != null;
+            });
+        }
+        if (pendientes.isEmpty()) {
+            return resueltos;
+        }
+
+        Map<String, Long> confirmados = new HashMap<>();
+        buscarExistentes(pendientes, resueltos, confirmados); // 2. Una consulta IN para todo el lote
+        recordarAlConfirmar(confirmados); // Solo se recuerdan si la transacción se confirma
+        if (pendientes.isEmpty()) {
+            return resueltos;
+        }
+
+        insertar(pendientes.values()); // 3. Una inserción por lotes para los que faltan
+        Map<String, Long> insertados = new HashMap<>();
+        buscarExistentes(pendientes, resueltos, insertados);
+        recordarAlConfirmar(insertados);
+        if (!pendientes.isEmpty()) {
+            throw new IllegalStateException("No se pudieron resolver los autores: " + pendientes.keySet());
+        }
+        return resueltos;
+    }
+
+    // Normaliza el nombre igual que lo guarda Autor y lo compara sin distinguir mayúsculas
+    public static String clave(String nombre) {
+        return nombreAGuardar(nombre).toLowerCase(Locale.ROOT);
+    }
+
+    private static String nombreAGuardar(String nombre) {
+        return (nombre == null || nombre.isEmpty()) ? NOMBRE_NO_DISPONIBLE : nombre;
+    }
+
+    private void buscarExistentes(Map<String, DatosAutor> pendientes, Map<String, Autor> resueltos, Map<String, Long> encontrados) {
+        List<String> nombres = pendientes.values().stream().map(datosAutor -> nombreAGuardar(datosAutor.nombre())).toList();
+        for (Autor autor : autorRepository.findByNombres(nombres, pendientes.keySet())) {
+            String clave = clave(autor.getNombre());
+            if (pendientes.remove(clave) != null) {
+                resueltos.put(clave, autor);
+                encontrados.put(clave, autor.getId());
+            }
+        }
+    }
+
+    private void insertar(Collection<DatosAutor> nuevos) {
+        String[] nombres = new String[nuevos.size()];
+        Integer[] nacimientos = new Integer[nuevos.size()];
+        Integer[] fallecimientos = new Integer[nuevos.size()];
+        int i = 0;
+        for (DatosAutor datosAutor : nuevos) {
+            nombres[i] = nombreAGuardar(datosAutor.nombre());
+            nacimientos[i] = datosAutor.anioNacimiento();
+            fallecimientos[i] = datosAutor.anioFallecimiento();
+            i++;
+        }
+        jdbcTemplate.update(conexion -> {
+            PreparedStatement sentencia = conexion.prepareStatement(INSERTAR_AUTORES);
+            sentencia.setArray(1, conexion.createArrayOf("varchar", nombres));
+            sentencia.setArray(2, conexion.createArrayOf("integer", nacimientos));
+            sentencia.setArray(3, conexion.createArrayOf("integer", fallecimientos));
+            return sentencia;
+        });
+    }
+
+    private void recordar(Map<String, Long> ids) {
+        synchronized (idsPorNombre) {
+            idsPorNombre.putAll(ids);
+        }
+    }
+
+    private void recordarAlConfirmar(Map<String, Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordar(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordar(ids);
+            }
+        });
+    }
+}
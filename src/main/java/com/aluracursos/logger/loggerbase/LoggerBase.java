@@ -1,9 +1,55 @@
 package com.aluracursos.logger.loggerbase;
 
+import java.util.function.Supplier;
+
 // Esta es una interfaz que define los métodos que una clase de logger debe implementar.
+// Además de los mensajes ya armados, acepta proveedores (Supplier) y plantillas con marcadores '{}',
+// que solo se evalúan si el nivel del mensaje está habilitado.
 public interface LoggerBase {
 
     // Método para registrar un mensaje de información (INFO).
     // Las clases que implementen esta interfaz deben proporcionar una implementación de este método.
     void logInfo(Object message);
+
+    // Método para registrar un mensaje ya armado con el nivel indicado.
+    void log(Nivel nivel, Object mensaje);
+
+    // Método para registrar un mensaje que se construye solo si el nivel está habilitado.
+    void log(Nivel nivel, Supplier<String> mensaje);
+
+    // Método para registrar una plantilla con marcadores '{}' que se reemplazan por los argumentos, en orden.
+    // La plantilla solo se completa si el nivel está habilitado.
+    void log(Nivel nivel, String plantilla, Object... argumentos);
+
+    // Indica si los mensajes del nivel indicado se registran; permite evitar trabajo previo al mensaje.
+    boolean isHabilitado(Nivel nivel);
+
+    // Atajos para cada nivel.
+    default void logInfo(Supplier<String> mensaje) {
+        log(Nivel.INFO, mensaje);
+    }
+
+    default void logInfo(String plantilla, Object... argumentos) {
+        log(Nivel.INFO, plantilla, argumentos);
+    }
+
+    default void logDebug(Supplier<String> mensaje) {
+        log(Nivel.DEBUG, mensaje);
+    }
+
+    default void logDebug(String plantilla, Object... argumentos) {
+        log(Nivel.DEBUG, plantilla, argumentos);
+    }
+
+    default void logWarn(Supplier<String> mensaje) {
+        log(Nivel.WARN, mensaje);
+    }
+
+    default void logWarn(String plantilla, Object... argumentos) {
+        log(Nivel.WARN, plantilla, argumentos);
+    }
+
+    default void logError(String plantilla, Object... argumentos) {
+        log(Nivel.ERROR, plantilla, argumentos);
+    }
 }
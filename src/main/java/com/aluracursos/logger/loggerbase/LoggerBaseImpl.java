@@ -1,14 +1,20 @@
 package com.aluracursos.logger.loggerbase;
 
-import java.util.logging.Formatter;
-import java.util.logging.LogRecord;
-import java.util.logging.ConsoleHandler;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 
 // Clase que implementa la interfaz LoggerBase, proporcionando una implementación básica del sistema de logging.
+// Los mensajes se entregan al ManejadorAsincrono compartido, que los escribe en la consola desde un hilo propio,
+// así que registrar un mensaje no bloquea al que llama con la escritura en la consola.
+// El nivel mínimo se configura con -Dliteratura.log.nivel=DEBUG|INFO|WARN|ERROR (por defecto INFO).
 public class LoggerBaseImpl implements LoggerBase{
 
+    // Nivel mínimo de los mensajes que se registran, común a todos los loggers.
+    private static final Nivel NIVEL_MINIMO = Nivel.valueOf(System.getProperty("literatura.log.nivel", "INFO").toUpperCase(Locale.ROOT));
+
     // Instancia del objeto Logger, que será utilizado para registrar mensajes.
     private final Logger logger;
 
@@ -22,37 +28,71 @@ public class LoggerBaseImpl implements LoggerBase{
     }
 
     // Método privado para configurar el logger.
-    // Verifica si ya existen manejadores (handlers) asociados al logger y, si no es así, añade uno.
+    // Verifica si ya existen manejadores (handlers) asociados al logger y, si no es así, añade el manejador asíncrono compartido.
     private void configureLogger() {
-        // Si el logger no tiene manejadores (handlers), añade uno nuevo de consola (ConsoleHandler).
-        if (logger.getHandlers().length == 0) {
-            // Crea un nuevo ConsoleHandler, que se encargará de enviar los mensajes del logger a la consola.
-            ConsoleHandler handler = new ConsoleHandler();
-            // Configura el formato del ConsoleHandler utilizando una clase personalizada SimpleFormatter.
-            handler.setFormatter(new SimpleFormatter());
-            // Añade el ConsoleHandler al logger.
-            logger.addHandler(handler);
+        synchronized (logger) { // Varios servicios pueden crear el mismo logger a la vez
+            if (logger.getHandlers().length == 0) {
+                logger.addHandler(ManejadorAsincrono.compartido());
+            }
         }
         // Indica que el logger no debe utilizar los manejadores predeterminados (por ejemplo, los padres).
         logger.setUseParentHandlers(false);
+        // Aplica el nivel mínimo configurado.
+        logger.setLevel(NIVEL_MINIMO.getNivelJul());
     }
 
     // Método implementado de la interfaz LoggerBase.
     // Este método registra un mensaje como información (INFO).
     @Override
     public void logInfo(Object message) {
-        // Convierte el mensaje recibido en String y lo registra como un mensaje de nivel INFO.
-        logger.info(String.valueOf(message));
-    }
-
-    // Clase interna estática que extiende la clase Formatter.
-    // Proporciona un formato simple para los mensajes de log.
-    private static class SimpleFormatter extends Formatter {
-        // Método que da formato a un objeto LogRecord (el registro del log).
-        @Override
-        public String format(LogRecord record) {
-            // Formatea el mensaje del registro y añade una nueva línea al final.
-            return formatMessage(record) + System.lineSeparator();
+        log(Nivel.INFO, message);
+    }
+
+    @Override
+    public void log(Nivel nivel, Object mensaje) {
+        Level nivelJul = nivel.getNivelJul();
+        if (logger.isLoggable(nivelJul)) {
+            logger.log(nivelJul, String.valueOf(mensaje));
+        }
+    }
+
+    // El proveedor se evalúa en el hilo que llama, solo si el nivel está habilitado.
+    @Override
+    public void log(Nivel nivel, Supplier<String> mensaje) {
+        Level nivelJul = nivel.getNivelJul();
+        if (logger.isLoggable(nivelJul)) {
+            logger.log(nivelJul, mensaje.get());
+        }
+    }
+
+    // La plantilla se completa en el hilo que llama (los argumentos pueden no ser seguros entre hilos),
+    // solo si el nivel está habilitado.
+    @Override
+    public void log(Nivel nivel, String plantilla, Object... argumentos) {
+        Level nivelJul = nivel.getNivelJul();
+        if (logger.isLoggable(nivelJul)) {
+            logger.log(nivelJul, completar(plantilla, argumentos));
+        }
+    }
+
+    @Override
+    public boolean isHabilitado(Nivel nivel) {
+        return logger.isLoggable(nivel.getNivelJul());
+    }
+
+    // Reemplaza cada '{}' de la plantilla por el siguiente argumento; los marcadores sin argumento quedan como están.
+    static String completar(String plantilla, Object... argumentos) {
+        if (argumentos == null || argumentos.length == 0) {
+            return plantilla;
+        }
+        StringBuilder texto = new StringBuilder(plantilla.length() + 16 * argumentos.length);
+        int desde = 0;
+        int argumento = 0;
+        int marcador;
+        while (argumento < argumentos.length && (marcador = plantilla.indexOf("{}", desde)) >= 0) {
+            texto.append(plantilla, desde, marcador).append(argumentos[argumento++]);
+            desde = marcador + 2;
         }
+        return texto.append(plantilla, desde, plantilla.length()).toString();
     }
 }
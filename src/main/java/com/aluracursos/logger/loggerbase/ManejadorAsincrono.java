@@ -0,0 +1,170 @@
+package com.aluracursos.logger.loggerbase;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+// Manejador (Handler) de java.util.logging que no escribe en el hilo que registra el mensaje.
+// Los registros se encolan en un búfer circular acotado y un hilo en segundo plano los toma por lotes,
+// y los escribe en la salida, un mensaje por línea, con una sola escritura y un solo flush por lote.
+// Si el búfer se llena, se aplica la política de desborde configurada.
+public class ManejadorAsincrono extends Handler {
+
+    // Qué hacer cuando el búfer está lleno.
+    public enum PoliticaDesborde {
+        // El hilo que registra espera a que haya lugar: no se pierde ningún mensaje.
+        BLOQUEAR,
+        // Se descarta el mensaje nuevo.
+        DESCARTAR_NUEVOS,
+        // Se descarta el mensaje más antiguo del búfer para hacer lugar al nuevo.
+        DESCARTAR_ANTIGUOS
+    }
+
+    // Instancia compartida por todos los LoggerBaseImpl, configurada con propiedades del sistema:
+    // -Dliteratura.log.capacidad=8192 -Dliteratura.log.lote=256 -Dliteratura.log.desborde=BLOQUEAR
+    private static final ManejadorAsincrono COMPARTIDO = new ManejadorAsincrono(
+            System.err, // Misma salida que el ConsoleHandler usado anteriormente
+            Integer.getInteger("literatura.log.capacidad", 8192),
+            Integer.getInteger("literatura.log.lote", 256),
+            PoliticaDesborde.valueOf(System.getProperty("literatura.log.desborde", "BLOQUEAR").toUpperCase(Locale.ROOT)));
+
+    static {
+        // Al terminar la aplicación se escriben los mensajes que queden en el búfer.
+        Runtime.getRuntime().addShutdownHook(new Thread(COMPARTIDO::close, "logger-cierre"));
+    }
+
+    private final PrintStream salida;
+    private final BlockingQueue<LogRecord> bufer;
+    private final int tamanioLote;
+    private final PoliticaDesborde politica;
+    private final Thread escritor;
+    // Mensajes descartados por desborde que todavía no se informaron en la salida.
+    private final AtomicLong descartados = new AtomicLong();
+    // Mensajes encolados y escritos, para poder esperar a que el búfer se vacíe.
+    private final AtomicLong encolados = new AtomicLong();
+    private final AtomicLong escritos = new AtomicLong();
+    private volatile boolean cerrado;
+
+    public ManejadorAsincrono(PrintStream salida, int capacidad, int tamanioLote, PoliticaDesborde politica) {
+        this.salida = salida;
+        this.bufer = new ArrayBlockingQueue<>(capacidad); // Arreglo circular de tamaño fijo
+        this.tamanioLote = tamanioLote;
+        this.politica = politica;
+        this.escritor = Thread.ofPlatform().daemon().name("logger-escritor").start(this::escribirLotes);
+    }
+
+    // Devuelve el manejador compartido por todos los loggers de la aplicación.
+    public static ManejadorAsincrono compartido() {
+        return COMPARTIDO;
+    }
+
+    // Método que encola el registro sin escribirlo; no hace E/S en el hilo que llama.
+    @Override
+    public void publish(LogRecord record) {
+        if (cerrado || !isLoggable(record)) {
+            return;
+        }
+        boolean encolado = switch (politica) {
+            case BLOQUEAR -> encolarEsperando(record);
+            case DESCARTAR_NUEVOS -> bufer.offer(record);
+            case DESCARTAR_ANTIGUOS -> encolarDescartandoAntiguos(record);
+        };
+        if (encolado) {
+            encolados.incrementAndGet();
+        } else {
+            descartados.incrementAndGet();
+        }
+    }
+
+    // Método que espera a que el hilo escritor haya escrito todo lo encolado hasta el momento.
+    @Override
+    public void flush() {
+        long objetivo = encolados.get();
+        while (escritos.get() < objetivo && escritor.isAlive()) {
+            LockSupport.parkNanos(100_000); // El escritor suele terminar en microsegundos
+        }
+    }
+
+    // Método que deja de aceptar mensajes y escribe los pendientes.
+    @Override
+    public void close() {
+        if (cerrado) {
+            return;
+        }
+        flush();
+        cerrado = true;
+        escritor.interrupt();
+    }
+
+    // Cantidad de mensajes descartados por desborde que todavía no se informaron.
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    private boolean encolarEsperando(LogRecord record) {
+        try {
+            bufer.put(record);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restablecer el estado de interrupción
+            return false;
+        }
+    }
+
+    private boolean encolarDescartandoAntiguos(LogRecord record) {
+        while (!bufer.offer(record)) {
+            if (bufer.poll() != null) {
+                descartados.incrementAndGet();
+                escritos.incrementAndGet(); // El descartado ya no se va a escribir
+            }
+        }
+        return true;
+    }
+
+    // Bucle del hilo escritor: espera el primer registro y se lleva junto con él todos los que ya estén encolados.
+    private void escribirLotes() {
+        List<LogRecord> lote = new ArrayList<>(tamanioLote);
+        StringBuilder texto = new StringBuilder(8192);
+        while (!cerrado || !bufer.isEmpty()) {
+            try {
+                LogRecord primero = bufer.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                bufer.drainTo(lote, tamanioLote - 1);
+            } catch (InterruptedException e) {
+                if (bufer.drainTo(lote, tamanioLote) == 0) { // Al cerrar se escribe lo que quede
+                    return;
+                }
+            }
+            escribir(lote, texto);
+        }
+    }
+
+    private void escribir(List<LogRecord> lote, StringBuilder texto) {
+        long perdidos = descartados.getAndSet(0);
+        if (perdidos > 0) {
+            texto.append("[logger] ").append(perdidos).append(" mensajes descartados por desborde del búfer").append(System.lineSeparator());
+        }
+        for (LogRecord record : lote) {
+            texto.append(record.getMessage()).append(System.lineSeparator()); // Formato simple: el mensaje y un salto de línea
+        }
+        salida.print(texto); // Una escritura y un flush por lote
+        salida.flush();
+        escritos.addAndGet(lote.size());
+        lote.clear();
+        texto.setLength(0);
+        if (texto.capacity() > 1 << 20) { // No retener un búfer enorme después de un mensaje muy largo
+            texto.trimToSize();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.aluracursos.logger.loggerbase;
+
+import java.util.logging.Level;
+
+// Niveles de registro de LoggerBase, cada uno asociado a su nivel equivalente de java.util.logging.
+public enum Nivel {
+    DEBUG(Level.FINE),
+    INFO(Level.INFO),
+    WARN(Level.WARNING),
+    ERROR(Level.SEVERE);
+
+    // Nivel de java.util.logging con el que se publica el mensaje.
+    private final Level nivelJul;
+
+    Nivel(Level nivelJul) {
+        this.nivelJul = nivelJul;
+    }
+
+    public Level getNivelJul() {
+        return nivelJul;
+    }
+}
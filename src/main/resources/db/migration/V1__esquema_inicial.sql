@@ -0,0 +1,50 @@
+-- Esquema inicial, equivalente al que generaba Hibernate con ddl-auto=update.
+-- Todas las sentencias usan IF NOT EXISTS para que también se pueda aplicar sobre bases ya existentes.
+
+CREATE SEQUENCE IF NOT EXISTS libros_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS autores_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS libros (
+    id               BIGINT       NOT NULL PRIMARY KEY,
+    titulo           VARCHAR(255) NOT NULL UNIQUE,
+    numero_descargas INTEGER      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS autores (
+    id                 BIGINT       NOT NULL PRIMARY KEY,
+    nombre             VARCHAR(255) NOT NULL UNIQUE,
+    anio_nacimiento    INTEGER      NOT NULL,
+    anio_fallecimiento INTEGER      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS libro_autor (
+    libro_id BIGINT NOT NULL REFERENCES libros (id),
+    autor_id BIGINT NOT NULL REFERENCES autores (id)
+);
+
+CREATE TABLE IF NOT EXISTS libro_idiomas (
+    libro_id BIGINT NOT NULL REFERENCES libros (id),
+    idioma   VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS estadisticas_catalogo (
+    id                BIGINT  NOT NULL PRIMARY KEY,
+    total_libros      BIGINT  NOT NULL,
+    descargas_totales BIGINT  NOT NULL,
+    max_descargas     INTEGER NOT NULL,
+    min_descargas     INTEGER NOT NULL,
+    total_autorias    BIGINT  NOT NULL,
+    max_autores       BIGINT  NOT NULL,
+    min_autores       BIGINT  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_libro_autor_libro ON libro_autor (libro_id);
+CREATE INDEX IF NOT EXISTS idx_libro_autor_autor ON libro_autor (autor_id);
+CREATE INDEX IF NOT EXISTS idx_libro_idiomas_libro ON libro_idiomas (libro_id);
+CREATE INDEX IF NOT EXISTS idx_libros_descargas_id ON libros (numero_descargas, id);
+CREATE INDEX IF NOT EXISTS idx_autores_nombre_id ON autores (nombre, id);
+
+-- En bases creadas cuando los ids eran IDENTITY las secuencias empiezan en 1:
+-- se adelantan por encima del mayor id existente (setval nunca las hace retroceder).
+SELECT setval('libros_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM libros) + 1, (SELECT last_value FROM libros_seq)));
+SELECT setval('autores_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM autores) + 1, (SELECT last_value FROM autores_seq)));
@@ -0,0 +1,8 @@
+-- Índices para las búsquedas sin distinguir mayúsculas.
+-- Las consultas filtran por LOWER(columna), que los índices UNIQUE sobre la columna no pueden usar.
+CREATE INDEX IF NOT EXISTS idx_libros_titulo_lower ON libros (lower(titulo));
+CREATE INDEX IF NOT EXISTS idx_autores_nombre_lower ON autores (lower(nombre));
+
+-- Búsqueda parcial de autores (LOWER(nombre) LIKE '%...%'): índice GIN de trigramas
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_autores_nombre_trgm ON autores USING gin (lower(nombre) gin_trgm_ops);
@@ -0,0 +1,24 @@
+-- Los idiomas de cada libro pasan de la tabla libro_idiomas a una máscara de bits en libros.idiomas.
+-- El bit de cada idioma es su posición en el enum Languages: EN=1, ES=2, FR=4, DE=8, IT=16, PT=32.
+ALTER TABLE libros ADD COLUMN IF NOT EXISTS idiomas INTEGER NOT NULL DEFAULT 0;
+
+UPDATE libros l
+SET idiomas = m.mascara
+FROM (SELECT libro_id,
+             bit_or(CASE idioma
+                        WHEN 'EN' THEN 1
+                        WHEN 'ES' THEN 2
+                        WHEN 'FR' THEN 4
+                        WHEN 'DE' THEN 8
+                        WHEN 'IT' THEN 16
+                        WHEN 'PT' THEN 32
+                        ELSE 0
+                 END) AS mascara
+      FROM libro_idiomas
+      GROUP BY libro_id) m
+WHERE m.libro_id = l.id;
+
+DROP TABLE libro_idiomas;
+
+-- Los filtros por idioma se expresan como "idiomas IN (máscaras que incluyen los idiomas pedidos)"
+CREATE INDEX IF NOT EXISTS idx_libros_idiomas ON libros (idiomas);
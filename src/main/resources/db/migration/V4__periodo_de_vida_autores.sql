@@ -0,0 +1,19 @@
+-- Los años desconocidos se guardaban como 0, lo que mezclaba "sin dato" con un año real en las consultas.
+-- A partir de ahora se guardan como NULL.
+ALTER TABLE autores ALTER COLUMN anio_nacimiento DROP NOT NULL;
+ALTER TABLE autores ALTER COLUMN anio_fallecimiento DROP NOT NULL;
+UPDATE autores SET anio_nacimiento = NULL WHERE anio_nacimiento = 0;
+UPDATE autores SET anio_fallecimiento = NULL WHERE anio_fallecimiento = 0;
+
+-- Período de vida [nacimiento, fallecimiento) como rango, sin límite superior si no hay año de fallecimiento.
+-- Sin año de nacimiento (o con años incoherentes) el período es NULL y el autor no aparece en las búsquedas por año.
+ALTER TABLE autores ADD COLUMN vida int4range GENERATED ALWAYS AS (
+    CASE
+        WHEN anio_nacimiento IS NULL OR anio_fallecimiento < anio_nacimiento THEN NULL
+        ELSE int4range(anio_nacimiento, anio_fallecimiento, '[)')
+    END) STORED;
+
+-- "Vivo en el año X" y "vivo entre X e Y" se resuelven con el índice GiST del rango
+CREATE INDEX IF NOT EXISTS idx_autores_vida ON autores USING gist (vida);
+-- "Fallecido en el año X"
+CREATE INDEX IF NOT EXISTS idx_autores_fallecimiento ON autores (anio_fallecimiento);
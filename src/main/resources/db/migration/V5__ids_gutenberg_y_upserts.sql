@@ -0,0 +1,36 @@
+-- Los libros se identifican por su id de Project Gutenberg (el 'id' de Gutendex), que es la clave de las altas
+-- con INSERT ... ON CONFLICT. Los libros registrados antes de esta versión no lo tienen (NULL) y lo reciben
+-- la próxima vez que se importan, si su título coincide.
+ALTER TABLE libros ADD COLUMN IF NOT EXISTS gutenberg_id INTEGER;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_libros_gutenberg_id ON libros (gutenberg_id);
+
+-- Dos obras distintas pueden tener el mismo título: se quita la restricción UNIQUE (su nombre depende de
+-- quién creó la tabla). Las búsquedas por título siguen usando idx_libros_titulo_lower.
+DO $$
+DECLARE
+    restriccion TEXT;
+BEGIN
+    FOR restriccion IN
+        SELECT c.conname
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attname = 'titulo'
+        WHERE c.conrelid = 'libros'::regclass AND c.contype = 'u' AND c.conkey = ARRAY[a.attnum]
+    LOOP
+        EXECUTE format('ALTER TABLE libros DROP CONSTRAINT %I', restriccion);
+    END LOOP;
+END $$;
+
+-- Clave primaria en libro_autor para poder insertar las relaciones con ON CONFLICT DO NOTHING.
+-- Primero se eliminan las filas repetidas, si las hubiera.
+DELETE FROM libro_autor a
+USING libro_autor b
+WHERE a.libro_id = b.libro_id AND a.autor_id = b.autor_id AND a.ctid > b.ctid;
+
+ALTER TABLE libro_autor ADD PRIMARY KEY (libro_id, autor_id);
+
+-- La clave primaria ya sirve para buscar por libro_id
+DROP INDEX IF EXISTS idx_libro_autor_libro;
+
+-- Libros que todavía esperan su id de Gutenberg, buscados por título en cada alta. Una vez asignados
+-- todos, el índice queda vacío y esa búsqueda no cuesta nada.
+CREATE INDEX IF NOT EXISTS idx_libros_titulo_sin_gutenberg ON libros (lower(titulo)) WHERE gutenberg_id IS NULL;
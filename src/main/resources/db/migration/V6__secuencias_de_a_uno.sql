@@ -0,0 +1,14 @@
+-- Las altas toman los ids con nextval dentro de los INSERT por conjuntos (RegistroLibroService, ResolutorAutores),
+-- sin el generador de Hibernate que repartía bloques de 50: con INCREMENT BY 50 cada libro o autor nuevo
+-- gastaba un bloque entero (1, 51, 101, ...). Desde aquí las secuencias avanzan de a uno.
+-- El próximo valor queda después del mayor id y de todo el bloque que pudo haber tomado Hibernate con el
+-- optimizador pooled-lo (last_value .. last_value + 49), para no repetir ninguno ya asignado.
+ALTER SEQUENCE libros_seq INCREMENT BY 1;
+SELECT setval('libros_seq', GREATEST(ultimo, 1), ultimo > 0) -- Con tabla y secuencia sin usar, el próximo es 1
+FROM (SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM libros),
+                      (SELECT CASE WHEN is_called THEN last_value + 49 ELSE 0 END FROM libros_seq)) AS ultimo) reservado;
+
+ALTER SEQUENCE autores_seq INCREMENT BY 1;
+SELECT setval('autores_seq', GREATEST(ultimo, 1), ultimo > 0) -- Con tabla y secuencia sin usar, el próximo es 1
+FROM (SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM autores),
+                      (SELECT CASE WHEN is_called THEN last_value + 49 ELSE 0 END FROM autores_seq)) AS ultimo) reservado;
@@ -0,0 +1,138 @@
+package com.aluracursos.literatura;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Mide el arranque de la aplicación empaquetada como la usa una persona: desde que se lanza el proceso hasta que
+// aparece el menú y hasta que se imprime el primer libro de la opción 2 (primera consulta a la base). Compara el
+// jar normal, el perfil 'arranque-rapido' sin preprocesar y el jar con Spring AOT y AppCDS del perfil de Maven.
+// Usa la base configurada en las variables de entorno (DB_HOST, DB_NAME_BOOK, DB_USER, DB_PASSWORD).
+// Se ejecuta con:
+// ./mvnw -Parranque-rapido package -DskipTests
+// ./mvnw test -Dtest=ArranqueRendimientoTest -Dbenchmark=true [-Darranque.repeticiones=5]
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ArranqueRendimientoTest {
+
+    private static final Path JAR = Path.of("target/literatura-0.0.1-SNAPSHOT.jar");
+    private static final Path DIRECTORIO_CDS = Path.of("target/arranque-rapido");
+    private static final String ARCHIVO_CDS = "literatura.jsa";
+
+    // Comienzo de las líneas que marcan el menú y el primer libro listado (sin acentos, por la codificación de la consola)
+    private static final String MARCA_MENU = "Escribe una opci";
+    private static final String MARCA_LIBRO = "------Libro------";
+
+    // Sin volcar métricas en el directorio del usuario durante las mediciones
+    private static final List<String> ARGUMENTOS = List.of("--literatura.metricas.archivo=");
+
+    private static final long ESPERA_MAXIMA_SEGUNDOS = 180;
+
+    private record Configuracion(String nombre, Path directorio, List<String> opcionesJvm, Path jar) {
+    }
+
+    private record Medicion(double menu, double primeraConsulta) {
+    }
+
+    @Test
+    void tiempoHastaElMenuYLaPrimeraConsulta() throws Exception {
+        Assumptions.assumeTrue(Files.isRegularFile(JAR), "Falta " + JAR + ": ejecutar antes ./mvnw package -DskipTests");
+        int repeticiones = Integer.getInteger("arranque.repeticiones", 3);
+
+        List<Configuracion> configuraciones = new ArrayList<>();
+        configuraciones.add(new Configuracion("normal", Path.of("."), List.of(), JAR.toAbsolutePath()));
+        configuraciones.add(new Configuracion("perfil arranque-rapido", Path.of("."),
+                List.of("-Dspring.profiles.active=arranque-rapido"), JAR.toAbsolutePath()));
+        if (Files.isRegularFile(DIRECTORIO_CDS.resolve(ARCHIVO_CDS))) {
+            configuraciones.add(new Configuracion("AOT + AppCDS", DIRECTORIO_CDS,
+                    List.of("-XX:SharedArchiveFile=" + ARCHIVO_CDS, "-Dspring.aot.enabled=true",
+                            "-Dspring.profiles.active=arranque-rapido"),
+                    DIRECTORIO_CDS.resolve(JAR.getFileName()).toAbsolutePath()));
+        } else {
+            System.out.println("Sin " + DIRECTORIO_CDS.resolve(ARCHIVO_CDS) + " (./mvnw -Parranque-rapido package): se omite AOT + AppCDS");
+        }
+
+        medir(configuraciones.getFirst()); // Calentar la caché de archivos del sistema y la instantánea del catálogo
+        System.out.println("Configuración           | menú (mediana) | primera consulta (mediana) | repeticiones");
+        for (Configuracion configuracion : configuraciones) {
+            double[] menu = new double[repeticiones];
+            double[] consulta = new double[repeticiones];
+            for (int i = 0; i < repeticiones; i++) {
+                Medicion medicion = medir(configuracion);
+                menu[i] = medicion.menu();
+                consulta[i] = medicion.primeraConsulta();
+            }
+            System.out.printf("%-23s | %11.0f ms | %23.0f ms | %d%n",
+                    configuracion.nombre(), mediana(menu), mediana(consulta), repeticiones);
+        }
+    }
+
+    // Lanza el proceso, elige la opción 2 al ver el menú y sale con la opción 0 al ver el primer libro
+    private static Medicion medir(Configuracion configuracion) throws Exception {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(configuracion.opcionesJvm());
+        comando.add("-jar");
+        comando.add(configuracion.jar().toString());
+        comando.addAll(ARGUMENTOS);
+
+        CompletableFuture<Long> menu = new CompletableFuture<>();
+        CompletableFuture<Long> libro = new CompletableFuture<>();
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando)
+                .directory(configuracion.directorio().toFile())
+                .redirectErrorStream(true)
+                .start();
+        Thread lector = Thread.ofVirtual().start(() -> {
+            try (BufferedReader salida = new BufferedReader(new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = salida.readLine()) != null) {
+                    if (linea.contains(MARCA_MENU)) {
+                        menu.complete(System.nanoTime());
+                    } else if (linea.contains(MARCA_LIBRO)) {
+                        libro.complete(System.nanoTime());
+                    }
+                }
+            } catch (IOException e) {
+                menu.completeExceptionally(e);
+                libro.completeExceptionally(e);
+            }
+            menu.completeExceptionally(new IllegalStateException("El proceso terminó sin mostrar el menú"));
+            libro.completeExceptionally(new IllegalStateException("El proceso terminó sin listar libros"));
+        });
+
+        try (Writer entrada = proceso.outputWriter(StandardCharsets.UTF_8)) {
+            long alMenu = menu.get(ESPERA_MAXIMA_SEGUNDOS, TimeUnit.SECONDS);
+            entrada.write("2\n");
+            entrada.flush();
+            long alLibro = libro.get(ESPERA_MAXIMA_SEGUNDOS, TimeUnit.SECONDS);
+            entrada.write("\n0\n"); // Volver al menú desde el paginador y salir
+            entrada.flush();
+            assertTrue(proceso.waitFor(ESPERA_MAXIMA_SEGUNDOS, TimeUnit.SECONDS), "El proceso no terminó");
+            return new Medicion((alMenu - inicio) / 1e6, (alLibro - inicio) / 1e6);
+        } finally {
+            proceso.destroyForcibly();
+            lector.join();
+        }
+    }
+
+    private static double mediana(double[] valores) {
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        return ordenados[ordenados.length / 2];
+    }
+}
@@ -0,0 +1,157 @@
+package com.aluracursos.literatura.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Prueba de carga de la API REST (perfil 'servidor'): para cada nivel de concurrencia, N clientes en hilos virtuales
+// piden durante unos segundos una mezcla de listados, búsquedas, rankings y estadísticas. Informa las solicitudes por
+// segundo y la latencia p50/p99 de cada nivel, y el mayor rendimiento cuyo p99 no supera el objetivo.
+// Se ejecuta con: ./mvnw test -Dtest=ApiRestCargaTest -Dbenchmark=true
+// Parámetros opcionales: -Dcarga.niveles=8,16,32,64,128 -Dcarga.segundos=5 -Dcarga.p99-objetivo-ms=50
+// Solo lee: no registra libros.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=servlet",
+        "literatura.menu.habilitado=false",
+        "literatura.cache.habilitada=false",
+        "spring.jpa.open-in-view=false",
+        "logging.level.org.hibernate.type.descriptor.sql=INFO"
+})
+class ApiRestCargaTest {
+
+    private static final int[] NIVELES = Arrays.stream(System.getProperty("carga.niveles", "8,16,32,64,128").split(","))
+            .mapToInt(nivel -> Integer.parseInt(nivel.strip()))
+            .toArray();
+    private static final Duration DURACION_NIVEL = Duration.ofSeconds(Long.getLong("carga.segundos", 5));
+    private static final double P99_OBJETIVO_MS = Double.parseDouble(System.getProperty("carga.p99-objetivo-ms", "50"));
+
+    // Mezcla de lecturas: las mismas consultas que hacen las opciones de listado del menú
+    private static final List<String> RUTAS = List.of(
+            "/api/libros?limite=20",
+            "/api/libros?idioma=en&limite=20",
+            "/api/libros/top",
+            "/api/libros/top?idioma=es",
+            "/api/libros/busqueda?titulo=libro&limite=10",
+            "/api/libros/estadisticas",
+            "/api/autores?limite=20",
+            "/api/autores/vivos?anio=1800&limite=20",
+            "/api/autores/vivos?desde=1700&hasta=1750&limite=20",
+            "/api/autores/fallecidos?anio=1850&limite=20",
+            "/api/autores/busqueda?nombre=autor1");
+
+    @LocalServerPort
+    private int puerto;
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    // Resultado de un nivel de concurrencia
+    private record Nivel(int clientes, int solicitudes, int errores, double segundos, long[] latencias) {
+
+        double solicitudesPorSegundo() {
+            return solicitudes / segundos;
+        }
+
+        // Percentil por rango más cercano, en milisegundos
+        double percentil(double percentil) {
+            int indice = (int) Math.ceil(percentil / 100 * latencias.length) - 1;
+            return latencias[Math.max(indice, 0)] / 1e6;
+        }
+    }
+
+    @Test
+    void respuestaNoModificadaConEtag() throws Exception {
+        HttpResponse<String> primera = enviar(solicitud("/api/libros?limite=5").build());
+        assertEquals(200, primera.statusCode());
+        String etag = primera.headers().firstValue("ETag").orElseThrow();
+        assertTrue(primera.headers().firstValue("Cache-Control").orElseThrow().contains("max-age"));
+
+        HttpResponse<String> segunda = enviar(solicitud("/api/libros?limite=5").header("If-None-Match", etag).build());
+        assertEquals(304, segunda.statusCode());
+    }
+
+    @Test
+    void rendimientoPorNivelDeConcurrencia() throws Exception {
+        for (String ruta : RUTAS) {
+            enviar(solicitud(ruta).build()); // Calentamiento: compilación JIT, pool de conexiones y planes de las consultas
+        }
+
+        Nivel mejor = null;
+        System.out.printf("%8s %12s %10s %10s %8s%n", "clientes", "solicitudes/s", "p50 ms", "p99 ms", "errores");
+        for (int clientes : NIVELES) {
+            Nivel nivel = medir(clientes);
+            System.out.printf("%8d %12.0f %10.1f %10.1f %8d%n", clientes, nivel.solicitudesPorSegundo(),
+                    nivel.percentil(50), nivel.percentil(99), nivel.errores());
+            assertEquals(0, nivel.errores());
+            if (nivel.percentil(99) <= P99_OBJETIVO_MS
+                    && (mejor == null || nivel.solicitudesPorSegundo() > mejor.solicitudesPorSegundo())) {
+                mejor = nivel;
+            }
+        }
+        if (mejor == null) {
+            System.out.printf("Ningún nivel mantiene el p99 por debajo de %.0f ms%n", P99_OBJETIVO_MS);
+        } else {
+            System.out.printf("Máximo rendimiento con p99 <= %.0f ms: %.0f solicitudes/s con %d clientes%n",
+                    P99_OBJETIVO_MS, mejor.solicitudesPorSegundo(), mejor.clientes());
+        }
+    }
+
+    private Nivel medir(int clientes) throws Exception {
+        AtomicInteger errores = new AtomicInteger();
+        List<Future<List<Long>>> futuros = new ArrayList<>(clientes);
+        long inicio = System.nanoTime();
+        long fin = inicio + DURACION_NIVEL.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clientes; c++) {
+                futuros.add(executor.submit(() -> {
+                    List<Long> latencias = new ArrayList<>();
+                    while (System.nanoTime() < fin) {
+                        String ruta = RUTAS.get(ThreadLocalRandom.current().nextInt(RUTAS.size()));
+                        long t0 = System.nanoTime();
+                        if (enviar(solicitud(ruta).build()).statusCode() != 200) {
+                            errores.incrementAndGet();
+                        }
+                        latencias.add(System.nanoTime() - t0);
+                    }
+                    return latencias;
+                }));
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        List<Long> todas = new ArrayList<>();
+        for (Future<List<Long>> futuro : futuros) {
+            todas.addAll(futuro.get());
+        }
+        long[] latencias = todas.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Nivel(clientes, latencias.length, errores.get(), segundos, latencias);
+    }
+
+    private HttpRequest.Builder solicitud(String ruta) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta)).GET();
+    }
+
+    private HttpResponse<String> enviar(HttpRequest solicitud) throws Exception {
+        return cliente.send(solicitud, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,44 @@
+package com.aluracursos.literatura.menu;
+
+import com.aluracursos.literatura.model.AutorResumen;
+import com.aluracursos.literatura.model.Languages;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Armado del texto de las fichas de libro y autor que imprime el menú.
+// Se ejecuta con: ./mvnw -Pbenchmark verify -Djmh.filtro=MenuPrincipalBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuPrincipalBenchmark {
+
+    private record Autor(Long getId, String getNombre, Integer getAnioNacimiento, Integer getAnioFallecimiento)
+            implements AutorResumen {
+    }
+
+    private final int mascaraIdiomas = Languages.mascara(List.of(Languages.ES, Languages.EN));
+    private final AutorResumen autor = new Autor(1L, "Cervantes Saavedra, Miguel de", 1547, 1616);
+
+    @Benchmark
+    public String formatearLibro() {
+        return MenuPrincipal.formatearLibro("Don Quijote", "Cervantes Saavedra, Miguel de, Ormsby, John", mascaraIdiomas, 12345);
+    }
+
+    @Benchmark
+    public String formatearAutor() {
+        return MenuPrincipal.formatearAutor(autor);
+    }
+}
@@ -0,0 +1,30 @@
+package com.aluracursos.literatura.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LanguagesTest {
+
+    @Test
+    void reconoceCodigosYNombresSinImportarMayusculasNiTildes() {
+        assertEquals(Languages.FR, Languages.fromInput("fr"));
+        assertEquals(Languages.FR, Languages.fromInput("French"));
+        assertEquals(Languages.FR, Languages.fromInput("FRANCÉS"));
+        assertEquals(Languages.FR, Languages.fromInput(" frances "));
+        assertEquals(Languages.ES, Languages.fromInput("español"));
+        assertThrows(IllegalArgumentException.class, () -> Languages.fromInput("klingon"));
+    }
+
+    @Test
+    void lasMascarasConservanLosIdiomas() {
+        int mascara = Languages.mascara(List.of(Languages.PT, Languages.EN));
+        assertEquals(List.of(Languages.EN, Languages.PT), Languages.desdeMascara(mascara));
+        assertEquals(List.of(mascara, mascara | Languages.ES.bit()),
+                Languages.mascarasQueIncluyen(mascara).subList(0, 2)); // Las que incluyen EN y PT, en orden creciente
+        assertEquals(16, Languages.mascarasQueIncluyen(mascara).size()); // Los otros 4 idiomas pueden estar o no
+    }
+}
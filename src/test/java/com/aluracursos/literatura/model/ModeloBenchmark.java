@@ -0,0 +1,49 @@
+package com.aluracursos.literatura.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Búsqueda de idiomas y construcción de entidades a partir de los datos de la API.
+// Se ejecuta con: ./mvnw -Pbenchmark verify -Djmh.filtro=ModeloBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModeloBenchmark {
+
+    // Código, nombre en inglés, nombre con tilde en mayúsculas y nombre sin tilde
+    @Param({"en", "Portuguese", "FRANCÉS", "espanol"})
+    public String entrada;
+
+    private final DatosAutor datosAutor = new DatosAutor("Cervantes Saavedra, Miguel de", 1547, 1616);
+    private final DatosLibro datosLibro = new DatosLibro(2000, "Don Quijote",
+            List.of(datosAutor, new DatosAutor("Ormsby, John", 1829, 1895)), List.of("es", "en"), 12345);
+
+    @Benchmark
+    public Languages fromInput() {
+        return Languages.fromInput(entrada);
+    }
+
+    @Benchmark
+    public Libro libroDesdeDatos() {
+        return new Libro(datosLibro);
+    }
+
+    @Benchmark
+    public Autor autorDesdeDatos() {
+        return new Autor(datosAutor);
+    }
+}
@@ -0,0 +1,125 @@
+package com.aluracursos.literatura.repository;
+
+import com.aluracursos.literatura.model.Languages;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Comprueba contra la base PostgreSQL configurada (DB_HOST, DB_NAME_BOOK, ...) que las búsquedas sin distinguir
+// mayúsculas y los filtros por idioma y por año usan los índices creados por las migraciones. Con enable_seqscan desactivado el planificador elige
+// un índice siempre que haya uno aplicable, así que el resultado casi no depende de la cantidad de filas.
+// Cada prueba ejecuta el método del repositorio y analiza con EXPLAIN la sentencia que Hibernate envió a la base,
+// con los mismos parámetros: si cambia la consulta del repositorio, cambia lo que se comprueba.
+@Transactional
+@SpringBootTest(properties = {
+        "literatura.menu.habilitado=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.aluracursos.literatura.repository.PlanConsultasTest$SentenciasEmitidas"
+})
+class PlanConsultasTest {
+
+    // Guarda las sentencias SQL que Hibernate prepara, tal como las envía a la base
+    public static class SentenciasEmitidas implements StatementInspector {
+
+        private static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private AutorRepository autorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void desactivarSeqScan() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off"); // Solo para la transacción del test
+    }
+
+    @Test
+    void buscarLibroPorTituloUsaElIndiceLower() {
+        assertUsaIndice(() -> libroRepository.findByTituloLibro("Don Quijote"), "idx_libros_titulo_lower", "Don Quijote");
+    }
+
+    @Test
+    void buscarLibroPorIdGutenbergUsaSuIndiceUnico() {
+        assertUsaIndice(() -> libroRepository.findByGutenbergId(2000), "idx_libros_gutenberg_id", 2000);
+    }
+
+    @Test
+    void buscarAutorPorNombreUsaElIndiceLower() {
+        String nombre = "Cervantes Saavedra, Miguel de";
+        assertUsaIndice(() -> autorRepository.findByNombre(nombre), "idx_autores_nombre_lower", nombre);
+    }
+
+    @Test
+    void buscarAutorParcialUsaElIndiceDeTrigramas() {
+        String patron = AutorRepository.patronContiene("Saavedra, Miguel");
+        assertUsaIndice(() -> autorRepository.findByNombreParcial(patron), "idx_autores_nombre_trgm", patron);
+    }
+
+    @Test
+    void filtrarPorIdiomasUsaElIndiceDeLaMascara() { // FR y DE, primera página de 10
+        List<Integer> mascaras = Languages.mascarasQueIncluyen(Languages.FR.bit() | Languages.DE.bit());
+        List<Object> parametros = new ArrayList<>(mascaras);
+        parametros.addAll(List.of(Integer.MAX_VALUE, Long.MAX_VALUE, 10));
+        assertUsaIndice(() -> libroRepository.findLibrosPorIdioma(mascaras, Integer.MAX_VALUE, Long.MAX_VALUE, PageRequest.of(0, 10)),
+                "idx_libros_idiomas", parametros.toArray());
+    }
+
+    // Con un año en el que vivieron muchos autores del catálogo, recorrer el índice por nombre y filtrar hasta
+    // completar la página es el mejor plan; el índice del período de vida sirve cuando el filtro es selectivo
+    @Test
+    void autoresVivosEnUnAnioUsanElIndiceDelPeriodoDeVida() {
+        assertUsaIndice(() -> autorRepository.findAutoresVivosEnAnio(1000, "", 0L, PageRequest.of(0, 10)),
+                "idx_autores_vida", 1000, "", 0L, 10);
+    }
+
+    @Test
+    void autoresVivosEnUnPeriodoUsanElIndiceDelPeriodoDeVida() {
+        assertUsaIndice(() -> autorRepository.findAutoresVivosEntre(1000, 1005, "", 0L, PageRequest.of(0, 10)),
+                "idx_autores_vida", 1000, 1005, "", 0L, 10);
+    }
+
+    @Test
+    void autoresFallecidosEnUnAnioUsanElIndiceDelAnio() {
+        assertUsaIndice(() -> autorRepository.findAutoresPorAnioFallecimiento(1900, "", 0L, PageRequest.of(0, 10)),
+                "idx_autores_fallecimiento", 1900, "", 0L, 10);
+    }
+
+    @Test
+    void losMasDescargadosSeLeenDelIndiceSinOrdenarLaTabla() { // Carga del ranking
+        assertUsaIndice(() -> libroRepository.findTopLibros(PageRequest.of(0, 10)), "idx_libros_descargas_id", 10);
+    }
+
+    // Ejecuta la consulta del repositorio y analiza la última sentencia emitida con los parámetros dados, en orden
+    private void assertUsaIndice(Runnable consulta, String indice, Object... parametros) {
+        SentenciasEmitidas.SENTENCIAS.clear();
+        consulta.run();
+        assertFalse(SentenciasEmitidas.SENTENCIAS.isEmpty(), "El repositorio no envió ninguna consulta");
+        String sql = SentenciasEmitidas.SENTENCIAS.getLast();
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parametros));
+        assertFalse(plan.contains("Seq Scan"), "La consulta recorre la tabla completa:\n" + sql + "\n" + plan);
+        assertTrue(plan.contains(indice), "La consulta no usa " + indice + ":\n" + sql + "\n" + plan);
+    }
+}
@@ -0,0 +1,86 @@
+package com.aluracursos.literatura.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheRespuestasApiTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void normalizaLasVariantesDeUnaMismaUrl() {
+        assertEquals(CacheRespuestasApi.normalizar("https://gutendex.com/books/?search=Don+Quijote&page=2"),
+                CacheRespuestasApi.normalizar("HTTPS://Gutendex.com/books?PAGE=2&Search=Don%20Quijote"));
+    }
+
+    @Test
+    void conservaLasMayusculasDeLosValores() {
+        assertNotEquals(CacheRespuestasApi.normalizar("https://gutendex.com/books?ids=1&search=Emma"),
+                CacheRespuestasApi.normalizar("https://gutendex.com/books?ids=1&search=emma"));
+    }
+
+    @Test
+    void alSuperarElTamanioMaximoBorraLasEntradasMasAntiguasDelDisco() throws IOException {
+        CacheRespuestasApi cache = new CacheRespuestasApi(true, false, 1, Duration.ofHours(1), directorio, DataSize.ofKilobytes(10));
+        String cuerpo = "x".repeat(1000);
+        for (int i = 0; i < 20; i++) {
+            cache.guardar("https://gutendex.com/books?page=" + i, cuerpo);
+        }
+
+        long bytes;
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            bytes = archivos.mapToLong(archivo -> archivo.toFile().length()).sum();
+        }
+        assertTrue(bytes <= DataSize.ofKilobytes(10).toBytes(), "La caché ocupa " + bytes + " bytes");
+        assertTrue(bytes >= DataSize.ofKilobytes(5).toBytes(), "El barrido borró de más: quedan " + bytes + " bytes");
+    }
+
+    @Test
+    void expulsaLaEntradaMenosUsadaYLaRecuperaDelDisco() {
+        CacheRespuestasApi cache = new CacheRespuestasApi(true, false, 2, Duration.ofHours(1), directorio, DataSize.ofMegabytes(1));
+        cache.guardar("https://gutendex.com/books?search=a", "A");
+        cache.guardar("https://gutendex.com/books?search=b", "B");
+        cache.obtener("https://gutendex.com/books?search=a"); // 'b' pasa a ser la menos usada
+        cache.guardar("https://gutendex.com/books?search=c", "C");
+
+        assertEquals(1, cache.getEstadisticas().expulsiones());
+        assertEquals("B", cache.obtener("https://gutendex.com/books?search=b"));
+        assertEquals(1, cache.getEstadisticas().aciertosDisco());
+    }
+
+    @Test
+    void sobreviveAUnReinicioYRespetaElTtl() {
+        new CacheRespuestasApi(true, false, 10, Duration.ofHours(1), directorio, DataSize.ofMegabytes(1))
+                .guardar("https://gutendex.com/books?search=quijote", "{}");
+        new CacheRespuestasApi(true, false, 10, Duration.ZERO, directorio, DataSize.ofMegabytes(1))
+                .guardar("https://gutendex.com/books?search=expirado", "{}");
+
+        CacheRespuestasApi reiniciada = new CacheRespuestasApi(true, false, 10, Duration.ofHours(1), directorio, DataSize.ofMegabytes(1));
+        assertEquals("{}", reiniciada.obtener("https://gutendex.com/books?search=quijote"));
+        assertNull(reiniciada.obtener("https://gutendex.com/books?search=expirado"));
+        assertEquals(1, reiniciada.getEstadisticas().expiradas());
+    }
+
+    @Test
+    void elModoOfflineSirveRespuestasExpiradas() {
+        new CacheRespuestasApi(true, false, 10, Duration.ZERO, directorio, DataSize.ofMegabytes(1))
+                .guardar("https://gutendex.com/books?search=quijote", "{}");
+
+        CacheRespuestasApi offline = new CacheRespuestasApi(false, true, 10, Duration.ZERO, directorio, DataSize.ofMegabytes(1));
+        assertEquals("{}", offline.obtener("https://gutendex.com/books?search=quijote"));
+        assertNull(offline.obtener("https://gutendex.com/books?search=otro"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.aluracursos.literatura.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compara el rendimiento del cliente compartido frente al cliente creado en cada llamada.
+// Se ejecuta con: ./mvnw test -Dtest=ConsumoApiRendimientoTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConsumoApiRendimientoTest {
+
+    private static final int SOLICITUDES = 2_000;
+    private static final int CONCURRENCIA = 64;
+    private static final String RESPUESTA = "{\"count\":1,\"results\":[{\"title\":\"Don Quijote\",\"download_count\":1}]}";
+
+    private HttpServer servidor;
+    private String url;
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/books", intercambio -> {
+            byte[] cuerpo = RESPUESTA.getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().add("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.start();
+        url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/books?search=quijote";
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void clienteCompartidoFrenteAClientePorLlamada() throws Exception {
+        // Calentamiento de ambas variantes
+        medirClientePorLlamada(200);
+        try (ConsumoApi consumoApi = nuevoConsumoApi()) {
+            medirClienteCompartido(consumoApi, 200);
+        }
+
+        double porLlamada = medirClientePorLlamada(SOLICITUDES);
+        double compartido;
+        try (ConsumoApi consumoApi = nuevoConsumoApi()) {
+            compartido = medirClienteCompartido(consumoApi, SOLICITUDES);
+        }
+
+        System.out.printf("Cliente por llamada: %.0f solicitudes/s%n", porLlamada);
+        System.out.printf("Cliente compartido:  %.0f solicitudes/s (x%.1f)%n", compartido, compartido / porLlamada);
+    }
+
+    private ConsumoApi nuevoConsumoApi() {
+        return new ConsumoApi(Duration.ofSeconds(5), Duration.ofSeconds(20), CacheRespuestasApi.deshabilitada(), MedidorOperaciones.deshabilitado(),
+                PoliticaReintentos.sinReintentos(), LimitadorTasa.deshabilitado(),
+                LimitadorConcurrencia.fijo(64), PoliticaCobertura.deshabilitada());
+    }
+
+    private double medirClienteCompartido(ConsumoApi consumoApi, int solicitudes) {
+        Semaphore ventana = new Semaphore(CONCURRENCIA);
+        List<CompletableFuture<String>> futuros = new ArrayList<>(solicitudes);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < solicitudes; i++) {
+            ventana.acquireUninterruptibly();
+            String distinta = url + "&solicitud=" + i; // Las URL iguales se agruparían en una sola solicitud
+            futuros.add(consumoApi.obtenerDatosAsync(distinta).whenComplete((json, error) -> ventana.release()));
+        }
+        long correctas = futuros.stream().map(CompletableFuture::join).filter(RESPUESTA::equals).count();
+        long duracion = System.nanoTime() - inicio;
+        assertEquals(solicitudes, correctas);
+        return solicitudes / (duracion / 1e9);
+    }
+
+    // Reproduce el comportamiento anterior: un HttpClient nuevo y una llamada bloqueante por solicitud
+    private double medirClientePorLlamada(int solicitudes) {
+        Semaphore ventana = new Semaphore(CONCURRENCIA);
+        List<CompletableFuture<String>> futuros = new ArrayList<>(solicitudes);
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < solicitudes; i++) {
+                ventana.acquireUninterruptibly();
+                futuros.add(CompletableFuture.supplyAsync(this::obtenerConClienteNuevo, executor)
+                        .whenComplete((json, error) -> ventana.release()));
+            }
+            long correctas = futuros.stream().map(CompletableFuture::join).filter(RESPUESTA::equals).count();
+            long duracion = System.nanoTime() - inicio;
+            assertEquals(solicitudes, correctas);
+            return solicitudes / (duracion / 1e9);
+        }
+    }
+
+    private String obtenerConClienteNuevo() {
+        HttpClient client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create(url)).build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
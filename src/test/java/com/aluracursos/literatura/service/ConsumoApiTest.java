@@ -0,0 +1,200 @@
+package com.aluracursos.literatura.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsumoApiTest {
+
+    // Respuesta del servidor de prueba según el número de solicitud recibida (1, 2, ...)
+    @FunctionalInterface
+    private interface Respuesta {
+        void enviar(HttpExchange intercambio, int numero) throws IOException;
+    }
+
+    private final AtomicInteger solicitudes = new AtomicInteger();
+    private HttpServer servidor;
+
+    @AfterEach
+    void detenerServidor() {
+        if (servidor != null) {
+            servidor.stop(0);
+        }
+    }
+
+    @Test
+    void reintentaUn429DespuesDelRetryAfter() {
+        String url = iniciarServidor((intercambio, numero) -> {
+            if (numero == 1) {
+                intercambio.getResponseHeaders().add("Retry-After", "1");
+                responder(intercambio, 429, "{}");
+            } else {
+                responder(intercambio, 200, "{\"count\":1}");
+            }
+        });
+
+        long inicio = System.nanoTime();
+        try (ConsumoApi consumoApi = nuevoConsumoApi(new PoliticaReintentos(3, Duration.ofMillis(10), Duration.ofSeconds(5)))) {
+            assertEquals("{\"count\":1}", consumoApi.obtenerDatos(url));
+        }
+        assertEquals(2, solicitudes.get());
+        assertTrue(System.nanoTime() - inicio >= Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void noReintentaLosErroresDelCliente() {
+        String url = iniciarServidor((intercambio, numero) -> responder(intercambio, 404, "{}"));
+
+        try (ConsumoApi consumoApi = nuevoConsumoApi(new PoliticaReintentos(3, Duration.ofMillis(10), Duration.ofSeconds(5)))) {
+            assertNull(consumoApi.obtenerDatos(url));
+        }
+        assertEquals(1, solicitudes.get());
+    }
+
+    @Test
+    void abandonaAlAgotarLosReintentos() {
+        String url = iniciarServidor((intercambio, numero) -> responder(intercambio, 503, "{}"));
+
+        try (ConsumoApi consumoApi = nuevoConsumoApi(new PoliticaReintentos(2, Duration.ofMillis(10), Duration.ofSeconds(5)))) {
+            assertNull(consumoApi.obtenerDatos(url));
+        }
+        assertEquals(3, solicitudes.get());
+    }
+
+    @Test
+    void lasLlamadasConcurrentesAUnaMismaUrlCompartenLaSolicitud() {
+        String url = iniciarServidor((intercambio, numero) -> {
+            try {
+                Thread.sleep(300); // Mantiene la solicitud en vuelo mientras llegan las demás llamadas
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            responder(intercambio, 200, "{\"count\":1}");
+        });
+
+        try (ConsumoApi consumoApi = nuevoConsumoApi(PoliticaReintentos.sinReintentos())) {
+            List<CompletableFuture<String>> futuros = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futuros.add(consumoApi.obtenerDatosAsync(url));
+            }
+            futuros.forEach(futuro -> assertEquals("{\"count\":1}", futuro.join()));
+        }
+        assertEquals(1, solicitudes.get());
+    }
+
+    @Test
+    void interpretaRetryAfterEnSegundosYComoFecha() {
+        assertEquals(Optional.of(Duration.ofSeconds(120)), PoliticaReintentos.interpretarRetryAfter("120"));
+        String enUnMinuto = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusMinutes(1));
+        Duration espera = PoliticaReintentos.interpretarRetryAfter(enUnMinuto).orElseThrow();
+        assertTrue(espera.compareTo(Duration.ofSeconds(55)) > 0 && espera.compareTo(Duration.ofSeconds(61)) < 0);
+        assertEquals(Optional.empty(), PoliticaReintentos.interpretarRetryAfter("pronto"));
+    }
+
+    @Test
+    void elLimitadorEspaciaLasSolicitudesQueExcedenLaRafaga() throws InterruptedException {
+        LimitadorTasa limitador = new LimitadorTasa(10, 2);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 7; i++) {
+            limitador.adquirir("gutendex.com"); // 2 de la ráfaga y 5 a razón de 10 por segundo
+        }
+        assertTrue(System.nanoTime() - inicio >= Duration.ofMillis(450).toNanos());
+
+        long otroHost = System.nanoTime();
+        limitador.adquirir("otro.com"); // Cada host tiene su propia cubeta
+        assertTrue(System.nanoTime() - otroHost < Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void laCoberturaRespondeAntesQueUnaSolicitudLenta() {
+        String url = iniciarServidor((intercambio, numero) -> {
+            if (numero == 1) {
+                try {
+                    Thread.sleep(3_000); // La primera solicitud cae en la cola lenta
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            responder(intercambio, 200, "{\"count\":1}");
+        });
+        PoliticaCobertura cobertura = new PoliticaCobertura(true, 95, Duration.ofMillis(100));
+        for (int i = 0; i < 20; i++) {
+            cobertura.registrar(Duration.ofMillis(10).toNanos()); // Latencias habituales del servidor
+        }
+
+        long inicio = System.nanoTime();
+        try (ConsumoApi consumoApi = nuevoConsumoApi(PoliticaReintentos.sinReintentos(), cobertura)) {
+            assertEquals("{\"count\":1}", consumoApi.obtenerDatos(url));
+        }
+        assertTrue(System.nanoTime() - inicio < Duration.ofSeconds(2).toNanos());
+        assertEquals(2, solicitudes.get());
+    }
+
+    @Test
+    void elLimiteDeConcurrenciaSubeConRespuestasRapidasYBajaConErrores() throws InterruptedException {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(4, 1, 16, 2.0);
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < limitador.getLimite(); j++) {
+                limitador.adquirir();
+            }
+            for (int j = limitador.getEnVuelo(); j > 0; j--) {
+                limitador.liberar(Duration.ofMillis(10).toNanos(), false);
+            }
+        }
+        assertEquals(16, limitador.getLimite());
+
+        limitador.adquirir();
+        Thread.sleep(5); // Deja pasar una latencia desde la última reducción
+        limitador.liberar(Duration.ofMillis(1).toNanos(), true);
+        assertEquals(14, limitador.getLimite());
+    }
+
+    private ConsumoApi nuevoConsumoApi(PoliticaReintentos politica) {
+        return nuevoConsumoApi(politica, PoliticaCobertura.deshabilitada());
+    }
+
+    private ConsumoApi nuevoConsumoApi(PoliticaReintentos politica, PoliticaCobertura cobertura) {
+        return new ConsumoApi(Duration.ofSeconds(5), Duration.ofSeconds(20), CacheRespuestasApi.deshabilitada(),
+                MedidorOperaciones.deshabilitado(), politica, LimitadorTasa.deshabilitado(),
+                LimitadorConcurrencia.fijo(64), cobertura);
+    }
+
+    private String iniciarServidor(Respuesta respuesta) {
+        try {
+            servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        servidor.createContext("/books", intercambio -> respuesta.enviar(intercambio, solicitudes.incrementAndGet()));
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.start();
+        return "http://127.0.0.1:" + servidor.getAddress().getPort() + "/books?search=quijote";
+    }
+
+    private static void responder(HttpExchange intercambio, int estado, String json) throws IOException {
+        byte[] cuerpo = json.getBytes(StandardCharsets.UTF_8);
+        intercambio.sendResponseHeaders(estado, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.literatura.model.DatosPagina;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Conversión de una página de resultados de Gutendex (32 libros, src/test/resources/gutendex/pagina-1.json).
+// Se ejecuta con: ./mvnw -Pbenchmark verify -Djmh.filtro=ConvierteDatosBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvierteDatosBenchmark {
+
+    private final ConvierteDatos conversor = new ConvierteDatos();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String pagina;
+
+    @Setup
+    public void cargarPagina() throws IOException {
+        try (InputStream entrada = ConvierteDatosBenchmark.class.getResourceAsStream("/gutendex/pagina-1.json")) {
+            pagina = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Página completa a objetos con ConvierteDatos.obtenerDatos
+    @Benchmark
+    public DatosPagina obtenerDatos() {
+        return conversor.obtenerDatos(pagina, DatosPagina.class);
+    }
+
+    // Camino anterior de la búsqueda: árbol JSON completo y luego treeToValue de cada resultado
+    @Benchmark
+    public void arbolYTreeToValue(Blackhole blackhole) throws IOException {
+        JsonNode raiz = objectMapper.readTree(pagina);
+        for (JsonNode resultado : raiz.get("results")) {
+            blackhole.consume(objectMapper.treeToValue(resultado, DatosLibro.class));
+        }
+    }
+
+    // Recorrido en streaming de todos los resultados, sin árbol intermedio
+    @Benchmark
+    public void obtenerResultados(Blackhole blackhole) {
+        try (Stream<DatosLibro> resultados = conversor.obtenerResultados(pagina, DatosLibro.class)) {
+            resultados.forEach(blackhole::consume);
+        }
+    }
+
+    // Lo que necesita la búsqueda de un libro: solo el primer resultado
+    @Benchmark
+    public DatosLibro primerResultado() {
+        try (Stream<DatosLibro> resultados = conversor.obtenerResultados(pagina, DatosLibro.class)) {
+            return resultados.findFirst().orElseThrow();
+        }
+    }
+}
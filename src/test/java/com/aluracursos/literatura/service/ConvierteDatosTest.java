@@ -0,0 +1,69 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosLibro;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConvierteDatosTest {
+
+    private static final String PAGINA = """
+            {"count": 2, "next": null, "previous": null,
+             "meta": {"nested": [1, 2, {"deep": true}]},
+             "results": [
+               {"id": 2000, "title": "Don Quijote", "subjects": ["Spain -- Fiction"],
+                "authors": [{"name": "Cervantes Saavedra, Miguel de", "birth_year": 1547, "death_year": 1616}],
+                "formats": {"text/html": "https://www.gutenberg.org/ebooks/2000.html.images"},
+                "languages": ["es"], "download_count": 12345},
+               {"id": 84, "title": "Frankenstein", "authors": [], "languages": ["en"], "download_count": 99}
+             ]}
+            """;
+
+    private final ConvierteDatos conversor = new ConvierteDatos();
+
+    @Test
+    void recorreLosResultadosSaltandoLosCamposDesconocidos() {
+        try (Stream<DatosLibro> resultados = conversor.obtenerResultados(PAGINA, DatosLibro.class)) {
+            List<DatosLibro> libros = resultados.toList();
+
+            assertEquals(2, libros.size());
+            assertEquals("Don Quijote", libros.get(0).titulo());
+            assertEquals("Cervantes Saavedra, Miguel de", libros.get(0).autoresList().get(0).nombre());
+            assertEquals(List.of("es"), libros.get(0).idiomas());
+            assertEquals(12345, libros.get(0).numeroDescargas());
+            assertEquals("Frankenstein", libros.get(1).titulo());
+        }
+    }
+
+    @Test
+    void devuelveUnStreamVacioSinResultados() {
+        try (Stream<DatosLibro> resultados = conversor.obtenerResultados("{\"count\": 0, \"results\": []}", DatosLibro.class)) {
+            assertTrue(resultados.findFirst().isEmpty());
+        }
+        try (Stream<DatosLibro> resultados = conversor.obtenerResultados("{\"detail\": \"Not found.\"}", DatosLibro.class)) {
+            assertTrue(resultados.findFirst().isEmpty());
+        }
+    }
+
+    @Test
+    void registraUnaDecodificacionPorRespuestaYNoPorElemento() {
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        ConvierteDatos medido = new ConvierteDatos(new MedidorOperaciones(registro));
+        try (Stream<DatosLibro> resultados = medido.obtenerResultados(PAGINA, DatosLibro.class)) {
+            assertEquals(2, resultados.count());
+        }
+        try (Stream<DatosLibro> resultados = medido.obtenerResultados(PAGINA, DatosLibro.class)) {
+            assertTrue(resultados.findFirst().isPresent()); // Se deja de leer antes del final
+        }
+
+        Timer decodificaciones = registro.get("literatura.operaciones").tag("tipo", MedidorOperaciones.TIPO_JSON)
+                .tag("nombre", "DatosLibro[]").tag("resultado", MedidorOperaciones.RESULTADO_OK).timer();
+        assertEquals(2, decodificaciones.count());
+    }
+}
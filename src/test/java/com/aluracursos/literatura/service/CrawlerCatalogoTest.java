@@ -0,0 +1,79 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosLibro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Rastrea el catálogo del servidor simulado con la descarga real (ConsumoApi y ConvierteDatos) y el registro
+// simulado, que anota los ids de Gutenberg de cada lote en lugar de guardarlos
+class CrawlerCatalogoTest {
+
+    private static final int RESULTADOS_POR_PAGINA = 10;
+    private static final int LIBROS_POR_LOTE = 25; // No es múltiplo de la página: el último lote queda incompleto
+
+    private final RegistroLibroService registroLibroService = mock(RegistroLibroService.class);
+    private final List<Integer> registrados = new ArrayList<>();
+    private ServidorGutendexSimulado servidor;
+    private ConsumoApi consumoApi;
+
+    @BeforeEach
+    void configurar() {
+        when(registroLibroService.registrarLote(any())).thenAnswer(invocacion -> {
+            List<DatosLibro> lote = invocacion.getArgument(0);
+            lote.forEach(libro -> registrados.add(libro.gutenbergId())); // El crawler vacía la lista después
+            return lote.size();
+        });
+        consumoApi = new ConsumoApi(Duration.ofSeconds(5), Duration.ofSeconds(20), CacheRespuestasApi.deshabilitada(),
+                MedidorOperaciones.deshabilitado(), PoliticaReintentos.sinReintentos(), LimitadorTasa.deshabilitado(),
+                LimitadorConcurrencia.fijo(64), PoliticaCobertura.deshabilitada());
+    }
+
+    @AfterEach
+    void detener() {
+        consumoApi.close();
+        if (servidor != null) {
+            servidor.close();
+        }
+    }
+
+    @Test
+    void pideCadaPaginaUnaVezYRegistraCadaLibroUnaSolaVez() {
+        CrawlerCatalogo.ResumenRastreo resumen = rastrear(7, 3); // Más páginas que la ventana de solicitudes en vuelo
+
+        assertEquals(7, resumen.paginas());
+        assertEquals(0, resumen.paginasFallidas());
+        assertEquals(70, resumen.librosLeidos());
+        assertEquals(70, resumen.librosRegistrados());
+        assertEquals(7, servidor.getEstadisticas().solicitudes()); // Ninguna página repetida ni posterior a la última
+        assertEquals(IntStream.rangeClosed(1, 70).boxed().toList(), registrados.stream().sorted().toList()); // Todos, sin repetidos
+    }
+
+    @Test
+    void conUnaSolaPaginaNoPideMas() {
+        CrawlerCatalogo.ResumenRastreo resumen = rastrear(1, 3);
+
+        assertEquals(1, resumen.paginas());
+        assertEquals(1, servidor.getEstadisticas().solicitudes());
+        assertEquals(Set.copyOf(IntStream.rangeClosed(1, RESULTADOS_POR_PAGINA).boxed().toList()), Set.copyOf(registrados));
+    }
+
+    private CrawlerCatalogo.ResumenRastreo rastrear(int paginas, int maxEnVuelo) {
+        servidor = ServidorGutendexSimulado.iniciar(new ServidorGutendexSimulado.Configuracion(
+                Duration.ZERO, Duration.ZERO, 0.0, Duration.ZERO, 0.0, 0.0, RESULTADOS_POR_PAGINA, paginas));
+        CrawlerCatalogo crawler = new CrawlerCatalogo(consumoApi, new ConvierteDatos(), registroLibroService,
+                servidor.getUrlCatalogo(), maxEnVuelo, LIBROS_POR_LOTE);
+        return crawler.rastrear();
+    }
+}
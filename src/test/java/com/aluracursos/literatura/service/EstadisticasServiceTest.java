@@ -0,0 +1,146 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosAutor;
+import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.literatura.model.EstadisticasCatalogo;
+import com.aluracursos.literatura.repository.EstadisticasRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Comprueba contra la base PostgreSQL configurada (DB_HOST, DB_NAME_BOOK, ...) que la fila materializada de
+// estadísticas coincide con los agregados recalculados cuando varias transacciones registran libros a la vez
+// y cuando cambian las descargas de libros ya registrados.
+// Las transacciones se confirman de verdad, así que los libros generados se eliminan al terminar.
+@SpringBootTest(properties = {
+        "literatura.menu.habilitado=false",
+        "literatura.instantanea.archivo=",
+        "literatura.metricas.archivo=",
+        "literatura.estadisticas.materializadas=true"
+})
+class EstadisticasServiceTest {
+
+    private static final int TRANSACCIONES = 8;
+    private static final int LIBROS_POR_TRANSACCION = 20;
+
+    private final String prefijo = "prueba-" + UUID.randomUUID() + "-";
+    // Ids de Gutenberg muy por encima de los reales, distintos en cada ejecución
+    private final int primerId = ThreadLocalRandom.current().nextInt(1_000_000_000, 2_000_000_000);
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    @Autowired
+    private EstadisticasRepository estadisticasRepository;
+
+    @Autowired
+    private RegistroLibroService registroLibroService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM libro_autor WHERE libro_id IN (SELECT id FROM libros WHERE titulo LIKE ?)", prefijo + "%");
+        jdbcTemplate.update("DELETE FROM libros WHERE titulo LIKE ?", prefijo + "%");
+        jdbcTemplate.update("DELETE FROM autores WHERE nombre LIKE ?", prefijo + "%");
+        jdbcTemplate.update("DELETE FROM estadisticas_catalogo"); // Se reconstruye en la próxima lectura
+    }
+
+    @Test
+    void lasAltasConcurrentesSinFilaSeCuentanTodas() throws Exception {
+        jdbcTemplate.update("DELETE FROM estadisticas_catalogo"); // Todas las transacciones encuentran la fila sin crear
+        List<List<DatosLibro>> lotes = new ArrayList<>();
+        for (int t = 0; t < TRANSACCIONES; t++) {
+            lotes.add(generar(primerId + t * LIBROS_POR_TRANSACCION, LIBROS_POR_TRANSACCION));
+        }
+
+        registrarALaVez(lotes);
+
+        assertEquals(estadisticasRepository.calcularEstadisticas(), estadisticasService.obtener());
+    }
+
+    @Test
+    void losCambiosDeDescargasSeSumanSinDescartarLaFila() {
+        List<DatosLibro> lote = generar(primerId, LIBROS_POR_TRANSACCION);
+        registroLibroService.registrarLote(lote);
+        estadisticasService.obtener(); // Materializar la fila
+
+        // Los que tienen el mínimo y el máximo del lote no cambian: podrían ser los extremos del catálogo
+        int minimo = lote.stream().mapToInt(DatosLibro::numeroDescargas).min().orElseThrow();
+        int maximo = lote.stream().mapToInt(DatosLibro::numeroDescargas).max().orElseThrow();
+        List<DatosLibro> cambiados = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            DatosLibro libro = lote.get(i);
+            int descargas = libro.numeroDescargas();
+            if (descargas != minimo && descargas != maximo) {
+                descargas += i % 2 == 0 ? 7 : -3;
+            }
+            cambiados.add(new DatosLibro(libro.gutenbergId(), libro.titulo(), libro.autoresList(), libro.idiomas(), descargas));
+        }
+        registroLibroService.registrarLote(cambiados);
+
+        assertTrue(estadisticasRepository.findById(EstadisticasCatalogo.ID).isPresent());
+        assertEquals(estadisticasRepository.calcularEstadisticas(), estadisticasService.obtener());
+    }
+
+    @Test
+    void bajarElMaximoDescartaLaFila() {
+        DatosLibro maximo = new DatosLibro(primerId, prefijo + "maximo",
+                List.of(new DatosAutor(prefijo + "autor-maximo", 1800, 1870)), List.of("en"), Integer.MAX_VALUE);
+        registroLibroService.registrarLote(List.of(maximo));
+        estadisticasService.obtener();
+
+        registroLibroService.registrarLote(List.of(new DatosLibro(maximo.gutenbergId(), maximo.titulo(),
+                maximo.autoresList(), maximo.idiomas(), 1)));
+
+        assertTrue(estadisticasRepository.findById(EstadisticasCatalogo.ID).isEmpty());
+        assertEquals(estadisticasRepository.calcularEstadisticas(), estadisticasService.obtener());
+    }
+
+    // Lanza un lote por hilo y los libera juntos para que las transacciones se solapen
+    private void registrarALaVez(List<List<DatosLibro>> lotes) throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        try (ExecutorService hilos = Executors.newFixedThreadPool(lotes.size())) {
+            List<CompletableFuture<Integer>> registros = lotes.stream()
+                    .map(lote -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            salida.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException(e);
+                        }
+                        return registroLibroService.registrarLote(lote);
+                    }, hilos))
+                    .toList();
+            salida.countDown();
+            for (CompletableFuture<Integer> registro : registros) {
+                registro.get();
+            }
+        }
+    }
+
+    private List<DatosLibro> generar(int primerIdLote, int cantidad) {
+        List<DatosLibro> libros = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int gutenbergId = primerIdLote + i;
+            List<DatosAutor> autores = List.of(new DatosAutor(prefijo + "autor-" + gutenbergId, 1800, 1870));
+            libros.add(new DatosLibro(gutenbergId, prefijo + gutenbergId, autores, List.of("en"), gutenbergId % 1000));
+        }
+        return libros;
+    }
+}
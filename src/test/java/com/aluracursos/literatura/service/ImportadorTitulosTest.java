@@ -0,0 +1,100 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosAutor;
+import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.literatura.model.Libro;
+import com.aluracursos.literatura.repository.LibroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImportadorTitulosTest {
+
+    private final LibroRepository libroRepository = mock(LibroRepository.class);
+    private final BusquedaLibrosApi busquedaLibrosApi = mock(BusquedaLibrosApi.class);
+    private final RegistroLibroService registroLibroService = mock(RegistroLibroService.class);
+    private final ImportadorTitulos importador = new ImportadorTitulos(libroRepository, busquedaLibrosApi, registroLibroService, 4);
+
+    @BeforeEach
+    void configurar() {
+        when(libroRepository.findByTituloLibro(anyString())).thenReturn(Optional.empty());
+        when(busquedaLibrosApi.buscar(anyString())).thenReturn(Optional.empty());
+        when(registroLibroService.esRegistrable(any())).thenReturn(true);
+        when(registroLibroService.registrarLote(any())).thenReturn(1);
+    }
+
+    @Test
+    void omiteLosTitulosQueSoloDifierenEnMayusculasOEspacios() throws IOException {
+        ImportadorTitulos.ResumenImportacion resumen = importar("Don Quijote", "  don   QUIJOTE ", "", "Frankenstein");
+
+        assertEquals(3, resumen.leidos());
+        assertEquals(1, resumen.repetidos());
+        assertEquals(List.of("Don Quijote", "Frankenstein"), resumen.resultados().stream().map(ImportadorTitulos.ResultadoTitulo::titulo).toList());
+        verify(busquedaLibrosApi, times(1)).buscar("Don Quijote");
+    }
+
+    @Test
+    void leeLineasDeTextoYNdjsonOmitiendoLasVaciasYLasInvalidas() throws IOException {
+        ImportadorTitulos.ResumenImportacion resumen = importar(
+                "{\"titulo\": \" Emma \"}", "{\"title\": \"Dracula\"}", "   ", "{\"autor\": \"Sin título\"}",
+                "{\"titulo\": \"\"}", "{no es json", "Ulysses");
+
+        assertEquals(3, resumen.leidos());
+        assertEquals(List.of("Emma", "Dracula", "Ulysses"), resumen.resultados().stream().map(ImportadorTitulos.ResultadoTitulo::titulo).toList());
+    }
+
+    @Test
+    void clasificaCadaTituloYTotalizaElInforme() throws IOException {
+        when(libroRepository.findByTituloLibro("Emma")).thenReturn(Optional.of(new Libro(1L, 158, "Emma", 0, 10)));
+        when(busquedaLibrosApi.buscar("Dracula")).thenReturn(Optional.of(libro(345, "Dracula")));
+        when(busquedaLibrosApi.buscar("Falla")).thenThrow(new IllegalStateException("Gutendex no responde"));
+
+        ImportadorTitulos.ResumenImportacion resumen = importar("Emma", "Dracula", "Inexistente", "Falla");
+
+        assertEquals(ImportadorTitulos.Estado.YA_REGISTRADO, estado(resumen, "Emma"));
+        assertEquals(ImportadorTitulos.Estado.REGISTRADO, estado(resumen, "Dracula"));
+        assertEquals(ImportadorTitulos.Estado.NO_ENCONTRADO, estado(resumen, "Inexistente"));
+        assertEquals(ImportadorTitulos.Estado.FALLIDO, estado(resumen, "Falla"));
+        assertEquals("Gutendex no responde", resumen.conEstado(ImportadorTitulos.Estado.FALLIDO).getFirst().detalle());
+        assertTrue(resumen.toString().startsWith("4 títulos leídos (0 repetidos): 1 registrados, 1 ya registrados, 1 no encontrados, 1 fallidos"));
+        assertTrue(resumen.informe().contains("No encontrados (1):" + System.lineSeparator() + "Inexistente"));
+        assertTrue(resumen.informe().contains("Fallidos (1):" + System.lineSeparator() + "Falla\tGutendex no responde"));
+    }
+
+    @Test
+    void losTitulosQueLlevanAlMismoLibroLoRegistranUnaSolaVez() throws IOException {
+        when(busquedaLibrosApi.buscar(anyString())).thenReturn(Optional.of(libro(2701, "Moby Dick; Or, The Whale")));
+
+        ImportadorTitulos.ResumenImportacion resumen = importar("Moby Dick", "The Whale", "Moby Dick or The Whale");
+
+        assertEquals(1, resumen.cantidad(ImportadorTitulos.Estado.REGISTRADO));
+        assertEquals(2, resumen.cantidad(ImportadorTitulos.Estado.YA_REGISTRADO));
+        verify(registroLibroService, times(1)).registrarLote(any());
+    }
+
+    private ImportadorTitulos.ResumenImportacion importar(String... lineas) throws IOException {
+        return importador.importar(new BufferedReader(new StringReader(String.join("\n", lineas))));
+    }
+
+    private static ImportadorTitulos.Estado estado(ImportadorTitulos.ResumenImportacion resumen, String titulo) {
+        return resumen.resultados().stream().filter(resultado -> resultado.titulo().equals(titulo)).findFirst().orElseThrow().estado();
+    }
+
+    private static DatosLibro libro(int gutenbergId, String titulo) {
+        return new DatosLibro(gutenbergId, titulo, List.of(new DatosAutor("Autor", 1800, 1850)), List.of("en"), 100);
+    }
+}
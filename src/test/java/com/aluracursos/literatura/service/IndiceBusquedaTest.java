@@ -0,0 +1,40 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.LibroIndexado;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceBusquedaTest {
+
+    private final IndiceBusqueda indice = new IndiceBusqueda(null); // Sin repositorio: los libros se agregan a mano
+
+    @Test
+    void encuentraPorPrefijoYSinAcentosEnTituloYAutores() {
+        indice.agregar(List.of(
+                new LibroIndexado(1, "Don Quijote de la Mancha", "Cervantes Saavedra, Miguel de", 0, 500),
+                new LibroIndexado(2, "Novelas ejemplares", "Cervantes Saavedra, Miguel de", 0, 100),
+                new LibroIndexado(3, "Cien años de soledad", "García Márquez, Gabriel", 0, 300)));
+
+        assertEquals(List.of(1L), ids(indice.buscar("quijo cervántes", 10)));
+        assertEquals(List.of(3L), ids(indice.buscar("Garcia anos", 10)));
+        assertEquals(List.of(1L, 2L), ids(indice.buscar("cervantes", 10))); // Empate: primero el más descargado
+        assertTrue(indice.buscar("quijote hamlet", 10).isEmpty()); // Todos los términos deben aparecer
+    }
+
+    @Test
+    void priorizaLasCoincidenciasExactasSobreLosPrefijos() {
+        indice.agregar(List.of(
+                new LibroIndexado(1, "Hamletin", "Anónimo", 0, 900),
+                new LibroIndexado(2, "Hamlet", "Shakespeare, William", 0, 10)));
+
+        assertEquals(List.of(2L, 1L), ids(indice.buscar("hamlet", 10)));
+    }
+
+    private static List<Long> ids(List<LibroIndexado> libros) {
+        return libros.stream().map(LibroIndexado::id).toList();
+    }
+}
@@ -0,0 +1,136 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosLibro;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Prueba de carga de la búsqueda y registro de libros (lo que hace la opción 1 del menú) contra el
+// Gutendex simulado: N usuarios concurrentes buscan títulos distintos y registran el primer resultado.
+// Informa la latencia p50/p95/p99 de cada búsqueda + registro y los libros registrados por segundo.
+// Se ejecuta con: ./mvnw test -Dtest=IngestaCargaTest -Dbenchmark=true
+// Parámetros opcionales: -Dcarga.usuarios=16 -Dcarga.busquedas=50 y los del servidor simulado
+// (-Dgutendex.latencia-ms, -Dgutendex.variacion-ms, -Dgutendex.tasa-lentas, -Dgutendex.latencia-lenta-ms,
+// -Dgutendex.tasa-errores, -Dgutendex.tasa-limite, -Dgutendex.resultados-por-pagina) y los de la aplicación,
+// por ejemplo -Dliteratura.api.cobertura.habilitada=true para comparar la latencia con y sin coberturas.
+// Los libros y autores creados se eliminan al terminar.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "literatura.menu.habilitado=false",
+        "literatura.cache.habilitada=false",
+        "literatura.api.solicitudes-por-segundo=0",
+        "logging.level.org.hibernate.type.descriptor.sql=INFO"
+})
+class IngestaCargaTest {
+
+    private static final int USUARIOS = Integer.getInteger("carga.usuarios", 16);
+    private static final int BUSQUEDAS_POR_USUARIO = Integer.getInteger("carga.busquedas", 50);
+
+    private static ServidorGutendexSimulado servidor;
+
+    private final String prefijo = "carga-" + UUID.randomUUID() + " ";
+    private List<String> autoresPrevios;
+
+    @Autowired
+    private BusquedaLibrosApi busquedaLibrosApi;
+
+    @Autowired
+    private RegistroLibroService registroLibroService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void apuntarAlServidorSimulado(DynamicPropertyRegistry registro) {
+        servidor = ServidorGutendexSimulado.iniciar(ServidorGutendexSimulado.Configuracion.desdePropiedades());
+        registro.add("literatura.api.url-busqueda", servidor::getUrlBusqueda);
+        registro.add("literatura.crawler.url-catalogo", servidor::getUrlCatalogo);
+    }
+
+    @AfterAll
+    static void detenerServidor() {
+        servidor.close();
+    }
+
+    // Los autores de la grabación que ya existían no se borran al limpiar
+    @BeforeEach
+    void recordarAutores() {
+        autoresPrevios = jdbcTemplate.queryForList("SELECT nombre FROM autores", String.class);
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM libro_autor WHERE libro_id IN (SELECT id FROM libros WHERE titulo LIKE ?)", prefijo + "%");
+        jdbcTemplate.update("DELETE FROM libros WHERE titulo LIKE ?", prefijo + "%");
+        jdbcTemplate.update("DELETE FROM autores a WHERE a.nombre <> ALL (?) AND NOT EXISTS (SELECT 1 FROM libro_autor la WHERE la.autor_id = a.id)",
+                (Object) autoresPrevios.toArray(String[]::new));
+        jdbcTemplate.update("DELETE FROM estadisticas_catalogo"); // Se reconstruye en la próxima lectura
+    }
+
+    @Test
+    void busquedaYRegistroConcurrentes() throws Exception {
+        AtomicInteger registrados = new AtomicInteger();
+        AtomicInteger sinResultado = new AtomicInteger();
+        List<Future<long[]>> usuarios = new ArrayList<>(USUARIOS);
+
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < USUARIOS; u++) {
+                int usuario = u;
+                usuarios.add(executor.submit(() -> {
+                    long[] latencias = new long[BUSQUEDAS_POR_USUARIO];
+                    for (int i = 0; i < BUSQUEDAS_POR_USUARIO; i++) {
+                        long t0 = System.nanoTime();
+                        DatosLibro datosLibro = busquedaLibrosApi.buscarPrimero(prefijo + "usuario " + usuario + " libro " + i);
+                        if (datosLibro != null && registroLibroService.esRegistrable(datosLibro)) {
+                            registroLibroService.registrar(datosLibro);
+                            registrados.incrementAndGet();
+                        } else {
+                            sinResultado.incrementAndGet(); // Errores o 429 del servidor simulado que persistieron tras los reintentos
+                        }
+                        latencias[i] = System.nanoTime() - t0;
+                    }
+                    return latencias;
+                }));
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        long[] latencias = new long[USUARIOS * BUSQUEDAS_POR_USUARIO];
+        for (int u = 0; u < USUARIOS; u++) {
+            System.arraycopy(usuarios.get(u).get(), 0, latencias, u * BUSQUEDAS_POR_USUARIO, BUSQUEDAS_POR_USUARIO);
+        }
+        Arrays.sort(latencias);
+
+        assertEquals(latencias.length, registrados.get() + sinResultado.get());
+        System.out.printf("%d usuarios x %d búsquedas, servidor: %s%n", USUARIOS, BUSQUEDAS_POR_USUARIO, servidor.getEstadisticas());
+        System.out.printf("Latencia búsqueda + registro: p50 %.1f ms | p95 %.1f ms | p99 %.1f ms | máx %.1f ms%n",
+                percentil(latencias, 50), percentil(latencias, 95), percentil(latencias, 99), latencias[latencias.length - 1] / 1e6);
+        System.out.printf("Registrados: %d (%d sin resultado) en %.2f s: %.0f libros/s%n",
+                registrados.get(), sinResultado.get(), segundos, registrados.get() / segundos);
+    }
+
+    // Percentil por rango más cercano, en milisegundos
+    private static double percentil(long[] ordenadas, double percentil) {
+        int indice = (int) Math.ceil(percentil / 100 * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+}
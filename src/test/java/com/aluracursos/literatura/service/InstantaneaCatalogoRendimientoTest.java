@@ -0,0 +1,87 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.LibroIndexado;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Mide cuánto tarda en abrirse una instantánea del catálogo y en cargar el índice de búsqueda y el ranking
+// a partir de ella, según la cantidad de libros. No usa la base de datos.
+// Se ejecuta con: ./mvnw test -Dtest=InstantaneaCatalogoRendimientoTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InstantaneaCatalogoRendimientoTest {
+
+    private static final int[] CANTIDADES = {1_000, 10_000, 100_000, 1_000_000};
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void tiempoDeCargaSegunLaCantidadDeLibros() throws IOException {
+        cargar(escribir(1_000, directorio.resolve("calentamiento.bin"))); // Que el JIT compile antes de medir
+        System.out.println("Libros    | MB    | escritura | apertura + CRC | lectura de columnas | ranking  | índice de búsqueda");
+        for (int cantidad : CANTIDADES) {
+            Path archivo = directorio.resolve("catalogo-" + cantidad + ".bin");
+            long inicio = System.nanoTime();
+            escribir(cantidad, archivo);
+            double escritura = milisegundos(inicio);
+
+            Tiempos tiempos = cargar(archivo);
+            System.out.printf("%9d | %5.1f | %6.0f ms | %11.1f ms | %16.0f ms | %5.0f ms | %15.0f ms%n", cantidad,
+                    tiempos.bytes() / 1e6, escritura, tiempos.apertura(), tiempos.lectura(), tiempos.ranking(), tiempos.indice());
+        }
+    }
+
+    private record Tiempos(long bytes, double apertura, double lectura, double ranking, double indice) {
+    }
+
+    private static Tiempos cargar(Path archivo) throws IOException {
+        long inicio = System.nanoTime();
+        InstantaneaCatalogo instantanea = InstantaneaCatalogo.abrir(archivo);
+        double apertura = milisegundos(inicio);
+
+        inicio = System.nanoTime();
+        List<LibroIndexado> libros = instantanea.librosIndexados();
+        double lectura = milisegundos(inicio);
+
+        inicio = System.nanoTime();
+        new RankingDescargas(null, 10).construir(libros); // Solo se construyen desde la instantánea, sin repositorio
+        double ranking = milisegundos(inicio);
+
+        inicio = System.nanoTime();
+        IndiceBusqueda indice = new IndiceBusqueda(null);
+        indice.construir(libros);
+        double tiempoIndice = milisegundos(inicio);
+
+        assertEquals(instantanea.cantidadLibros(), indice.cantidadLibros());
+        return new Tiempos(instantanea.tamanio(), apertura, lectura, ranking, tiempoIndice);
+    }
+
+    // Libros con títulos de tres palabras y uno a tres autores de un conjunto de cantidad / 4
+    private static Path escribir(int cantidad, Path archivo) throws IOException {
+        InstantaneaCatalogo.Escritor escritor = new InstantaneaCatalogo.Escritor();
+        int autores = Math.max(1, cantidad / 4);
+        for (int i = 0; i < autores; i++) {
+            escritor.agregarAutor(i + 1, "Autor" + i + ", Nombre", 1800 + i % 100, i % 3 == 0 ? null : 1870 + i % 100);
+        }
+        for (int i = 0; i < cantidad; i++) {
+            int[] autoresLibro = new int[1 + i % 3];
+            for (int j = 0; j < autoresLibro.length; j++) {
+                autoresLibro[j] = (i * 7 + j) % autores;
+            }
+            escritor.agregarLibro(i + 1, i + 1, "Libro numero " + i, (i * 7919) % 100_000, 1 << (i % 6), autoresLibro);
+        }
+        escritor.escribir(archivo, cantidad);
+        return archivo;
+    }
+
+    private static double milisegundos(long inicio) {
+        return (System.nanoTime() - inicio) / 1e6;
+    }
+}
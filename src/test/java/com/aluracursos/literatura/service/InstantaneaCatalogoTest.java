@@ -0,0 +1,78 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosLibro;
+import com.aluracursos.literatura.model.Languages;
+import com.aluracursos.literatura.model.LibroIndexado;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstantaneaCatalogoTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void conservaLibrosAutoresYAutorias() throws IOException {
+        Path archivo = escribirEjemplo();
+
+        InstantaneaCatalogo instantanea = InstantaneaCatalogo.abrir(archivo);
+        assertEquals(2, instantanea.cantidadLibros());
+        assertEquals(42L, instantanea.huella());
+        assertEquals(new LibroIndexado(10, "Don Quijote", "Cervantes Saavedra, Miguel de, Ormsby, John",
+                Languages.ES.bit() | Languages.EN.bit(), 12345), instantanea.libroIndexado(0));
+        assertNull(instantanea.gutenbergId(1)); // Registrado antes de guardar los ids de Gutenberg
+        assertArrayEquals(new int[0], instantanea.autoresDe(1));
+
+        DatosLibro datosLibro = instantanea.datosLibro(0);
+        assertEquals(2000, datosLibro.gutenbergId());
+        assertEquals(List.of("en", "es"), datosLibro.idiomas());
+        assertEquals(1547, datosLibro.autoresList().get(0).anioNacimiento());
+        assertNull(datosLibro.autoresList().get(1).anioFallecimiento());
+    }
+
+    @Test
+    void rechazaUnArchivoAlterado() throws IOException {
+        Path archivo = escribirEjemplo();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{'X'}), canal.size() - 1); // Último byte del último texto
+        }
+
+        IOException error = assertThrows(IOException.class, () -> InstantaneaCatalogo.abrir(archivo));
+        assertTrue(error.getMessage().contains("suma de verificación"), error.getMessage());
+    }
+
+    @Test
+    void rechazaOtraVersionDelFormato() throws IOException {
+        Path archivo = escribirEjemplo();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(Short.BYTES).putShort(0, (short) (InstantaneaCatalogo.VERSION + 1)), 4);
+        }
+
+        IOException error = assertThrows(IOException.class, () -> InstantaneaCatalogo.abrir(archivo));
+        assertTrue(error.getMessage().contains("versión"), error.getMessage());
+    }
+
+    private Path escribirEjemplo() throws IOException {
+        InstantaneaCatalogo.Escritor escritor = new InstantaneaCatalogo.Escritor();
+        int cervantes = escritor.agregarAutor(1, "Cervantes Saavedra, Miguel de", 1547, 1616);
+        int ormsby = escritor.agregarAutor(2, "Ormsby, John", 1829, null);
+        escritor.agregarLibro(10, 2000, "Don Quijote", 12345, Languages.ES.bit() | Languages.EN.bit(), new int[]{cervantes, ormsby});
+        escritor.agregarLibro(11, null, "Anónimo", 7, 0, new int[0]);
+        Path archivo = directorio.resolve("catalogo.bin");
+        escritor.escribir(archivo, 42L);
+        return archivo;
+    }
+}
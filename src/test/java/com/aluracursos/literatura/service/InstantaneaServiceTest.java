@@ -0,0 +1,74 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.Languages;
+import com.aluracursos.literatura.repository.LibroRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Comprueba contra la base PostgreSQL configurada (DB_HOST, DB_NAME_BOOK, ...) cuándo una instantánea deja de
+// corresponder a la base y cómo se importa. Cada prueba se deshace al terminar.
+@Transactional
+@SpringBootTest(properties = {
+        "literatura.menu.habilitado=false",
+        "literatura.instantanea.archivo=",
+        "literatura.metricas.archivo="
+})
+class InstantaneaServiceTest {
+
+    @Autowired
+    private InstantaneaService instantaneaService;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path directorio;
+
+    // Ids de Gutenberg muy por encima de los reales, distintos en cada ejecución
+    private final int gutenbergId = ThreadLocalRandom.current().nextInt(1_000_000_000, 2_000_000_000);
+
+    @Test
+    void laInstantaneaExportadaCorrespondeALaBaseHastaQueCambia() throws IOException {
+        long idLegado = jdbcTemplate.queryForObject("""
+                INSERT INTO libros (id, titulo, idiomas, numero_descargas)
+                VALUES (nextval('libros_seq'), ?, ?, 10) RETURNING id
+                """, Long.class, "prueba-" + UUID.randomUUID(), Languages.EN.bit()); // Registrado antes de guardar el id de Gutenberg
+
+        InstantaneaCatalogo instantanea = instantaneaService.exportar(directorio.resolve("catalogo.bin"));
+        assertEquals(instantaneaService.huella(), instantanea.huella());
+
+        // Lo que hace RegistroLibroService al volver a importar un libro antiguo: solo cambia su id de Gutenberg
+        jdbcTemplate.update("UPDATE libros SET gutenberg_id = ? WHERE id = ?", gutenbergId, idLegado);
+        assertNotEquals(instantanea.huella(), instantaneaService.huella());
+    }
+
+    @Test
+    void importarOmiteLosLibrosSinIdDeGutenbergYNoRepiteLosYaRegistrados() throws IOException {
+        InstantaneaCatalogo.Escritor escritor = new InstantaneaCatalogo.Escritor();
+        int autor = escritor.agregarAutor(1, "prueba-" + UUID.randomUUID(), 1800, 1850);
+        escritor.agregarLibro(1, gutenbergId, "prueba-con-id-" + UUID.randomUUID(), 100, Languages.ES.bit(), new int[]{autor});
+        escritor.agregarLibro(2, null, "prueba-sin-id-" + UUID.randomUUID(), 50, Languages.EN.bit(), new int[]{autor});
+        Path archivo = directorio.resolve("semilla.bin");
+        escritor.escribir(archivo, 0);
+
+        assertEquals(1, instantaneaService.importar(archivo));
+        assertTrue(libroRepository.findByGutenbergId(gutenbergId).isPresent());
+        assertEquals(0, instantaneaService.importar(archivo)); // Importar la misma semilla otra vez no registra nada
+    }
+}
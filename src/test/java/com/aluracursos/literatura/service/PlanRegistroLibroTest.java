@@ -0,0 +1,61 @@
+package com.aluracursos.literatura.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Como PlanConsultasTest, para las sentencias que RegistroLibroService envía con JDBC: analiza con EXPLAIN (sin
+// ejecutarlas) sus mismas constantes con un lote de ejemplo y comprueba que encuentran los libros por índice.
+@Transactional
+@SpringBootTest(properties = "literatura.menu.habilitado=false")
+class PlanRegistroLibroTest {
+
+    private static final Integer[] IDS_GUTENBERG = {1342, 2701};
+    private static final String[] TITULOS = {"Pride and Prejudice", "Moby Dick; Or, The Whale"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void desactivarSeqScan() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off"); // Solo para la transacción del test
+    }
+
+    @Test
+    void asignarIdsGutenbergBuscaLosLibrosSinIdPorElIndiceParcial() {
+        assertUsaIndice(RegistroLibroService.ASIGNAR_IDS_GUTENBERG, "idx_libros_titulo_sin_gutenberg", "integer", "varchar");
+    }
+
+    @Test
+    void guardarLibrosBuscaLosExistentesPorElIdDeGutenberg() {
+        assertUsaIndice(RegistroLibroService.GUARDAR_LIBROS, "idx_libros_gutenberg_id", "integer", "varchar", "integer", "integer");
+    }
+
+    // Analiza la sentencia con un arreglo por parámetro, de los tipos dados: ids de Gutenberg, títulos o enteros
+    private void assertUsaIndice(String sql, String indice, String... tipos) {
+        List<String> filas = jdbcTemplate.query(conexion -> {
+            PreparedStatement sentencia = conexion.prepareStatement("EXPLAIN " + sql);
+            for (int i = 0; i < tipos.length; i++) {
+                Object[] valores = switch (i) {
+                    case 0 -> IDS_GUTENBERG;
+                    case 1 -> TITULOS;
+                    default -> new Integer[]{100, 1};
+                };
+                sentencia.setArray(i + 1, conexion.createArrayOf(tipos[i], valores));
+            }
+            return sentencia;
+        }, (fila, numero) -> fila.getString(1));
+        String plan = String.join("\n", filas);
+        assertFalse(plan.contains("Seq Scan"), "La sentencia recorre la tabla completa:\n" + plan);
+        assertTrue(plan.contains(indice), "La sentencia no usa " + indice + ":\n" + plan);
+    }
+}
@@ -0,0 +1,51 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.Languages;
+import com.aluracursos.literatura.model.LibroIndexado;
+import com.aluracursos.literatura.repository.LibroRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RankingDescargasTest {
+
+    private final LibroRepository libroRepository = mock(LibroRepository.class); // Base vacía: los rankings empiezan sin libros
+    private final RankingDescargas ranking = new RankingDescargas(libroRepository, 3);
+
+    @Test
+    void conservaSoloLosMasDescargadosEnTotalYPorIdioma() {
+        ranking.construir();
+        ranking.registrar(List.of(
+                libro(1, 50, Languages.EN), libro(2, 10, Languages.ES), libro(3, 40, Languages.EN, Languages.ES),
+                libro(4, 30, Languages.ES), libro(5, 20, Languages.EN)));
+
+        assertEquals(List.of(1L, 3L, 4L), ids(ranking.top(Optional.empty())));
+        assertEquals(List.of(3L, 4L, 2L), ids(ranking.top(Optional.of(Languages.ES))));
+        assertEquals(List.of(1L, 3L, 5L), ids(ranking.top(Optional.of(Languages.EN))));
+    }
+
+    @Test
+    void siUnLibroBajaSusDescargasElRankingSeVuelveACargarDeLaBase() {
+        ranking.construir();
+        ranking.registrar(List.of(libro(1, 50, Languages.EN), libro(2, 40, Languages.EN)));
+        ranking.registrar(List.of(libro(1, 5, Languages.EN))); // Su lugar podría ser de un libro que no está en memoria
+
+        ranking.top(Optional.empty());
+        verify(libroRepository, times(2)).findTopLibros(any()); // Al construir y al leer el ranking invalidado
+    }
+
+    private static LibroIndexado libro(long id, int descargas, Languages... idiomas) {
+        return new LibroIndexado(id, "Libro " + id, "Autor", Languages.mascara(List.of(idiomas)), descargas);
+    }
+
+    private static List<Long> ids(List<LibroIndexado> libros) {
+        return libros.stream().map(LibroIndexado::id).toList();
+    }
+}
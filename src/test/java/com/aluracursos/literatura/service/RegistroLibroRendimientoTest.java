@@ -0,0 +1,90 @@
+package com.aluracursos.literatura.service;
+
+import com.aluracursos.literatura.model.DatosAutor;
+import com.aluracursos.literatura.model.DatosLibro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Mide inserciones por segundo contra la base PostgreSQL configurada (DB_HOST, DB_NAME_BOOK, ...).
+// Se ejecuta con: ./mvnw test -Dtest=RegistroLibroRendimientoTest -Dbenchmark=true
+// Los libros y autores generados se eliminan al terminar.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "literatura.menu.habilitado=false",
+        "logging.level.org.hibernate.type.descriptor.sql=INFO"
+})
+class RegistroLibroRendimientoTest {
+
+    private static final int LIBROS = 5_000;
+    private static final int LIBROS_POR_TRANSACCION = 500;
+
+    private final String prefijo = "bench-" + UUID.randomUUID() + "-";
+    // Ids de Gutenberg muy por encima de los reales, distintos en cada ejecución
+    private final int primerId = ThreadLocalRandom.current().nextInt(1_000_000_000, 2_000_000_000);
+
+    @Autowired
+    private RegistroLibroService registroLibroService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM libro_autor WHERE libro_id IN (SELECT id FROM libros WHERE titulo LIKE ?)", prefijo + "%");
+        jdbcTemplate.update("DELETE FROM libros WHERE titulo LIKE ?", prefijo + "%");
+        jdbcTemplate.update("DELETE FROM autores WHERE nombre LIKE ?", prefijo + "%");
+        jdbcTemplate.update("DELETE FROM estadisticas_catalogo"); // Se reconstruye en la próxima lectura
+    }
+
+    @Test
+    void transaccionPorLibroFrenteALotes() {
+        List<DatosLibro> unoAUno = generar("uno-", primerId, LIBROS);
+        long inicio = System.nanoTime();
+        unoAUno.forEach(registroLibroService::registrar); // Comportamiento anterior: cada libro confirma por separado
+        double porLibro = LIBROS / ((System.nanoTime() - inicio) / 1e9);
+
+        List<DatosLibro> enLotes = generar("lote-", primerId + LIBROS, LIBROS);
+        int registrados = 0;
+        inicio = System.nanoTime();
+        for (int i = 0; i < enLotes.size(); i += LIBROS_POR_TRANSACCION) {
+            registrados += registroLibroService.registrarLote(enLotes.subList(i, Math.min(i + LIBROS_POR_TRANSACCION, enLotes.size())));
+        }
+        double porLote = LIBROS / ((System.nanoTime() - inicio) / 1e9);
+
+        int repetidos = 0;
+        inicio = System.nanoTime();
+        for (int i = 0; i < enLotes.size(); i += LIBROS_POR_TRANSACCION) { // Repetir la importación: no debe cambiar nada
+            repetidos += registroLibroService.registrarLote(enLotes.subList(i, Math.min(i + LIBROS_POR_TRANSACCION, enLotes.size())));
+        }
+        double porRepeticion = LIBROS / ((System.nanoTime() - inicio) / 1e9);
+
+        assertEquals(LIBROS, registrados);
+        assertEquals(0, repetidos);
+        System.out.printf("Una transacción por libro: %.0f libros/s%n", porLibro);
+        System.out.printf("Lotes de %d por transacción: %.0f libros/s (x%.1f)%n", LIBROS_POR_TRANSACCION, porLote, porLote / porLibro);
+        System.out.printf("Repetición de los mismos lotes: %.0f libros/s%n", porRepeticion);
+    }
+
+    // Libros con dos autores cada uno, tomados de un conjunto de LIBROS / 4 autores distintos
+    private List<DatosLibro> generar(String serie, int primerIdSerie, int cantidad) {
+        List<DatosLibro> libros = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            List<DatosAutor> autores = List.of(
+                    new DatosAutor(prefijo + serie + "autor-" + (i % (cantidad / 4)), 1800, 1870),
+                    new DatosAutor(prefijo + serie + "autor-" + ((i + 1) % (cantidad / 4)), 1810, 1880));
+            libros.add(new DatosLibro(primerIdSerie + i, prefijo + serie + i, autores, List.of("en", "es"), i));
+        }
+        return libros;
+    }
+}
@@ -0,0 +1,257 @@
+package com.aluracursos.literatura.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Servidor HTTP local que imita a Gutendex a partir de una página grabada (src/test/resources/gutendex),
+// para medir ConsumoApi y la ingesta sin salir de la máquina. Responde:
+// - /books?search=<título>: los libros grabados que contienen todos los términos; si ninguno coincide,
+//   un libro grabado con el título buscado, de modo que cada búsqueda distinta registra un libro nuevo.
+// - /books/?page=<n>: páginas del catálogo armadas repitiendo la grabación, con ids y títulos únicos.
+// La latencia, la proporción de respuestas lentas (la cola de latencia), de errores 500 y de respuestas 429
+// (con Retry-After) y la cantidad de resultados por respuesta se fijan con la Configuracion. También se puede levantar solo, para apuntar la aplicación a él:
+// ./mvnw test-compile org.codehaus.mojo:exec-maven-plugin:java -Dexec.classpathScope=test -Dexec.mainClass=com.aluracursos.literatura.service.ServidorGutendexSimulado
+class ServidorGutendexSimulado implements AutoCloseable {
+
+    static final String GRABACION = "/gutendex/pagina-1.json";
+
+    record Configuracion(Duration latencia, Duration variacionLatencia, double tasaLentas, Duration latenciaLenta,
+                         double tasaErrores, double tasaLimite, int resultadosPorPagina, int paginas) {
+
+        static Configuracion porDefecto() {
+            return new Configuracion(Duration.ofMillis(50), Duration.ofMillis(20), 0.0, Duration.ofSeconds(1), 0.0, 0.0, 32, 100);
+        }
+
+        // Toma cada valor de una propiedad del sistema (gutendex.latencia-ms, gutendex.tasa-errores, ...)
+        // o del valor por defecto si no está definida
+        static Configuracion desdePropiedades() {
+            Configuracion base = porDefecto();
+            return new Configuracion(
+                    Duration.ofMillis(Long.getLong("gutendex.latencia-ms", base.latencia().toMillis())),
+                    Duration.ofMillis(Long.getLong("gutendex.variacion-ms", base.variacionLatencia().toMillis())),
+                    Double.parseDouble(System.getProperty("gutendex.tasa-lentas", String.valueOf(base.tasaLentas()))),
+                    Duration.ofMillis(Long.getLong("gutendex.latencia-lenta-ms", base.latenciaLenta().toMillis())),
+                    Double.parseDouble(System.getProperty("gutendex.tasa-errores", String.valueOf(base.tasaErrores()))),
+                    Double.parseDouble(System.getProperty("gutendex.tasa-limite", String.valueOf(base.tasaLimite()))),
+                    Integer.getInteger("gutendex.resultados-por-pagina", base.resultadosPorPagina()),
+                    Integer.getInteger("gutendex.paginas", base.paginas()));
+        }
+    }
+
+    // Contadores de las respuestas enviadas
+    record Estadisticas(long solicitudes, long errores, long limitadas) {
+    }
+
+    private final Configuracion configuracion;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<ObjectNode> grabados = new ArrayList<>();
+    private final List<ObjectNode> plantillas = new ArrayList<>(); // Grabados con autores, para los libros sintetizados
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final AtomicLong solicitudes = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private final AtomicLong limitadas = new AtomicLong();
+
+    private ServidorGutendexSimulado(Configuracion configuracion, int puerto) throws IOException {
+        this.configuracion = configuracion;
+        try (InputStream entrada = ServidorGutendexSimulado.class.getResourceAsStream(GRABACION)) {
+            for (JsonNode resultado : objectMapper.readTree(entrada).get("results")) {
+                grabados.add((ObjectNode) resultado);
+                if (!resultado.path("authors").isEmpty()) {
+                    plantillas.add((ObjectNode) resultado);
+                }
+            }
+        }
+        this.executor = Executors.newVirtualThreadPerTaskExecutor(); // La latencia simulada bloquea hilos virtuales, no del sistema
+        this.servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", puerto), 0);
+        servidor.createContext("/books", this::atender);
+        servidor.setExecutor(executor);
+    }
+
+    static ServidorGutendexSimulado iniciar(Configuracion configuracion) {
+        return iniciar(configuracion, 0);
+    }
+
+    // Con puerto 0 se usa uno libre
+    static ServidorGutendexSimulado iniciar(Configuracion configuracion, int puerto) {
+        try {
+            ServidorGutendexSimulado simulado = new ServidorGutendexSimulado(configuracion, puerto);
+            simulado.servidor.start();
+            return simulado;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ServidorGutendexSimulado simulado = iniciar(Configuracion.desdePropiedades(), Integer.getInteger("gutendex.puerto", 8090));
+        System.out.println("Gutendex simulado en " + simulado.getUrlBase() + " con " + simulado.configuracion);
+        System.out.println("--literatura.api.url-busqueda=" + simulado.getUrlBusqueda()
+                + " --literatura.crawler.url-catalogo=" + simulado.getUrlCatalogo());
+        Thread.currentThread().join(); // Hasta que se detenga el proceso
+    }
+
+    String getUrlBase() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    String getUrlBusqueda() {
+        return getUrlBase() + "/books?search=";
+    }
+
+    String getUrlCatalogo() {
+        return getUrlBase() + "/books/";
+    }
+
+    Estadisticas getEstadisticas() {
+        return new Estadisticas(solicitudes.get(), errores.get(), limitadas.get());
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        executor.close();
+    }
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            solicitudes.incrementAndGet();
+            esperarLatencia();
+
+            double sorteo = ThreadLocalRandom.current().nextDouble();
+            if (sorteo < configuracion.tasaLimite()) {
+                limitadas.incrementAndGet();
+                intercambio.getResponseHeaders().add("Retry-After", "1");
+                responder(intercambio, 429, "{\"detail\":\"Request was throttled.\"}");
+                return;
+            }
+            if (sorteo < configuracion.tasaLimite() + configuracion.tasaErrores()) {
+                errores.incrementAndGet();
+                responder(intercambio, 500, "{\"detail\":\"Internal server error.\"}");
+                return;
+            }
+
+            Map<String, String> parametros = parametros(intercambio.getRequestURI().getRawQuery());
+            if (parametros.containsKey("search")) {
+                responder(intercambio, 200, objectMapper.writeValueAsString(busqueda(parametros.get("search"))));
+                return;
+            }
+            int pagina = Integer.parseInt(parametros.getOrDefault("page", "1"));
+            if (pagina < 1 || pagina > configuracion.paginas()) {
+                responder(intercambio, 404, "{\"detail\":\"Invalid page.\"}");
+                return;
+            }
+            responder(intercambio, 200, objectMapper.writeValueAsString(pagina(pagina)));
+        }
+    }
+
+    private void esperarLatencia() {
+        long espera = configuracion.latencia().toMillis();
+        if (ThreadLocalRandom.current().nextDouble() < configuracion.tasaLentas()) {
+            espera = configuracion.latenciaLenta().toMillis(); // Una de las respuestas de la cola lenta
+        }
+        if (configuracion.variacionLatencia().toMillis() > 0) {
+            espera += ThreadLocalRandom.current().nextLong(configuracion.variacionLatencia().toMillis());
+        }
+        if (espera <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ObjectNode busqueda(String consulta) {
+        String[] terminos = consulta.toLowerCase(Locale.ROOT).trim().split("\\s+");
+        List<JsonNode> resultados = new ArrayList<>(configuracion.resultadosPorPagina());
+        for (ObjectNode grabado : grabados) {
+            String titulo = grabado.path("title").asText().toLowerCase(Locale.ROOT);
+            boolean coincide = true;
+            for (String termino : terminos) {
+                coincide &= titulo.contains(termino);
+            }
+            if (coincide && resultados.size() < configuracion.resultadosPorPagina()) {
+                resultados.add(grabado);
+            }
+        }
+        if (resultados.isEmpty() && configuracion.resultadosPorPagina() > 0) {
+            ObjectNode sintetizado = plantillas.get(Math.floorMod(consulta.hashCode(), plantillas.size())).deepCopy();
+            sintetizado.put("id", Math.floorMod(consulta.hashCode(), 1_000_000_000) + 100_000); // Fuera del rango de las páginas
+            sintetizado.put("title", consulta);
+            resultados.add(sintetizado);
+        }
+        return respuesta(resultados.size(), null, null, resultados);
+    }
+
+    private ObjectNode pagina(int numero) {
+        int porPagina = configuracion.resultadosPorPagina();
+        List<JsonNode> resultados = new ArrayList<>(porPagina);
+        for (int i = 0; i < porPagina; i++) {
+            int id = (numero - 1) * porPagina + i + 1;
+            ObjectNode copia = grabados.get(i % grabados.size()).deepCopy();
+            copia.put("id", id);
+            copia.put("title", copia.path("title").asText() + " (" + id + ")");
+            resultados.add(copia);
+        }
+        String siguiente = numero < configuracion.paginas() ? getUrlCatalogo() + "?page=" + (numero + 1) : null;
+        String anterior = numero > 1 ? getUrlCatalogo() + "?page=" + (numero - 1) : null;
+        return respuesta(porPagina * configuracion.paginas(), siguiente, anterior, resultados);
+    }
+
+    private ObjectNode respuesta(int total, String siguiente, String anterior, List<JsonNode> resultados) {
+        ObjectNode respuesta = objectMapper.createObjectNode();
+        respuesta.put("count", total);
+        respuesta.put("next", siguiente);
+        respuesta.put("previous", anterior);
+        ArrayNode arreglo = respuesta.putArray("results");
+        arreglo.addAll(resultados);
+        return respuesta;
+    }
+
+    private static Map<String, String> parametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(par.substring(0, igual), URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    private static void responder(HttpExchange intercambio, int estado, String json) throws IOException {
+        byte[] cuerpo = json.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(estado, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.aluracursos.logger.loggerbase;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ManejadorAsincronoTest {
+
+    @Test
+    void escribeTodosLosMensajesEnOrdenAlVaciarElBufer() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ManejadorAsincrono manejador = new ManejadorAsincrono(new PrintStream(bytes, true, StandardCharsets.UTF_8),
+                64, 16, ManejadorAsincrono.PoliticaDesborde.BLOQUEAR);
+        for (int i = 0; i < 1_000; i++) {
+            manejador.publish(new LogRecord(Level.INFO, "mensaje " + i));
+        }
+        manejador.close();
+
+        List<String> lineas = bytes.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(1_000, lineas.size());
+        assertEquals("mensaje 0", lineas.get(0));
+        assertEquals("mensaje 999", lineas.get(999));
+    }
+
+    @Test
+    void descartaLosMensajesQueNoCabenEInformaCuantos() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream lenta = new PrintStream(bytes, true, StandardCharsets.UTF_8) {
+            @Override
+            public void print(Object texto) {
+                try {
+                    Thread.sleep(50); // Consola lenta: el búfer se llena mientras se escribe el lote
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.print(texto);
+            }
+        };
+        ManejadorAsincrono manejador = new ManejadorAsincrono(lenta, 8, 8, ManejadorAsincrono.PoliticaDesborde.DESCARTAR_NUEVOS);
+        for (int i = 0; i < 100; i++) {
+            manejador.publish(new LogRecord(Level.INFO, "mensaje " + i));
+        }
+        long descartados = manejador.getDescartados();
+        Thread.sleep(500); // Esperar a que el búfer se vacíe
+        manejador.publish(new LogRecord(Level.INFO, "ultimo")); // Se escribe junto con el aviso de descartados
+        manejador.close();
+
+        String salida = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(descartados > 0);
+        assertTrue(salida.contains("mensajes descartados por desborde"), salida);
+    }
+
+    @Test
+    void completaLosMarcadoresEnOrden() {
+        assertEquals("Top 10 en ES", LoggerBaseImpl.completar("Top {} en {}", 10, "ES"));
+        assertEquals("sin argumentos {}", LoggerBaseImpl.completar("sin argumentos {}"));
+        assertEquals("a 1 {}", LoggerBaseImpl.completar("a {} {}", 1));
+    }
+}